@@ -0,0 +1,188 @@
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed shortest distances and next hops between every pair of towns,
+ * for networks small enough that an n-by-n table fits in memory.
+ *
+ * The table is filled with one Dijkstra search per town, run in parallel.
+ * Row d of the next-hop matrix holds, for every town s, the neighbor to move
+ * to from s on a shortest path to d, so a path is rebuilt in O(path length)
+ * by following one row. Distances are stored the same way; roads are
+ * undirected, so the distance matrix is symmetric.
+ *
+ * Adding a road, or shortening one, is applied in O(n^2) by addRoad without
+ * searching again. Other changes need a new table.
+ *
+ * Author: Your Name
+ */
+public class AllPairsShortestPaths {
+    /** Largest town count whose n-by-n table fits in a Java array. */
+    public static final int MAX_TOWNS = 46340;
+
+    private final CompactTownGraph graph;
+    private final int n;
+    private final int[] distances;
+    private final int[] nextHops;
+
+    /**
+     * Computes the table for every town in a snapshot.
+     *
+     * @param graph the snapshot to search
+     * @throws IllegalArgumentException if the snapshot has more than MAX_TOWNS towns
+     */
+    public AllPairsShortestPaths(CompactTownGraph graph) {
+        n = graph.size();
+        if (n > MAX_TOWNS) throw new IllegalArgumentException("Too many towns for an all-pairs table: " + n);
+        this.graph = graph;
+        distances = new int[n * n];
+        nextHops = new int[n * n];
+        IntStream.range(0, n).parallel().forEach(d -> fillRow(graph, d));
+    }
+
+    /**
+     * Fills row d from the shortest-path tree rooted at d: the next hop from
+     * s toward d is s's parent in that tree.
+     */
+    private void fillRow(CompactTownGraph graph, int d) {
+        DijkstraSearch search = DijkstraSearch.forCurrentThread();
+        search.run(graph, d);
+        int row = d * n;
+        Arrays.fill(nextHops, row, row + n, CompactTownGraph.NONE);
+        for (int v = 0; v < n; v++) {
+            distances[row + v] = search.distance(v);
+        }
+        // Scanning the arcs finds each parent without looking up arc tails.
+        for (int u = 0; u < n; u++) {
+            for (int arc = graph.firstArc(u), end = graph.endArc(u); arc < end; arc++) {
+                int v = graph.target(arc);
+                if (v != u && search.previousArc(v) == arc) nextHops[row + v] = u;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of towns in the table.
+     *
+     * @return the town count
+     */
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Returns the table's id for a town.
+     *
+     * @param town the town to look up
+     * @return the town's id, or NONE if it is not in the table
+     */
+    public int idOf(Town town) {
+        return graph.idOf(town);
+    }
+
+    /**
+     * Returns the town with the given id.
+     *
+     * @param id the town id
+     * @return the Town object
+     */
+    public Town town(int id) {
+        return graph.town(id);
+    }
+
+    /**
+     * Returns the shortest distance between two towns.
+     *
+     * @param source the source town id
+     * @param destination the destination town id
+     * @return the distance, or UNREACHABLE if there is no path
+     */
+    public int distance(int source, int destination) {
+        return distances[destination * n + source];
+    }
+
+    /**
+     * Returns the neighbor to move to from a town on a shortest path to a destination.
+     *
+     * @param source the current town id
+     * @param destination the destination town id
+     * @return the next town id, or NONE at the destination or when there is no path
+     */
+    public int nextHop(int source, int destination) {
+        return nextHops[destination * n + source];
+    }
+
+    /**
+     * Returns the shortest route between two towns, reading each road from the
+     * current graph, since roads added in place are not in the snapshot.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param roads the graph holding the roads
+     * @return the Route, or null if there is none
+     */
+    public Route route(Town sourceVertex, Town destinationVertex, GraphInterface<Town, Road> roads) {
+        int source = idOf(sourceVertex);
+        int destination = idOf(destinationVertex);
+        if (source == CompactTownGraph.NONE || destination == CompactTownGraph.NONE
+                || distance(source, destination) == CompactTownGraph.UNREACHABLE) return null;
+
+        Route.Builder route = new Route.Builder(graph, source);
+        // Every hop gets strictly closer, so at most n - 1 hops are needed.
+        for (int v = source; v != destination && route.hops() < n; ) {
+            int next = nextHop(v, destination);
+            route.add(roads.getEdge(graph.town(v), graph.town(next)), next);
+            v = next;
+        }
+        return route.build();
+    }
+
+    /**
+     * Updates the table for a new road between two towns, or for a road that
+     * got shorter. Every pair is checked for a shorter route across the road,
+     * using the rows of its two towns from before the update.
+     *
+     * @param u one end of the road
+     * @param v the other end of the road
+     * @param weight the road's distance
+     */
+    public void addRoad(int u, int v, int weight) {
+        if (u == v) return;
+        int[] distancesToU = Arrays.copyOfRange(distances, u * n, u * n + n);
+        int[] distancesToV = Arrays.copyOfRange(distances, v * n, v * n + n);
+        int[] hopsToU = Arrays.copyOfRange(nextHops, u * n, u * n + n);
+        int[] hopsToV = Arrays.copyOfRange(nextHops, v * n, v * n + n);
+
+        IntStream.range(0, n).parallel().forEach(d -> {
+            int row = d * n;
+            long viaUV = (long) weight + distancesToV[d];
+            long viaVU = (long) weight + distancesToU[d];
+            for (int s = 0; s < n; s++) {
+                long best = distances[row + s];
+                // s -> ... -> u -> v -> ... -> d
+                long candidate = distancesToU[s] + viaUV;
+                if (candidate < best) {
+                    best = candidate;
+                    distances[row + s] = (int) candidate;
+                    nextHops[row + s] = (s == u) ? v : hopsToU[s];
+                }
+                // s -> ... -> v -> u -> ... -> d
+                candidate = distancesToV[s] + viaVU;
+                if (candidate < best) {
+                    distances[row + s] = (int) candidate;
+                    nextHops[row + s] = (s == v) ? u : hopsToV[s];
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns an estimate of the memory held by the table.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        // Two n-by-n int matrices; the snapshot holding the towns is not counted.
+        return 8L * n * n;
+    }
+}
@@ -0,0 +1,131 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the AllPairsShortestPaths class and
+ * Graph's all-pairs mode, comparing the table with single-source searches
+ * before and after roads are added and removed.
+ *
+ * Author: Your Name
+ */
+public class AllPairsShortestPaths_STUDENT_Test {
+    private Graph graph;
+    private Town[] towns;
+    private Random random;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a random graph of 120 towns and 240 roads.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        random = new Random(5);
+        towns = new Town[120];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            graph.addVertex(towns[i]);
+        }
+        for (int i = 0; i < 240; i++) {
+            addRandomRoad("R" + i);
+        }
+    }
+
+    /**
+     * Tests that the table's distances and next hops agree with Dijkstra.
+     */
+    @Test
+    public void testTableMatchesDijkstra() {
+        AllPairsShortestPaths table = new AllPairsShortestPaths(graph.freeze());
+        assertMatchesDijkstra(table);
+    }
+
+    /**
+     * Tests that adding and shortening roads updates the table in place and
+     * gives the same answers as a fresh table.
+     */
+    @Test
+    public void testIncrementalUpdates() {
+        graph.setAllPairsMode(true);
+        AllPairsShortestPaths table = graph.allPairs();
+        for (int i = 0; i < 40; i++) {
+            addRandomRoad("New" + i);
+        }
+        // A cheaper road between already connected towns replaces the old one.
+        Road existing = graph.edgesOf(towns[0]).iterator().next();
+        graph.addEdge(existing.getSource(), existing.getDestination(), 1, "Bypass");
+
+        assertSame(table, graph.allPairs());
+        assertMatchesDijkstra(table);
+    }
+
+    /**
+     * Tests that all-pairs mode answers shortestPath and rebuilds after a removal.
+     */
+    @Test
+    public void testAllPairsModeShortestPath() {
+        graph.setAllPairsMode(true);
+        AllPairsShortestPaths table = graph.allPairs();
+        assertTrue(graph.allPairsEstimatedBytes() >= 8L * towns.length * towns.length);
+
+        Road road = graph.edgesOf(towns[3]).iterator().next();
+        graph.removeEdge(road.getSource(), road.getDestination(), road.getDistance(), road.getName());
+        CompactTownGraph snapshot = graph.freeze();
+        DijkstraSearch search = new DijkstraSearch();
+        for (int s = 0; s < towns.length; s += 7) {
+            search.run(snapshot, snapshot.idOf(towns[s]));
+            for (int d = 0; d < towns.length; d += 5) {
+                int expected = search.distance(snapshot.idOf(towns[d]));
+                ArrayList<String> path = graph.shortestPath(towns[s], towns[d]);
+                if (expected == CompactTownGraph.UNREACHABLE || s == d) {
+                    assertTrue(path.isEmpty());
+                } else {
+                    assertEquals(expected, totalMiles(path));
+                }
+            }
+        }
+        assertNotSame(table, graph.allPairs());
+
+        graph.setAllPairsMode(false);
+        assertEquals(0, graph.allPairsEstimatedBytes());
+    }
+
+    private void assertMatchesDijkstra(AllPairsShortestPaths table) {
+        CompactTownGraph snapshot = graph.freeze();
+        DijkstraSearch search = new DijkstraSearch();
+        for (int s = 0; s < towns.length; s++) {
+            search.run(snapshot, snapshot.idOf(towns[s]));
+            for (int d = 0; d < towns.length; d++) {
+                int expected = search.distance(snapshot.idOf(towns[d]));
+                int source = table.idOf(towns[s]);
+                int destination = table.idOf(towns[d]);
+                assertEquals(expected, table.distance(source, destination));
+                int next = table.nextHop(source, destination);
+                if (expected == CompactTownGraph.UNREACHABLE || s == d) {
+                    assertEquals(CompactTownGraph.NONE, next);
+                } else {
+                    // The hop must lead onto a shortest path.
+                    int step = graph.getEdge(towns[s], table.town(next)).getDistance();
+                    assertEquals(expected, step + table.distance(next, destination));
+                }
+            }
+        }
+    }
+
+    private void addRandomRoad(String name) {
+        graph.addEdge(towns[random.nextInt(towns.length)], towns[random.nextInt(towns.length)],
+                1 + random.nextInt(25), name);
+    }
+
+    private static int totalMiles(ArrayList<String> path) {
+        int total = 0;
+        for (String step : path) {
+            String[] words = step.split(" ");
+            total += Integer.parseInt(words[words.length - 2]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,707 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Low-memory graph of towns and roads, for networks too large for the
+ * hash-based Graph. Towns and roads are rows in parallel primitive arrays
+ * (struct-of-arrays), and town and road names are interned in two NamePools. Town and
+ * Road objects are not stored; every method that returns one builds a
+ * lightweight view from the arrays.
+ *
+ * Each road r has two half-edges, 2r and 2r + 1, one leaving each end.
+ * endpoints[h] is the town half-edge h leaves, so its target is
+ * endpoints[h ^ 1], and next[h] chains the half-edges leaving the same town.
+ * That is 24 bytes per road in total: two endpoints, two links, a distance
+ * and a name id. Names add their bytes once per distinct name.
+ *
+ * The columns are IntColumns. An ArrayGraph constructed off-heap keeps all
+ * of them, its name pools and its routing index in direct memory, so a
+ * continent-sized network leaves only a few hundred small objects on the
+ * heap and garbage collection pauses do not grow with the graph. Routing
+ * off-heap takes about a third longer than on the heap, and the JVM's
+ * direct memory limit (-XX:MaxDirectMemorySize, by default the maximum heap
+ * size) must be large enough for the graph.
+ *
+ * Removing a road or town moves the last row into the hole, so the arrays
+ * stay dense; ids are therefore not stable across removals. Edge lookups
+ * walk the shorter of the two towns' chains, which suits road networks,
+ * where few towns have more than a handful of roads.
+ *
+ * Like Graph, a road added between towns that are already connected
+ * replaces the existing road, whichever way round either runs. An ArrayGraph
+ * is not thread-safe.
+ *
+ * Author: Your Name
+ */
+public class ArrayGraph implements GraphInterface<Town, Road> {
+    private static final int NONE = CompactTownGraph.NONE;
+
+    private final boolean offHeap;
+    private final NamePool townNamePool;
+    private final NamePool roadNamePool;
+    private final IntColumn townByName;
+    private int townByNameLength;
+
+    private int townCount;
+    private final IntColumn townNames;
+    private final IntColumn firstHalfEdge;
+
+    private int roadCount;
+    private final IntColumn endpoints;
+    private final IntColumn next;
+    private final IntColumn distances;
+    private final IntColumn roadNames;
+
+    private long version;
+    private RoutingIndex routingIndex;
+
+    /**
+     * Constructs an empty ArrayGraph on the Java heap.
+     */
+    public ArrayGraph() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty ArrayGraph.
+     *
+     * @param offHeap true to keep the graph in direct memory
+     */
+    public ArrayGraph(boolean offHeap) {
+        this.offHeap = offHeap;
+        townNamePool = new NamePool(offHeap);
+        roadNamePool = new NamePool(offHeap);
+        townByName = IntColumn.create(offHeap, 16);
+        townNames = IntColumn.create(offHeap, 16);
+        firstHalfEdge = IntColumn.create(offHeap, 16);
+        endpoints = IntColumn.create(offHeap, 32);
+        next = IntColumn.create(offHeap, 32);
+        distances = IntColumn.create(offHeap, 16);
+        roadNames = IntColumn.create(offHeap, 16);
+    }
+
+    /**
+     * Checks whether the graph is kept in direct memory.
+     *
+     * @return true if the graph is off-heap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // -------------- TOWNS ---------------
+
+    /**
+     * Returns the number of towns.
+     *
+     * @return the town count
+     */
+    public int townCount() {
+        return townCount;
+    }
+
+    /**
+     * Returns the id of a town.
+     *
+     * @param name the town name
+     * @return the town id, or NONE if there is no such town
+     */
+    public int townId(String name) {
+        int nameId = townNamePool.find(name);
+        return (nameId == NamePool.NONE || nameId >= townByNameLength) ? NONE : townByName.get(nameId);
+    }
+
+    /**
+     * Returns the name of a town.
+     *
+     * @param id the town id
+     * @return the town name
+     */
+    public String townName(int id) {
+        return townNamePool.name(townNames.get(id));
+    }
+
+    /**
+     * Returns a view of a town.
+     *
+     * @param id the town id
+     * @return a new Town with the town's name
+     */
+    public Town town(int id) {
+        return new Town(townName(id));
+    }
+
+    private int townId(Town town) {
+        return (town == null) ? NONE : townId(town.getName());
+    }
+
+    /**
+     * Adds a town by name.
+     *
+     * @param name the town name
+     * @return the id of the new or existing town
+     */
+    public int addTown(String name) {
+        int nameId = townNamePool.intern(name);
+        if (nameId >= townByNameLength) {
+            townByName.ensureCapacity(nameId + 1);
+            townByName.fill(townByNameLength, nameId + 1, NONE);
+            townByNameLength = nameId + 1;
+        }
+        int existing = townByName.get(nameId);
+        if (existing != NONE) return existing;
+
+        int id = townCount++;
+        townNames.ensureCapacity(townCount);
+        firstHalfEdge.ensureCapacity(townCount);
+        townNames.set(id, nameId);
+        firstHalfEdge.set(id, NONE);
+        townByName.set(nameId, id);
+        version++;
+        return id;
+    }
+
+    /**
+     * Adds a town (vertex) to the graph.
+     *
+     * @param v the town to add
+     * @return true if added successfully, false if it is null or already present
+     */
+    @Override
+    public boolean addVertex(Town v) {
+        if (v == null || containsVertex(v)) return false;
+        addTown(v.getName());
+        return true;
+    }
+
+    /**
+     * Checks if a town exists in the graph.
+     *
+     * @param v the town to check
+     * @return true if the town exists, false otherwise
+     */
+    @Override
+    public boolean containsVertex(Town v) {
+        return townId(v) != NONE;
+    }
+
+    /**
+     * Removes a town (vertex) from the graph, along with all connected roads.
+     * The last town takes over the removed town's id.
+     *
+     * @param v the town to remove
+     * @return true if removed successfully, false otherwise
+     */
+    @Override
+    public boolean removeVertex(Town v) {
+        int id = townId(v);
+        if (id == NONE) return false;
+        while (firstHalfEdge.get(id) != NONE) {
+            removeRoad(firstHalfEdge.get(id) >> 1);
+        }
+        townByName.set(townNames.get(id), NONE);
+        int last = --townCount;
+        if (id != last) {
+            townNames.set(id, townNames.get(last));
+            firstHalfEdge.set(id, firstHalfEdge.get(last));
+            townByName.set(townNames.get(id), id);
+            for (int h = firstHalfEdge.get(id); h != NONE; h = next.get(h)) {
+                endpoints.set(h, id);
+            }
+        }
+        version++;
+        return true;
+    }
+
+    /**
+     * Returns a view of all towns (vertices) in the graph. The set reads the
+     * arrays and creates a Town for every element it returns.
+     *
+     * @return a read-only Set of the towns
+     */
+    @Override
+    public Set<Town> vertexSet() {
+        return new AbstractSet<Town>() {
+            @Override
+            public Iterator<Town> iterator() {
+                return new RowIterator<Town>(townCount) {
+                    @Override
+                    Town row(int id) {
+                        return town(id);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return townCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Town && containsVertex((Town) o);
+            }
+        };
+    }
+
+    // -------------- ROADS ---------------
+
+    /**
+     * Returns the number of roads.
+     *
+     * @return the road count
+     */
+    public int roadCount() {
+        return roadCount;
+    }
+
+    /**
+     * Returns a view of a road.
+     *
+     * @param id the road id
+     * @return a new Road with the road's towns, distance and name
+     */
+    public Road road(int id) {
+        return new Road(town(endpoints.get(2 * id)), town(endpoints.get(2 * id + 1)), distances.get(id), roadName(id));
+    }
+
+    /**
+     * Returns the name of a road.
+     *
+     * @param id the road id
+     * @return the name, or null for a road added without one
+     */
+    public String roadName(int id) {
+        int nameId = roadNames.get(id);
+        return (nameId != NONE) ? roadNamePool.name(nameId) : null;
+    }
+
+    /** A null road name, which Graph and Road accept, is stored as NONE. */
+    private int roadNameId(String name) {
+        return (name != null) ? roadNamePool.intern(name) : NONE;
+    }
+
+    /**
+     * Returns the distance of a road.
+     *
+     * @param id the road id
+     * @return the distance
+     */
+    public int distance(int id) {
+        return distances.get(id);
+    }
+
+    /**
+     * Returns the id of the road between two towns.
+     *
+     * @param town1 the first town id
+     * @param town2 the second town id
+     * @return the road id, or NONE if the towns are not connected
+     */
+    public int roadBetween(int town1, int town2) {
+        if (town1 == NONE || town2 == NONE) return NONE;
+        // Both chains hold the road; walking one at a time from each end stops at the shorter.
+        int a = firstHalfEdge.get(town1);
+        int b = firstHalfEdge.get(town2);
+        while (a != NONE && b != NONE) {
+            if (endpoints.get(a ^ 1) == town2) return a >> 1;
+            if (endpoints.get(b ^ 1) == town1) return b >> 1;
+            a = next.get(a);
+            b = next.get(b);
+        }
+        return NONE;
+    }
+
+    /**
+     * Adds a road between two towns by name, creating the towns if needed.
+     * This is the low-allocation path for bulk loading.
+     *
+     * @param town1 the name of the first town
+     * @param town2 the name of the second town
+     * @param distance the distance of the road
+     * @param roadName the name of the road
+     * @return the id of the road now joining the towns
+     */
+    public int addRoad(String town1, String town2, int distance, String roadName) {
+        return addRoad(addTown(town1), addTown(town2), distance, roadNameId(roadName));
+    }
+
+    private int addRoad(int source, int destination, int distance, int nameId) {
+        int existing = roadBetween(source, destination);
+        // The last road given wins, as in Graph.
+        if (existing != NONE) removeRoad(existing);
+        int id = roadCount++;
+        distances.ensureCapacity(roadCount);
+        roadNames.ensureCapacity(roadCount);
+        endpoints.ensureCapacity(2 * roadCount);
+        next.ensureCapacity(2 * roadCount);
+        distances.set(id, distance);
+        roadNames.set(id, nameId);
+        link(2 * id, source);
+        link(2 * id + 1, destination);
+        version++;
+        return id;
+    }
+
+    /**
+     * Adds a new road connecting two towns.
+     *
+     * @param sourceVertex the source town
+     * @param destinationVertex the destination town
+     * @param weight the weight (distance) of the road
+     * @param description the name of the road
+     * @return a view of the road now joining the towns
+     */
+    @Override
+    public Road addEdge(Town sourceVertex, Town destinationVertex, int weight, String description) {
+        if (sourceVertex == null || destinationVertex == null) throw new NullPointerException();
+        int source = townId(sourceVertex);
+        int destination = townId(destinationVertex);
+        if (source == NONE || destination == NONE) throw new IllegalArgumentException();
+        return road(addRoad(source, destination, weight, roadNameId(description)));
+    }
+
+    /**
+     * Retrieves a road (edge) connecting two given towns, if it exists.
+     *
+     * @param sourceVertex the source town
+     * @param destinationVertex the destination town
+     * @return a view of the road if found, otherwise null
+     */
+    @Override
+    public Road getEdge(Town sourceVertex, Town destinationVertex) {
+        int road = roadBetween(townId(sourceVertex), townId(destinationVertex));
+        return (road != NONE) ? road(road) : null;
+    }
+
+    /**
+     * Checks if a road (edge) exists between two towns.
+     *
+     * @param sourceVertex the source town
+     * @param destinationVertex the destination town
+     * @return true if an edge exists, false otherwise
+     */
+    @Override
+    public boolean containsEdge(Town sourceVertex, Town destinationVertex) {
+        return roadBetween(townId(sourceVertex), townId(destinationVertex)) != NONE;
+    }
+
+    /**
+     * Removes the road (edge) between two towns. The last road takes over the
+     * removed road's id.
+     *
+     * @param sourceVertex the source town
+     * @param destinationVertex the destination town
+     * @param weight ignored, as in Graph
+     * @param description ignored, as in Graph
+     * @return a view of the removed road, or null if none
+     */
+    @Override
+    public Road removeEdge(Town sourceVertex, Town destinationVertex, int weight, String description) {
+        int road = roadBetween(townId(sourceVertex), townId(destinationVertex));
+        if (road == NONE) return null;
+        Road removed = road(road);
+        removeRoad(road);
+        return removed;
+    }
+
+    private void removeRoad(int id) {
+        unlink(2 * id);
+        unlink(2 * id + 1);
+        int last = --roadCount;
+        if (id != last) {
+            distances.set(id, distances.get(last));
+            roadNames.set(id, roadNames.get(last));
+            for (int side = 0; side < 2; side++) {
+                int from = 2 * last + side;
+                int to = 2 * id + side;
+                endpoints.set(to, endpoints.get(from));
+                next.set(to, next.get(from));
+                relink(from, to);
+            }
+        }
+        version++;
+    }
+
+    /** Pushes half-edge h onto the chain of a town. */
+    private void link(int h, int town) {
+        endpoints.set(h, town);
+        next.set(h, firstHalfEdge.get(town));
+        firstHalfEdge.set(town, h);
+    }
+
+    /** Takes half-edge h out of its town's chain. */
+    private void unlink(int h) {
+        relink(h, next.get(h));
+    }
+
+    /** Makes whatever pointed at half-edge h in its town's chain point at replacement. */
+    private void relink(int h, int replacement) {
+        int town = endpoints.get(h);
+        if (firstHalfEdge.get(town) == h) {
+            firstHalfEdge.set(town, replacement);
+            return;
+        }
+        int previous = firstHalfEdge.get(town);
+        while (next.get(previous) != h) previous = next.get(previous);
+        next.set(previous, replacement);
+    }
+
+    /**
+     * Returns a view of all roads in the graph. The set reads the arrays and
+     * creates a Road for every element it returns.
+     *
+     * @return a read-only Set of the roads
+     */
+    @Override
+    public Set<Road> edgeSet() {
+        return new AbstractSet<Road>() {
+            @Override
+            public Iterator<Road> iterator() {
+                return new RowIterator<Road>(roadCount) {
+                    @Override
+                    Road row(int id) {
+                        return road(id);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return roadCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Road && containsEdge(((Road) o).getSource(), ((Road) o).getDestination());
+            }
+        };
+    }
+
+    /**
+     * Returns a set of all roads connected to a given town.
+     *
+     * @param vertex the town whose edges are to be returned
+     * @return a Set of views of the connected roads
+     */
+    @Override
+    public Set<Road> edgesOf(Town vertex) {
+        Set<Road> roads = new HashSet<>();
+        int id = townId(vertex);
+        if (id == NONE) return roads;
+        for (int h = firstHalfEdge.get(id); h != NONE; h = next.get(h)) {
+            roads.add(road(h >> 1));
+        }
+        return roads;
+    }
+
+    // -------------- ROUTING ---------------
+
+    /**
+     * Returns the current version of the graph. The version changes every time
+     * a town or road is added or removed.
+     *
+     * @return the graph version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a RoutingGraph over the arrays for DijkstraSearch and the other
+     * engines. It adds one int per half-edge and per town, kept off-heap with
+     * the graph if the graph is, is built on first use after a change, and
+     * shares the town ids of this graph.
+     *
+     * @return the routing view for the current graph
+     */
+    public RoutingGraph routingGraph() {
+        if (routingIndex == null || routingIndex.version != version) {
+            routingIndex = null; // Let the old index go before building the new one.
+            routingIndex = new RoutingIndex();
+        }
+        return routingIndex;
+    }
+
+    /**
+     * Implements Dijkstra's shortest path algorithm starting from a given source town.
+     *
+     * @param sourceVertex the starting town
+     */
+    @Override
+    public void dijkstraShortestPath(Town sourceVertex) {
+        int source = townId(sourceVertex);
+        if (source != NONE) {
+            DijkstraSearch.forCurrentThread().run(routingGraph(), source);
+        }
+    }
+
+    /**
+     * Returns the shortest path from the source town to the destination town
+     * as a list of steps in string format.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @return an ArrayList of Strings describing the path
+     */
+    @Override
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex) {
+        Route route = route(sourceVertex, destinationVertex);
+        return (route != null) ? route.toSteps() : new ArrayList<>(); // Empty if no path
+    }
+
+    /**
+     * Finds the shortest route between two towns with Dijkstra's algorithm.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @return the Route, or null if there is no path
+     */
+    public Route route(Town sourceVertex, Town destinationVertex) {
+        int source = townId(sourceVertex);
+        int destination = townId(destinationVertex);
+        if (source == NONE || destination == NONE) return null;
+        DijkstraSearch search = DijkstraSearch.forCurrentThread();
+        search.runTo(routingGraph(), source, destination);
+        return search.route(destination);
+    }
+
+    /**
+     * Adds every road in a file in the populateTownGraph format.
+     *
+     * @param file the file to read
+     * @return timing and size figures for the load
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public LoadStatistics populateTownGraph(File file) throws FileNotFoundException {
+        return new TownGraphLoader().load(file, this::addRoad);
+    }
+
+    // -------------- MEMORY ---------------
+
+    /**
+     * Shrinks the arrays to the current number of towns and roads, for
+     * example after a bulk load.
+     */
+    public void trimToSize() {
+        townNames.trimToSize(townCount);
+        firstHalfEdge.trimToSize(townCount);
+        distances.trimToSize(roadCount);
+        roadNames.trimToSize(roadCount);
+        endpoints.trimToSize(2 * roadCount);
+        next.trimToSize(2 * roadCount);
+        townByName.trimToSize(townByNameLength);
+        townNamePool.trimToSize();
+        roadNamePool.trimToSize();
+    }
+
+    /**
+     * Estimates the footprint of the graph in bytes, on or off the heap, for
+     * comparison with Graph.estimatedBytes(). The routing index is not included.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        long columns = townByName.estimatedBytes() + townNames.estimatedBytes() + firstHalfEdge.estimatedBytes()
+                + endpoints.estimatedBytes() + next.estimatedBytes() + distances.estimatedBytes() + roadNames.estimatedBytes();
+        return columns + townNamePool.estimatedBytes() + roadNamePool.estimatedBytes();
+    }
+
+    /**
+     * Iterates over the rows of a table, failing if the table changes.
+     */
+    private abstract class RowIterator<T> implements Iterator<T> {
+        private final long expectedVersion = version;
+        private final int count;
+        private int id;
+
+        RowIterator(int count) {
+            this.count = count;
+        }
+
+        abstract T row(int id);
+
+        @Override
+        public boolean hasNext() {
+            return id < count;
+        }
+
+        @Override
+        public T next() {
+            if (version != expectedVersion) throw new ConcurrentModificationException();
+            if (id >= count) throw new NoSuchElementException();
+            return row(id++);
+        }
+    }
+
+    /**
+     * CSR ordering of the half-edges, so each town's arcs are contiguous as
+     * RoutingGraph requires. Arc i is half-edge arcs[i].
+     */
+    private class RoutingIndex implements RoutingGraph {
+        private final long version = ArrayGraph.this.version;
+        private final int size = townCount;
+        private final IntColumn offsets = IntColumn.create(offHeap, townCount + 1);
+        private final IntColumn arcs = IntColumn.create(offHeap, 2 * roadCount);
+
+        RoutingIndex() {
+            int arc = 0;
+            for (int v = 0; v < townCount; v++) {
+                offsets.set(v, arc);
+                for (int h = firstHalfEdge.get(v); h != NONE; h = next.get(h)) {
+                    arcs.set(arc++, h);
+                }
+            }
+            offsets.set(townCount, arc);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int firstArc(int v) {
+            return offsets.get(v);
+        }
+
+        @Override
+        public int endArc(int v) {
+            return offsets.get(v + 1);
+        }
+
+        @Override
+        public int target(int arc) {
+            return endpoints.get(arcs.get(arc) ^ 1);
+        }
+
+        @Override
+        public int weight(int arc) {
+            return distances.get(arcs.get(arc) >> 1);
+        }
+
+        @Override
+        public int tail(int arc) {
+            return endpoints.get(arcs.get(arc));
+        }
+
+        @Override
+        public Town town(int id) {
+            return ArrayGraph.this.town(id);
+        }
+
+        @Override
+        public Road road(int arc) {
+            // Oriented along the arc, as the other RoutingGraphs do.
+            int h = arcs.get(arc);
+            return new Road(town(endpoints.get(h)), town(endpoints.get(h ^ 1)), distances.get(h >> 1), roadName(h >> 1));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the ArrayGraph class against Graph.
+ *
+ * Author: Your Name
+ */
+public class ArrayGraph_STUDENT_Test {
+    private ArrayGraph arrays;
+    private Graph graph;
+    private Town[] towns;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates the same 40 towns in an ArrayGraph and a Graph.
+     */
+    @Before
+    public void setUp() {
+        arrays = new ArrayGraph();
+        graph = new Graph();
+        towns = new Town[40];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("Town" + i);
+            assertTrue(arrays.addVertex(towns[i]));
+            graph.addVertex(towns[i]);
+        }
+        assertFalse(arrays.addVertex(new Town("Town0")));
+    }
+
+    /**
+     * Tests that random additions and removals leave both graphs with the same
+     * towns, roads and shortest distances.
+     */
+    @Test
+    public void testMatchesGraph() {
+        Random random = new Random(3);
+        for (int step = 0; step < 2000; step++) {
+            // Roads run either way round, so later ones replace earlier ones both ways.
+            int i = random.nextInt(towns.length);
+            int j = random.nextInt(towns.length);
+            if (i == j) continue;
+            Town a = towns[i];
+            Town b = towns[j];
+            int action = random.nextInt(10);
+            if (action < 6) {
+                Road added = arrays.addEdge(a, b, 1 + random.nextInt(50), "R" + step);
+                graph.addEdge(a, b, added.getDistance(), "R" + step);
+            } else if (action < 9) {
+                assertEquals(graph.removeEdge(a, b, -1, null), arrays.removeEdge(a, b, -1, null));
+            } else if (graph.containsVertex(a)) {
+                assertTrue(arrays.removeVertex(a));
+                graph.removeVertex(a);
+                arrays.addVertex(a);
+                graph.addVertex(a);
+            }
+        }
+        assertEquals(graph.vertexSet(), arrays.vertexSet());
+        int roadEnds = 0;
+        for (Town town : towns) {
+            assertEquals(graph.edgesOf(town), arrays.edgesOf(town));
+            for (Road road : graph.edgesOf(town)) {
+                Road copy = arrays.getEdge(road.getSource(), road.getDestination());
+                assertEquals(road.getName(), copy.getName());
+                assertEquals(road.getDistance(), copy.getDistance());
+                assertTrue(arrays.edgeSet().contains(road));
+                roadEnds++;
+            }
+            Route expected = graph.route(towns[0], town, RoutingAlgorithm.DIJKSTRA);
+            Route actual = arrays.route(towns[0], town);
+            assertEquals(expected == null, actual == null);
+            if (expected != null) assertEquals(expected.getDistance(), actual.getDistance());
+        }
+        assertEquals(roadEnds / 2, arrays.roadCount());
+        assertEquals(roadEnds / 2, arrays.edgeSet().size());
+    }
+
+    /**
+     * Tests that the last road given between two towns replaces the existing
+     * one whichever way round it runs, as in Graph.
+     */
+    @Test
+    public void testDuplicateRoads() {
+        arrays.addEdge(towns[0], towns[1], 5, "First");
+        arrays.addEdge(towns[0], towns[1], 3, "Same way");
+        assertEquals("Same way", arrays.getEdge(towns[1], towns[0]).getName());
+        arrays.addEdge(towns[1], towns[0], 2, "Other way");
+        assertEquals("Other way", arrays.getEdge(towns[0], towns[1]).getName());
+        assertEquals(1, arrays.roadCount());
+    }
+
+    /**
+     * Tests that a road without a name is accepted and read back as null,
+     * as in Graph.
+     */
+    @Test
+    public void testNullRoadName() {
+        Road added = arrays.addEdge(towns[0], towns[1], 1, null);
+        assertNull(added.getName());
+        assertNull(arrays.getEdge(towns[1], towns[0]).getName());
+        graph.addEdge(towns[0], towns[1], 1, null);
+        assertEquals(graph.edgeSet(), arrays.edgeSet());
+        assertEquals(1, arrays.route(towns[0], towns[1]).getDistance());
+        arrays.addEdge(towns[1], towns[2], 2, "Named");
+        assertEquals("Named", arrays.getEdge(towns[1], towns[2]).getName());
+        assertNotNull(arrays.removeEdge(towns[0], towns[1], 1, null));
+    }
+
+    /**
+     * Tests loading a file and the memory used per road.
+     */
+    @Test
+    public void testLoadAndFootprint() throws IOException {
+        File file = File.createTempFile("roads", ".txt");
+        try {
+            new RoadNetworkGenerator(RoadNetworkGenerator.Topology.PLANAR, 2500, 4).setDuplicateRate(0.05).writeTo(file);
+            ArrayGraph loaded = new ArrayGraph();
+            loaded.populateTownGraph(file);
+            TownGraphManager manager = new TownGraphManager();
+            manager.populateTownGraph(file);
+
+            assertEquals(manager.allTowns().size(), loaded.townCount());
+            assertEquals(manager.allRoads().size(), loaded.roadCount());
+            assertEquals(manager.getPath("T0", "T2499"),
+                    loaded.shortestPath(new Town("T0"), new Town("T2499")));
+
+            // 24 bytes of arrays per road, plus a distinct "R<n>" name for every road.
+            loaded.trimToSize();
+            assertTrue(loaded.estimatedBytes() < 64L * loaded.roadCount());
+            loaded.addRoad("New1", "New2", 1, "After trimming");
+            assertEquals("After trimming", loaded.getEdge(new Town("New2"), new Town("New1")).getName());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Tests that an off-heap ArrayGraph gives the same roads and routes as
+     * one on the heap.
+     */
+    @Test
+    public void testOffHeap() {
+        ArrayGraph heap = new ArrayGraph();
+        ArrayGraph offHeap = new ArrayGraph(true);
+        assertTrue(offHeap.isOffHeap());
+        RoadNetworkGenerator generator = new RoadNetworkGenerator(RoadNetworkGenerator.Topology.GRID, 900, 5);
+        generator.generate((number, town1, town2, distance) -> {
+            String name1 = RoadNetworkGenerator.townName(town1);
+            String name2 = RoadNetworkGenerator.townName(town2);
+            heap.addRoad(name1, name2, distance, RoadNetworkGenerator.roadName(number));
+            offHeap.addRoad(name1, name2, distance, RoadNetworkGenerator.roadName(number));
+        });
+        assertTrue(offHeap.removeVertex(new Town("T17")));
+        assertTrue(heap.removeVertex(new Town("T17")));
+        offHeap.trimToSize();
+
+        assertEquals(heap.vertexSet(), offHeap.vertexSet());
+        assertEquals(heap.edgeSet().size(), offHeap.edgeSet().size());
+        for (Road road : heap.edgeSet()) {
+            assertEquals(road.getName(), offHeap.getEdge(road.getSource(), road.getDestination()).getName());
+        }
+        Town from = new Town("T0");
+        for (int i = 1; i < 900; i += 37) {
+            Town to = new Town(RoadNetworkGenerator.townName(i));
+            assertEquals(heap.shortestPath(from, to), offHeap.shortestPath(from, to));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.util.ArrayList;
+
+/**
+ * Point-to-point Dijkstra that grows one search from the source and one from
+ * the destination and stops once they meet. Because roads are undirected the
+ * backward search runs on the same arcs as the forward one.
+ *
+ * Both halves reuse DijkstraSearch buffers, so queries do not allocate once the
+ * buffers are warm. A search is not thread-safe; use forCurrentThread().
+ *
+ * Author: Your Name
+ */
+public class BidirectionalDijkstraSearch {
+    private static final ThreadLocal<BidirectionalDijkstraSearch> PER_THREAD =
+            ThreadLocal.withInitial(BidirectionalDijkstraSearch::new);
+
+    private final DijkstraSearch forward = new DijkstraSearch();
+    private final DijkstraSearch backward = new DijkstraSearch();
+    private int meetingFrom = CompactTownGraph.NONE;
+    private int meetingTo = CompactTownGraph.NONE;
+    private int meetingArc = CompactTownGraph.NONE;
+    private int best = CompactTownGraph.UNREACHABLE;
+
+    /**
+     * Returns the search instance owned by the calling thread.
+     *
+     * @return this thread's BidirectionalDijkstraSearch
+     */
+    public static BidirectionalDijkstraSearch forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Finds the shortest distance between two towns.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     * @param destination the destination town id
+     * @return the shortest distance, or UNREACHABLE if there is no path
+     */
+    public int run(RoutingGraph graph, int source, int destination) {
+        forward.start(graph, source);
+        backward.start(graph, destination);
+        best = (source == destination) ? 0 : CompactTownGraph.UNREACHABLE;
+        meetingFrom = source;
+        meetingTo = source;
+        meetingArc = CompactTownGraph.NONE;
+
+        while (!forward.isExhausted() && !backward.isExhausted()) {
+            // Stop once no path through an unsettled town can beat the best meeting found.
+            if ((long) forward.peekDistance() + backward.peekDistance() >= best) break;
+            if (forward.peekDistance() <= backward.peekDistance()) {
+                scanMeetings(graph, forward, backward, forward.settleNext(), true);
+            } else {
+                scanMeetings(graph, backward, forward, backward.settleNext(), false);
+            }
+        }
+        return best;
+    }
+
+    private void scanMeetings(RoutingGraph graph, DijkstraSearch side, DijkstraSearch other,
+                              int settled, boolean isForward) {
+        int settledDistance = side.distance(settled);
+        for (int arc = graph.firstArc(settled), end = graph.endArc(settled); arc < end; arc++) {
+            int neighbor = graph.target(arc);
+            int otherDistance = other.distance(neighbor);
+            if (otherDistance == CompactTownGraph.UNREACHABLE) continue;
+            long total = (long) settledDistance + graph.weight(arc) + otherDistance;
+            if (total < best) {
+                best = (int) total;
+                meetingArc = arc;
+                meetingFrom = isForward ? settled : neighbor;
+                meetingTo = isForward ? neighbor : settled;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of towns settled by both halves of the last query.
+     *
+     * @return the settled count
+     */
+    public int settledCount() {
+        return forward.settledCount() + backward.settledCount();
+    }
+
+    /**
+     * Returns the number of arcs relaxed by both halves of the last query.
+     *
+     * @return the relaxed count
+     */
+    public int relaxedCount() {
+        return forward.relaxedCount() + backward.relaxedCount();
+    }
+
+    /**
+     * Returns the route found by the last query.
+     *
+     * @return the Route, or null if there is no path
+     */
+    public Route route() {
+        if (best == CompactTownGraph.UNREACHABLE) return null;
+        Route.Builder route = new Route.Builder(forward.graph(), forward.source());
+        forward.appendPathTo(route, meetingFrom);
+        if (meetingArc != CompactTownGraph.NONE) {
+            route.add(forward.graph().road(meetingArc), meetingTo);
+        }
+        backward.appendPathFrom(route, meetingTo);
+        return route.build();
+    }
+
+    /**
+     * Describes the path found by the last query in the
+     * "from via road to to N mi" format.
+     *
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> describePath() {
+        Route route = route();
+        return (route != null) ? route.toSteps() : new ArrayList<>();
+    }
+}
@@ -0,0 +1,112 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the BidirectionalDijkstraSearch class
+ * and the early-terminating point-to-point Dijkstra, comparing both with a
+ * full single-source search.
+ * 
+ * It uses a seeded random graph plus a long chain of towns.
+ * 
+ * Author: Your Name
+ */
+public class BidirectionalDijkstraSearch_STUDENT_Test {
+    private Graph graph;
+    private CompactTownGraph snapshot;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a random graph of 300 towns and 900 roads.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        Random random = new Random(7);
+        Town[] towns = new Town[300];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            graph.addVertex(towns[i]);
+        }
+        for (int i = 0; i < 900; i++) {
+            graph.addEdge(towns[random.nextInt(towns.length)], towns[random.nextInt(towns.length)],
+                    1 + random.nextInt(20), "R" + i);
+        }
+        snapshot = graph.freeze();
+    }
+
+    /**
+     * Tests that early termination and the bidirectional search report the same
+     * distances as a full search, and that the described paths add up.
+     */
+    @Test
+    public void testDistancesMatchFullSearch() {
+        DijkstraSearch full = new DijkstraSearch();
+        DijkstraSearch pointToPoint = new DijkstraSearch();
+        BidirectionalDijkstraSearch bidirectional = new BidirectionalDijkstraSearch();
+        for (int source = 0; source < snapshot.size(); source += 29) {
+            full.run(snapshot, source);
+            for (int destination = 0; destination < snapshot.size(); destination += 13) {
+                int expected = full.distance(destination);
+                assertEquals(expected, pointToPoint.runTo(snapshot, source, destination));
+                assertEquals(expected, bidirectional.run(snapshot, source, destination));
+                if (expected != CompactTownGraph.UNREACHABLE) {
+                    assertEquals(expected, totalMiles(bidirectional.describePath()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that a nearby destination settles only a few towns.
+     */
+    @Test
+    public void testNearbyDestinationStopsEarly() {
+        Town previous = new Town("Chain0");
+        graph.addVertex(previous);
+        for (int i = 1; i <= 100; i++) {
+            Town next = new Town("Chain" + i);
+            graph.addVertex(next);
+            graph.addEdge(previous, next, 1, "Chain road " + i);
+            previous = next;
+        }
+        CompactTownGraph chain = graph.freeze();
+        int start = chain.idOf(new Town("Chain50"));
+        int end = chain.idOf(new Town("Chain52"));
+
+        DijkstraSearch search = new DijkstraSearch();
+        assertEquals(2, search.runTo(chain, start, end));
+        assertTrue(search.settledCount() <= 5);
+
+        BidirectionalDijkstraSearch bidirectional = new BidirectionalDijkstraSearch();
+        assertEquals(2, bidirectional.run(chain, start, end));
+        assertTrue(bidirectional.settledCount() <= 5);
+    }
+
+    /**
+     * Tests the manager's bidirectional mode on a small graph.
+     */
+    @Test
+    public void testManagerBidirectionalPath() {
+        TownGraphManager manager = new TownGraphManager();
+        manager.addRoad("X", "Y", 15, "XY Road");
+        manager.addRoad("Y", "Z", 20, "YZ Road");
+        manager.setRoutingAlgorithm(RoutingAlgorithm.BIDIRECTIONAL_DIJKSTRA);
+
+        ArrayList<String> path = manager.getPath("X", "Z");
+        assertEquals(2, path.size());
+        assertEquals("X via XY Road to Y 15 mi", path.get(0));
+        assertEquals("Y via YZ Road to Z 20 mi", path.get(1));
+    }
+
+    private int totalMiles(ArrayList<String> path) {
+        int total = 0;
+        for (String step : path) {
+            String[] words = step.split(" ");
+            total += Integer.parseInt(words[words.length - 2]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.Arrays;
+
+/**
+ * Growable column of bytes, the name storage behind NamePool. Like
+ * IntColumn, it keeps its values in an array on the heap, and its OffHeap
+ * subclass keeps them in a ChunkedBuffer in direct memory.
+ *
+ * Author: Your Name
+ */
+public class ByteColumn {
+    private byte[] values;
+
+    /**
+     * Constructs a heap column of zeros.
+     *
+     * @param capacity the number of values to make room for
+     */
+    public ByteColumn(int capacity) {
+        values = new byte[capacity];
+    }
+
+    /**
+     * Constructs a column of zeros on or off the heap.
+     *
+     * @param offHeap true to keep the values in direct memory
+     * @param capacity the number of values to make room for
+     * @return the new column
+     */
+    public static ByteColumn create(boolean offHeap, int capacity) {
+        return offHeap ? new OffHeap(capacity) : new ByteColumn(capacity);
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @param index the index of the value
+     * @return the value
+     */
+    public byte get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Writes a value.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     */
+    public void set(int index, byte value) {
+        values[index] = value;
+    }
+
+    /**
+     * Makes room for at least the given number of values. New values are zero.
+     *
+     * @param capacity the number of values needed
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, values.length * 3L / 2)));
+        }
+    }
+
+    /**
+     * Shrinks the column to the given number of values.
+     *
+     * @param size the number of values to keep
+     */
+    public void trimToSize(int size) {
+        if (size < values.length) values = Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the memory the column takes, on or off the heap.
+     *
+     * @return the size in bytes
+     */
+    public long estimatedBytes() {
+        return values.length;
+    }
+
+    /**
+     * A ByteColumn kept in direct memory.
+     */
+    public static class OffHeap extends ByteColumn {
+        private final ChunkedBuffer buffer;
+
+        /**
+         * Constructs an off-heap column of zeros.
+         *
+         * @param capacity the number of values to make room for
+         */
+        public OffHeap(int capacity) {
+            super(0);
+            buffer = new ChunkedBuffer(capacity);
+        }
+
+        @Override
+        public byte get(int index) {
+            return buffer.getByte(index);
+        }
+
+        @Override
+        public void set(int index, byte value) {
+            buffer.putByte(index, value);
+        }
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            buffer.ensureBytes(capacity);
+        }
+
+        @Override
+        public void trimToSize(int size) {
+            buffer.trimToBytes(size);
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return buffer.capacityBytes();
+        }
+    }
+}
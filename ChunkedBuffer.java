@@ -0,0 +1,156 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Growable off-heap store of ints or bytes, addressed by long index, kept in
+ * direct ByteBuffer chunks.
+ *
+ * The data lives outside GC-managed memory. The heap only holds one small
+ * ByteBuffer object per 64 MB chunk, so a store of many gigabytes adds
+ * nothing to garbage collection pauses. Indexes are longs, and the store is
+ * not limited to 2 GB like a single ByteBuffer or array.
+ *
+ * The first chunk starts small and doubles up to 64 MB, so small stores stay
+ * small; after that the store grows one chunk at a time without copying.
+ * An int index counts ints and a byte index counts bytes, so use one store
+ * for one kind of value. Direct memory is released when the store is
+ * garbage collected. A store is not thread-safe for writes.
+ *
+ * Author: Your Name
+ */
+public class ChunkedBuffer {
+    private static final int CHUNK_BITS = 26;
+    private static final int MIN_BYTES = 64;
+
+    private final int chunkBits;
+    private final long chunkBytes;
+    private final long offsetMask;
+    private ByteBuffer[] chunks;
+    private long capacity;
+
+    /**
+     * Constructs a store, zero-filled.
+     *
+     * @param initialBytes the capacity to start with
+     */
+    public ChunkedBuffer(long initialBytes) {
+        this(initialBytes, CHUNK_BITS);
+    }
+
+    /**
+     * Constructs a store with chunks of 2^chunkBits bytes, for tests.
+     */
+    ChunkedBuffer(long initialBytes, int chunkBits) {
+        this.chunkBits = chunkBits;
+        chunkBytes = 1L << chunkBits;
+        offsetMask = chunkBytes - 1;
+        chunks = new ByteBuffer[] {allocate((int) Math.min(chunkBytes, Math.max(MIN_BYTES, initialBytes)))};
+        capacity = chunks[0].capacity();
+        ensureBytes(initialBytes);
+    }
+
+    /**
+     * Returns the capacity in bytes.
+     *
+     * @return the number of bytes allocated
+     */
+    public long capacityBytes() {
+        return capacity;
+    }
+
+    /**
+     * Makes room for at least the given number of ints.
+     *
+     * @param ints the number of ints needed
+     */
+    public void ensureInts(long ints) {
+        ensureBytes(4 * ints);
+    }
+
+    /**
+     * Makes room for at least the given number of bytes.
+     *
+     * @param bytes the number of bytes needed
+     */
+    public void ensureBytes(long bytes) {
+        if (bytes <= capacity) return;
+        if (chunks.length == 1 && capacity < chunkBytes) {
+            long grown = capacity;
+            while (grown < bytes && grown < chunkBytes) grown *= 2;
+            resizeFirstChunk((int) Math.min(grown, chunkBytes));
+        }
+        while (capacity < bytes) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunks.length - 1] = allocate((int) chunkBytes);
+            capacity += chunkBytes;
+        }
+    }
+
+    /**
+     * Shrinks the store to the given number of bytes when it is a single
+     * chunk, for example after a bulk load. Larger stores keep their chunks.
+     *
+     * @param bytes the number of bytes to keep
+     */
+    public void trimToBytes(long bytes) {
+        if (chunks.length == 1 && bytes < capacity) {
+            resizeFirstChunk((int) Math.max(MIN_BYTES, bytes));
+        }
+    }
+
+    /**
+     * Reads an int.
+     *
+     * @param index the int index
+     * @return the value
+     */
+    public int getInt(long index) {
+        long offset = index << 2;
+        return chunks[(int) (offset >>> chunkBits)].getInt((int) (offset & offsetMask));
+    }
+
+    /**
+     * Writes an int.
+     *
+     * @param index the int index
+     * @param value the value
+     */
+    public void putInt(long index, int value) {
+        long offset = index << 2;
+        chunks[(int) (offset >>> chunkBits)].putInt((int) (offset & offsetMask), value);
+    }
+
+    /**
+     * Reads a byte.
+     *
+     * @param index the byte index
+     * @return the value
+     */
+    public byte getByte(long index) {
+        return chunks[(int) (index >>> chunkBits)].get((int) (index & offsetMask));
+    }
+
+    /**
+     * Writes a byte.
+     *
+     * @param index the byte index
+     * @param value the value
+     */
+    public void putByte(long index, byte value) {
+        chunks[(int) (index >>> chunkBits)].put((int) (index & offsetMask), value);
+    }
+
+    private void resizeFirstChunk(int bytes) {
+        ByteBuffer old = chunks[0].duplicate();
+        ByteBuffer resized = allocate(bytes);
+        old.clear().limit(Math.min(old.capacity(), bytes));
+        resized.put(old).clear();
+        chunks[0] = resized;
+        capacity = bytes;
+    }
+
+    private ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
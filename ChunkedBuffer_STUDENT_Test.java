@@ -0,0 +1,87 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests the functionality of the ChunkedBuffer class and of the
+ * columns built on it.
+ *
+ * Author: Your Name
+ */
+public class ChunkedBuffer_STUDENT_Test {
+    private ChunkedBuffer buffer;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a store with 256-byte chunks, so small tests cross chunk boundaries.
+     */
+    @Before
+    public void setUp() {
+        buffer = new ChunkedBuffer(16, 8);
+    }
+
+    /**
+     * Tests that ints survive the first chunk doubling and more chunks being added.
+     */
+    @Test
+    public void testGrowInts() {
+        for (int i = 0; i < 1000; i++) {
+            buffer.ensureInts(i + 1);
+            buffer.putInt(i, i * 31 - 7);
+        }
+        assertTrue(buffer.capacityBytes() >= 4000);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i * 31 - 7, buffer.getInt(i));
+        }
+        buffer.ensureInts(2000);
+        assertEquals(0, buffer.getInt(1999));
+    }
+
+    /**
+     * Tests bytes across chunks and trimming a single-chunk store.
+     */
+    @Test
+    public void testBytesAndTrim() {
+        ChunkedBuffer small = new ChunkedBuffer(200, 8);
+        for (int i = 0; i < 100; i++) {
+            small.putByte(i, (byte) i);
+        }
+        small.trimToBytes(100);
+        assertEquals(100, small.capacityBytes());
+        small.ensureBytes(600);
+        assertEquals(768, small.capacityBytes());
+        for (int i = 100; i < 600; i++) {
+            small.putByte(i, (byte) i);
+        }
+        for (int i = 0; i < 600; i++) {
+            assertEquals((byte) i, small.getByte(i));
+        }
+    }
+
+    /**
+     * Tests that heap and off-heap columns hold the same values.
+     */
+    @Test
+    public void testColumns() {
+        IntColumn heap = IntColumn.create(false, 4);
+        IntColumn offHeap = IntColumn.create(true, 4);
+        ByteColumn bytes = ByteColumn.create(true, 4);
+        assertTrue(offHeap instanceof IntColumn.OffHeap);
+        for (int i = 0; i < 300; i++) {
+            heap.ensureCapacity(i + 1);
+            offHeap.ensureCapacity(i + 1);
+            bytes.ensureCapacity(i + 1);
+            heap.set(i, -i);
+            offHeap.set(i, -i);
+            bytes.set(i, (byte) i);
+        }
+        offHeap.fill(10, 20, 5);
+        heap.fill(10, 20, 5);
+        for (int i = 0; i < 300; i++) {
+            assertEquals(heap.get(i), offHeap.get(i));
+            assertEquals((byte) i, bytes.get(i));
+        }
+        heap.trimToSize(300);
+        assertEquals(1200, heap.estimatedBytes());
+    }
+}
@@ -0,0 +1,390 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A read-only snapshot of a Graph laid out in compressed sparse row (CSR) form.
+ * Every town is interned to a dense int id, and the roads leaving town i are
+ * stored in the arc range [offsets[i], offsets[i + 1]) of the primitive
+ * targets and weights arrays. Each undirected road appears once in the arc
+ * list of both of its towns.
+ *
+ * Snapshots are created with Graph.freeze() and never change afterwards, so
+ * routing queries can run on them without touching the graph's hash sets.
+ *
+ * Author: Your Name
+ */
+public class CompactTownGraph implements RoutingGraph {
+    /** Marks a missing town id or arc index. */
+    public static final int NONE = -1;
+
+    /** Distance reported for towns that cannot be reached. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /** Number of landmarks chosen when A* needs landmark tables. */
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private final long version;
+    private final Town[] towns;
+    private final Map<Town, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final Road[] roads;
+    private LandmarkHeuristic landmarks;
+    private ContractionHierarchy hierarchy;
+
+    /**
+     * Builds a snapshot from a town-to-neighbors adjacency structure.
+     *
+     * @param version the graph version this snapshot reflects
+     * @param adjacency each town mapped to its neighbors and connecting roads
+     */
+    CompactTownGraph(long version, Map<Town, Map<Town, Road>> adjacency) {
+        this.version = version;
+        int n = adjacency.size();
+        towns = new Town[n];
+        ids = new HashMap<>(n * 2);
+        int arcs = 0;
+        for (Map.Entry<Town, Map<Town, Road>> entry : adjacency.entrySet()) {
+            ids.put(entry.getKey(), ids.size());
+            towns[ids.size() - 1] = entry.getKey();
+            arcs += entry.getValue().size();
+        }
+
+        offsets = new int[n + 1];
+        targets = new int[arcs];
+        weights = new int[arcs];
+        roads = new Road[arcs];
+        int arc = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = arc;
+            for (Map.Entry<Town, Road> entry : adjacency.get(towns[v]).entrySet()) {
+                targets[arc] = ids.get(entry.getKey());
+                weights[arc] = entry.getValue().getDistance();
+                roads[arc] = entry.getValue();
+                arc++;
+            }
+        }
+        offsets[n] = arc;
+    }
+
+    /**
+     * Returns the version of the graph this snapshot was taken from.
+     *
+     * @return the graph version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of towns in the snapshot.
+     *
+     * @return the town count
+     */
+    @Override
+    public int size() {
+        return towns.length;
+    }
+
+    /**
+     * Returns the number of directed arcs (two per road, one per self-loop).
+     *
+     * @return the arc count
+     */
+    public int arcCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the dense id of a town.
+     *
+     * @param town the town to look up
+     * @return the town's id, or NONE if it is not in the snapshot
+     */
+    public int idOf(Town town) {
+        Integer id = (town != null) ? ids.get(town) : null;
+        return (id != null) ? id : NONE;
+    }
+
+    /**
+     * Returns the town with the given id.
+     *
+     * @param id the town id
+     * @return the Town object
+     */
+    @Override
+    public Town town(int id) {
+        return towns[id];
+    }
+
+    /**
+     * Returns the index of the first arc leaving a town.
+     *
+     * @param v the town id
+     * @return the first arc index
+     */
+    @Override
+    public int firstArc(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * Returns the index one past the last arc leaving a town.
+     *
+     * @param v the town id
+     * @return the end arc index
+     */
+    @Override
+    public int endArc(int v) {
+        return offsets[v + 1];
+    }
+
+    /**
+     * Returns the town id an arc leads to.
+     *
+     * @param arc the arc index
+     * @return the target town id
+     */
+    @Override
+    public int target(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * Returns the distance of an arc.
+     *
+     * @param arc the arc index
+     * @return the road distance
+     */
+    @Override
+    public int weight(int arc) {
+        return weights[arc];
+    }
+
+    /**
+     * Returns the road an arc belongs to.
+     *
+     * @param arc the arc index
+     * @return the Road object
+     */
+    @Override
+    public Road road(int arc) {
+        return roads[arc];
+    }
+
+    /**
+     * Returns the town id an arc starts from.
+     *
+     * @param arc the arc index
+     * @return the source town id
+     */
+    @Override
+    public int tail(int arc) {
+        Road road = roads[arc];
+        int source = ids.get(road.getSource());
+        return (source != targets[arc]) ? source : ids.get(road.getDestination());
+    }
+
+    /**
+     * Runs Dijkstra's algorithm from a source town and fills the caller's arrays
+     * with the distance to every town and the arc used to reach it.
+     *
+     * @param source the source town id
+     * @param distances receives the distances, UNREACHABLE where there is no path
+     * @param previousArcs receives the arc leading into each town, NONE for the source
+     *                     and unreachable towns
+     */
+    public void shortestPathTree(int source, int[] distances, int[] previousArcs) {
+        DijkstraSearch search = DijkstraSearch.forCurrentThread();
+        search.run(this, source);
+        search.copyTree(distances, previousArcs);
+    }
+
+    /**
+     * Returns the shortest path between two towns as a list of steps in the
+     * "from via road to to N mi" format used by Graph.shortestPath.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex) {
+        return shortestPath(sourceVertex, destinationVertex, RoutingAlgorithm.DIJKSTRA);
+    }
+
+    /**
+     * Returns the shortest path between two towns using the given algorithm.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param algorithm the search strategy to use
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex, RoutingAlgorithm algorithm) {
+        return steps(route(sourceVertex, destinationVertex, algorithm));
+    }
+
+    /**
+     * Returns the shortest path between two towns using A* with the given heuristic.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param heuristic an admissible, consistent estimate of remaining distance
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex, Heuristic<Town> heuristic) {
+        return steps(route(sourceVertex, destinationVertex, heuristic));
+    }
+
+    /**
+     * Finds the shortest route between two towns using the given algorithm.
+     * Point-to-point searches stop as soon as the destination's distance is final.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param algorithm the search strategy to use
+     * @return the Route, or null if there is no path
+     */
+    public Route route(Town sourceVertex, Town destinationVertex, RoutingAlgorithm algorithm) {
+        int source = idOf(sourceVertex);
+        int destination = idOf(destinationVertex);
+        if (source == NONE || destination == NONE) return null;
+
+        switch (algorithm) {
+            case CONTRACTION_HIERARCHIES:
+                ContractionHierarchySearch upward = ContractionHierarchySearch.forCurrentThread();
+                upward.run(contractionHierarchy(), source, destination);
+                return upward.route();
+            case A_STAR:
+                DijkstraSearch aStar = DijkstraSearch.forCurrentThread();
+                aStar.runTo(this, source, destination, landmarks());
+                return aStar.route(destination);
+            case BIDIRECTIONAL_DIJKSTRA:
+                BidirectionalDijkstraSearch bidirectional = BidirectionalDijkstraSearch.forCurrentThread();
+                bidirectional.run(this, source, destination);
+                return bidirectional.route();
+            case DIJKSTRA:
+            default:
+                DijkstraSearch search = DijkstraSearch.forCurrentThread();
+                search.runTo(this, source, destination);
+                return search.route(destination);
+        }
+    }
+
+    /**
+     * Finds the shortest route between two towns using A* with the given heuristic.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param heuristic an admissible, consistent estimate of remaining distance
+     * @return the Route, or null if there is no path
+     */
+    public Route route(Town sourceVertex, Town destinationVertex, Heuristic<Town> heuristic) {
+        int source = idOf(sourceVertex);
+        int destination = idOf(destinationVertex);
+        if (source == NONE || destination == NONE) return null;
+
+        DijkstraSearch search = DijkstraSearch.forCurrentThread();
+        search.runTo(this, source, destination, heuristic);
+        return search.route(destination);
+    }
+
+    private static ArrayList<String> steps(Route route) {
+        return (route != null) ? route.toSteps() : new ArrayList<>();
+    }
+
+    /**
+     * Computes the shortest distance from every source town to every target
+     * town. Each source gets one search, which stops as soon as all targets
+     * are settled, and the searches run in parallel on the common ForkJoinPool.
+     * Towns that are not in the snapshot are treated as unreachable.
+     *
+     * @param sources the row towns
+     * @param targets the column towns
+     * @return matrix[i][j] is the distance from sources[i] to targets[j],
+     *         UNREACHABLE where there is no path
+     */
+    public int[][] distanceMatrix(List<Town> sources, List<Town> targets) {
+        int[] targetIds = new int[targets.size()];
+        boolean[] isTarget = new boolean[size()];
+        int targetCount = 0;
+        for (int j = 0; j < targetIds.length; j++) {
+            targetIds[j] = idOf(targets.get(j));
+            if (targetIds[j] != NONE && !isTarget[targetIds[j]]) {
+                isTarget[targetIds[j]] = true;
+                targetCount++;
+            }
+        }
+        int distinctTargets = targetCount;
+
+        int[][] matrix = new int[sources.size()][];
+        IntStream.range(0, matrix.length).parallel().forEach(i -> {
+            int[] row = new int[targetIds.length];
+            Arrays.fill(row, UNREACHABLE);
+            int source = idOf(sources.get(i));
+            if (source != NONE) {
+                DijkstraSearch search = DijkstraSearch.forCurrentThread();
+                search.runToAll(this, source, isTarget, distinctTargets);
+                for (int j = 0; j < row.length; j++) {
+                    if (targetIds[j] != NONE) row[j] = search.distance(targetIds[j]);
+                }
+            }
+            matrix[i] = row;
+        });
+        return matrix;
+    }
+
+    /**
+     * Returns the landmark tables for this snapshot, choosing DEFAULT_LANDMARKS
+     * landmarks and computing their tables the first time they are needed.
+     *
+     * @return the LandmarkHeuristic for this snapshot
+     */
+    public synchronized LandmarkHeuristic landmarks() {
+        if (landmarks == null) {
+            landmarks = LandmarkHeuristic.build(this, DEFAULT_LANDMARKS);
+        }
+        return landmarks;
+    }
+
+    /**
+     * Returns the Contraction Hierarchies index for this snapshot, building it
+     * the first time it is needed.
+     *
+     * @return the ContractionHierarchy for this snapshot
+     */
+    public synchronized ContractionHierarchy contractionHierarchy() {
+        if (hierarchy == null) {
+            hierarchy = new ContractionHierarchy(this);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Replaces the landmark tables, for example with tables loaded from a file.
+     *
+     * @param landmarks tables computed for this snapshot
+     */
+    synchronized void useLandmarks(LandmarkHeuristic landmarks) {
+        if (landmarks.graph() != this) throw new IllegalArgumentException();
+        this.landmarks = landmarks;
+    }
+
+    /**
+     * Estimates the heap footprint of this snapshot in bytes, counting the
+     * primitive arrays, the reference arrays and the town id index.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        long arrays = 16L * 4 + 4L * (offsets.length + targets.length + weights.length)
+                + 4L * (towns.length + roads.length);
+        long index = 48L + 48L * ids.size();
+        return arrays + index;
+    }
+}
@@ -0,0 +1,80 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+
+/**
+ * This class tests the functionality of the CompactTownGraph class,
+ * including snapshot reuse, the CSR layout, and shortest paths on the snapshot.
+ * 
+ * It builds a small graph of four towns where the direct road is longer
+ * than the detour.
+ * 
+ * Author: Your Name
+ */
+public class CompactTownGraph_STUDENT_Test {
+    private Graph graph;
+    private Town a, b, c, d;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates four towns connected by four roads.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        a = new Town("A");
+        b = new Town("B");
+        c = new Town("C");
+        d = new Town("D");
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addVertex(c);
+        graph.addVertex(d);
+        graph.addEdge(a, b, 4, "Road_AB");
+        graph.addEdge(b, c, 3, "Road_BC");
+        graph.addEdge(a, c, 10, "Road_AC");
+        graph.addEdge(c, d, 1, "Road_CD");
+    }
+
+    /**
+     * Tests that freeze reuses its snapshot until the graph changes.
+     */
+    @Test
+    public void testFreezeReusedUntilModified() {
+        CompactTownGraph first = graph.freeze();
+        assertSame(first, graph.freeze());
+
+        graph.addVertex(new Town("E"));
+        assertNotSame(first, graph.freeze());
+        assertEquals(5, graph.freeze().size());
+    }
+
+    /**
+     * Tests that every road appears as an arc in both of its towns.
+     */
+    @Test
+    public void testArcLayout() {
+        CompactTownGraph snapshot = graph.freeze();
+        assertEquals(4, snapshot.size());
+        assertEquals(8, snapshot.arcCount());
+
+        int c = snapshot.idOf(this.c);
+        assertEquals(3, snapshot.endArc(c) - snapshot.firstArc(c));
+        assertEquals(CompactTownGraph.NONE, snapshot.idOf(new Town("Z")));
+    }
+
+    /**
+     * Tests the shortest path on the snapshot, which should take the detour
+     * through B instead of the direct road.
+     */
+    @Test
+    public void testShortestPath() {
+        ArrayList<String> path = graph.freeze().shortestPath(a, d);
+        assertEquals(3, path.size());
+        assertEquals("A via Road_AB to B 4 mi", path.get(0));
+        assertEquals("B via Road_BC to C 3 mi", path.get(1));
+        assertEquals("C via Road_CD to D 1 mi", path.get(2));
+        assertEquals(path, graph.shortestPath(a, d));
+    }
+}
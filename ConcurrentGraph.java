@@ -0,0 +1,190 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A thread-safe variant of Graph for serving many routing queries in parallel.
+ *
+ * Readers never lock: every query works on the most recently published
+ * CompactTownGraph, an immutable snapshot read from one volatile field, and
+ * keeps its search state in the calling thread's own DijkstraSearch buffers.
+ * Writers are serialized, apply their change to a private Graph, and build
+ * and publish the new snapshot before releasing the write lock, so the cost
+ * of the rebuild falls on the writer. A reader therefore sees either the
+ * network before a write or after it, never a half-applied change.
+ *
+ * Collections returned by the read methods are unmodifiable copies.
+ *
+ * Author: Your Name
+ */
+public class ConcurrentGraph implements GraphInterface<Town, Road> {
+    private final Graph graph = new Graph();
+    private final Object writeLock = new Object();
+    private volatile CompactTownGraph published = graph.freeze();
+
+    /**
+     * Returns the current immutable snapshot, without locking.
+     *
+     * @return the current snapshot
+     */
+    public CompactTownGraph snapshot() {
+        return published;
+    }
+
+    /**
+     * Returns the version of the graph, which changes with every write.
+     *
+     * @return the version of the current snapshot
+     */
+    public long getVersion() {
+        return published.getVersion();
+    }
+
+    @Override
+    public Road getEdge(Town sourceVertex, Town destinationVertex) {
+        CompactTownGraph current = snapshot();
+        int source = current.idOf(sourceVertex);
+        int destination = current.idOf(destinationVertex);
+        if (source == CompactTownGraph.NONE || destination == CompactTownGraph.NONE) return null;
+        for (int arc = current.firstArc(source); arc < current.endArc(source); arc++) {
+            if (current.target(arc) == destination) return current.road(arc);
+        }
+        return null;
+    }
+
+    @Override
+    public Road addEdge(Town sourceVertex, Town destinationVertex, int weight, String description) {
+        synchronized (writeLock) {
+            long before = graph.getVersion();
+            Road road = graph.addEdge(sourceVertex, destinationVertex, weight, description);
+            publishIfChanged(before);
+            return road;
+        }
+    }
+
+    @Override
+    public boolean addVertex(Town v) {
+        synchronized (writeLock) {
+            boolean added = graph.addVertex(v);
+            if (added) published = graph.freeze();
+            return added;
+        }
+    }
+
+    @Override
+    public boolean containsEdge(Town sourceVertex, Town destinationVertex) {
+        return getEdge(sourceVertex, destinationVertex) != null;
+    }
+
+    @Override
+    public boolean containsVertex(Town v) {
+        return snapshot().idOf(v) != CompactTownGraph.NONE;
+    }
+
+    @Override
+    public Set<Road> edgeSet() {
+        CompactTownGraph current = snapshot();
+        Set<Road> roads = new HashSet<>();
+        for (int arc = 0; arc < current.arcCount(); arc++) {
+            roads.add(current.road(arc));
+        }
+        return Collections.unmodifiableSet(roads);
+    }
+
+    @Override
+    public Set<Road> edgesOf(Town vertex) {
+        CompactTownGraph current = snapshot();
+        int v = current.idOf(vertex);
+        Set<Road> roads = new HashSet<>();
+        if (v != CompactTownGraph.NONE) {
+            for (int arc = current.firstArc(v); arc < current.endArc(v); arc++) {
+                roads.add(current.road(arc));
+            }
+        }
+        return Collections.unmodifiableSet(roads);
+    }
+
+    @Override
+    public Road removeEdge(Town sourceVertex, Town destinationVertex, int weight, String description) {
+        synchronized (writeLock) {
+            Road road = graph.removeEdge(sourceVertex, destinationVertex, weight, description);
+            if (road != null) published = graph.freeze();
+            return road;
+        }
+    }
+
+    @Override
+    public boolean removeVertex(Town v) {
+        synchronized (writeLock) {
+            boolean removed = graph.removeVertex(v);
+            if (removed) published = graph.freeze();
+            return removed;
+        }
+    }
+
+    @Override
+    public Set<Town> vertexSet() {
+        CompactTownGraph current = snapshot();
+        Town[] towns = new Town[current.size()];
+        for (int v = 0; v < towns.length; v++) {
+            towns[v] = current.town(v);
+        }
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(towns)));
+    }
+
+    /**
+     * Computes the shortest-path tree from a town into the calling thread's
+     * DijkstraSearch, where it can be read until the thread's next query.
+     *
+     * @param sourceVertex the starting town
+     */
+    @Override
+    public void dijkstraShortestPath(Town sourceVertex) {
+        CompactTownGraph current = snapshot();
+        int source = current.idOf(sourceVertex);
+        if (source != CompactTownGraph.NONE) {
+            DijkstraSearch.forCurrentThread().run(current, source);
+        }
+    }
+
+    @Override
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex) {
+        return snapshot().shortestPath(sourceVertex, destinationVertex);
+    }
+
+    /**
+     * Returns the shortest path between two towns using the given search strategy.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param algorithm the search strategy to use
+     * @return an ArrayList of Strings describing the path
+     */
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex, RoutingAlgorithm algorithm) {
+        return snapshot().shortestPath(sourceVertex, destinationVertex, algorithm);
+    }
+
+    /**
+     * Begins a batch of changes that commit() applies as one write, with one
+     * snapshot rebuild for the whole batch instead of one per change.
+     *
+     * @return an empty GraphBatch
+     */
+    public GraphBatch beginBatch() {
+        return new GraphBatch(this::apply);
+    }
+
+    private int apply(GraphBatch batch) {
+        synchronized (writeLock) {
+            int changed = graph.apply(batch, null);
+            if (changed > 0) published = graph.freeze();
+            return changed;
+        }
+    }
+
+    private void publishIfChanged(long before) {
+        if (graph.getVersion() != before) published = graph.freeze();
+    }
+}
@@ -0,0 +1,168 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tests the functionality of the ConcurrentGraph class, both as a
+ * plain GraphInterface implementation and with readers and writers running
+ * at the same time.
+ *
+ * Author: Your Name
+ */
+public class ConcurrentGraph_STUDENT_Test {
+    private ConcurrentGraph graph;
+    private Town[] towns;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a ring of 200 towns with random chords.
+     */
+    @Before
+    public void setUp() {
+        graph = new ConcurrentGraph();
+        towns = new Town[200];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            graph.addVertex(towns[i]);
+        }
+        Random random = new Random(11);
+        for (int i = 0; i < towns.length; i++) {
+            graph.addEdge(towns[i], towns[(i + 1) % towns.length], 1 + random.nextInt(9), "Ring" + i);
+        }
+        for (int i = 0; i < 300; i++) {
+            graph.addEdge(towns[random.nextInt(towns.length)], towns[random.nextInt(towns.length)],
+                    5 + random.nextInt(30), "Chord" + i);
+        }
+    }
+
+    /**
+     * Tests that reads see every completed write.
+     */
+    @Test
+    public void testReadsSeeWrites() {
+        Town extra = new Town("Extra");
+        assertFalse(graph.containsVertex(extra));
+        graph.addVertex(extra);
+        assertTrue(graph.containsVertex(extra));
+        assertTrue(graph.shortestPath(towns[0], extra).isEmpty());
+
+        graph.addEdge(towns[0], extra, 1, "Spur");
+        assertTrue(graph.containsEdge(extra, towns[0]));
+        assertEquals(1, graph.edgesOf(extra).size());
+        assertEquals("T0 via Spur to Extra 1 mi", graph.shortestPath(towns[0], extra).get(0));
+
+        graph.removeEdge(towns[0], extra, 1, "Spur");
+        assertFalse(graph.containsEdge(towns[0], extra));
+        graph.removeVertex(extra);
+        assertFalse(graph.vertexSet().contains(extra));
+    }
+
+    /**
+     * Tests that the returned collections cannot change the graph.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testCollectionsAreReadOnly() {
+        graph.vertexSet().clear();
+    }
+
+    /**
+     * Tests that the snapshot stays the same until the next write.
+     */
+    @Test
+    public void testSnapshotIsReusedUntilWrite() {
+        CompactTownGraph first = graph.snapshot();
+        graph.shortestPath(towns[0], towns[50]);
+        assertSame(first, graph.snapshot());
+        graph.addEdge(towns[0], towns[50], 1, "Shortcut");
+        assertNotSame(first, graph.snapshot());
+        assertEquals(first.arcCount() + 2, graph.snapshot().arcCount());
+    }
+
+    /**
+     * Tests that every kind of write publishes its snapshot before returning,
+     * so readers never have to build one.
+     */
+    @Test
+    public void testWritesPublishTheirSnapshot() {
+        Town extra = new Town("Extra");
+        graph.addVertex(extra);
+        assertEquals(graph.getVersion(), graph.snapshot().getVersion());
+        assertTrue(graph.snapshot().idOf(extra) != CompactTownGraph.NONE);
+        graph.addEdge(extra, towns[0], 3, "Spur");
+        assertEquals(graph.getVersion(), graph.snapshot().getVersion());
+        graph.removeEdge(extra, towns[0], 3, "Spur");
+        assertNull(graph.getEdge(extra, towns[0]));
+        graph.removeVertex(extra);
+        assertEquals(CompactTownGraph.NONE, graph.snapshot().idOf(extra));
+    }
+
+    /**
+     * Tests that queries running alongside a writer only ever see complete
+     * snapshots: the length of every path matches a full search
+     * on the same snapshot.
+     *
+     * @throws Exception if a worker fails
+     */
+    @Test
+    public void testParallelReadersWithWriter() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> work = new ArrayList<>();
+        for (int r = 0; r < 3; r++) {
+            final int seed = r;
+            work.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                DijkstraSearch search = new DijkstraSearch();
+                for (int q = 0; q < 300; q++) {
+                    CompactTownGraph snapshot = graph.snapshot();
+                    int source = random.nextInt(towns.length);
+                    int destination = random.nextInt(towns.length);
+                    ArrayList<String> path = snapshot.shortestPath(towns[source], towns[destination],
+                            RoutingAlgorithm.BIDIRECTIONAL_DIJKSTRA);
+                    search.run(snapshot, snapshot.idOf(towns[source]));
+                    int expected = search.distance(snapshot.idOf(towns[destination]));
+                    if (source != destination) {
+                        assertEquals(expected, totalMiles(path));
+                    }
+                }
+                return null;
+            }));
+        }
+        work.add(pool.submit(() -> {
+            Random random = new Random(99);
+            for (int w = 0; w < 100; w++) {
+                Town a = towns[random.nextInt(towns.length)];
+                Town b = towns[random.nextInt(towns.length)];
+                if (w % 2 == 0) {
+                    graph.addEdge(a, b, 1 + random.nextInt(40), "New" + w);
+                } else {
+                    Road road = graph.getEdge(a, b);
+                    if (road != null && !road.getName().startsWith("Ring")) {
+                        graph.removeEdge(a, b, road.getDistance(), road.getName());
+                    }
+                }
+            }
+            return null;
+        }));
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        for (Future<?> f : work) {
+            f.get();
+        }
+    }
+
+    private static int totalMiles(ArrayList<String> path) {
+        int total = 0;
+        for (String step : path) {
+            String[] words = step.split(" ");
+            total += Integer.parseInt(words[words.length - 2]);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,153 @@
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Histogram of non-negative long values, such as latencies in nanoseconds
+ * or settled-town counts, that many threads can record into without locks.
+ *
+ * Buckets are log-linear, as in HdrHistogram: values below 32 get a bucket
+ * each, and every power of two above that is split into 32 equal buckets.
+ * Any recorded value is therefore known to within about 3%, with a fixed
+ * 1,888 buckets covering the whole long range.
+ *
+ * Each recording thread gets its own shard of buckets, so recording is a
+ * few plain array and field writes with no atomic operations or shared
+ * cache lines. Reads add up all shards. A read made while other threads
+ * are recording may miss their latest values, and reset() may lose values
+ * recorded at the same moment; both are fine for monitoring figures.
+ *
+ * Author: Your Name
+ */
+public class ConcurrentHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final Queue<Shard> shards = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Shard> ownShard = ThreadLocal.withInitial(() -> {
+        Shard shard = new Shard();
+        shards.add(shard);
+        return shard;
+    });
+
+    /**
+     * Records one value.
+     *
+     * @param value the value, clamped to 0 if negative
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        Shard shard = ownShard.get();
+        shard.counts[bucketOf(value)]++;
+        shard.count++;
+        shard.sum += value;
+        if (value > shard.max) shard.max = value;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the count
+     */
+    public long count() {
+        long count = 0;
+        for (Shard shard : shards) count += shard.count;
+        return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum
+     */
+    public long sum() {
+        long sum = 0;
+        for (Shard shard : shards) sum += shard.sum;
+        return sum;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return the mean, or 0 if nothing was recorded
+     */
+    public double mean() {
+        long n = count();
+        return (n == 0) ? 0 : (double) sum() / n;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the exact maximum, or 0 if nothing was recorded
+     */
+    public long max() {
+        long max = 0;
+        for (Shard shard : shards) max = Math.max(max, shard.max);
+        return max;
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values
+     * fall, rounded up to the top of its bucket.
+     *
+     * @param percentile a percentage from 0 to 100
+     * @return the value at that percentile, or 0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        long total = 0;
+        long[] merged = new long[BUCKETS];
+        for (Shard shard : shards) {
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] += shard.counts[i];
+            }
+        }
+        for (long c : merged) total += c;
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * total));
+        long seen = 0;
+        long max = max();
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += merged[i];
+            if (seen >= rank) return Math.min(highestValueIn(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Clears every recorded value.
+     */
+    public void reset() {
+        for (Shard shard : shards) {
+            Arrays.fill(shard.counts, 0);
+            shard.count = 0;
+            shard.sum = 0;
+            shard.max = 0;
+        }
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * The buckets written by one thread.
+     */
+    private static class Shard {
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long sum;
+        private long max;
+    }
+}
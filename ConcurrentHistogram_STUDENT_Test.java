@@ -0,0 +1,72 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * This class tests the functionality of the ConcurrentHistogram class.
+ *
+ * Author: Your Name
+ */
+public class ConcurrentHistogram_STUDENT_Test {
+    private ConcurrentHistogram histogram;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates an empty histogram.
+     */
+    @Before
+    public void setUp() {
+        histogram = new ConcurrentHistogram();
+    }
+
+    /**
+     * Tests count, mean, max and percentiles of the values 1 to 1000.
+     */
+    @Test
+    public void testStatistics() {
+        for (int v = 1; v <= 1000; v++) {
+            histogram.record(v);
+        }
+        assertEquals(1000, histogram.count());
+        assertEquals(500.5, histogram.mean(), 1e-9);
+        assertEquals(1000, histogram.max());
+        assertEquals(500, histogram.valueAtPercentile(50), 500 * 0.04);
+        assertEquals(990, histogram.valueAtPercentile(99), 990 * 0.04);
+        assertEquals(1000, histogram.valueAtPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.valueAtPercentile(50));
+    }
+
+    /**
+     * Tests that every value lands in a bucket whose top is within 1/32 of it.
+     */
+    @Test
+    public void testBucketPrecision() {
+        Random random = new Random(5);
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            long top = ConcurrentHistogram.highestValueIn(ConcurrentHistogram.bucketOf(value));
+            assertTrue(top >= value);
+            assertTrue(top - value <= value / 32);
+        }
+        assertEquals(Long.MAX_VALUE, ConcurrentHistogram.highestValueIn(ConcurrentHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    /**
+     * Tests that no value is lost when many threads record at once.
+     */
+    @Test
+    public void testConcurrentRecording() {
+        IntStream.range(0, 8).parallel().forEach(t -> {
+            for (int i = 0; i < 100_000; i++) {
+                histogram.record(i);
+            }
+        });
+        assertEquals(800_000, histogram.count());
+        assertEquals(99_999, histogram.max());
+    }
+}
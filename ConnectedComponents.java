@@ -0,0 +1,127 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the connected components of a road network, so a query between
+ * towns that no road connects can be answered without searching.
+ *
+ * The index is a union-find (disjoint set) structure over the towns, with
+ * union by size and path halving, so adding a town or road and checking
+ * whether two towns are connected take O(alpha(n)) amortized, which is
+ * constant in practice. Union-find cannot split a component, so a removed
+ * road or town needs a new index; Graph builds one lazily on the next query
+ * after a removal, in O(towns + roads).
+ *
+ * Author: Your Name
+ */
+public class ConnectedComponents {
+    private final Map<Town, Integer> ids = new HashMap<>();
+    private int[] parent = new int[16];
+    private int[] size = new int[16];
+    private int towns;
+    private int componentCount;
+
+    /**
+     * Constructs an index with no towns.
+     */
+    public ConnectedComponents() {
+    }
+
+    /**
+     * Constructs the index for a graph's adjacency maps.
+     *
+     * @param adjacency each town mapped to its neighbors and connecting roads
+     */
+    public ConnectedComponents(Map<Town, Map<Town, Road>> adjacency) {
+        for (Town town : adjacency.keySet()) {
+            addTown(town);
+        }
+        for (Map.Entry<Town, Map<Town, Road>> entry : adjacency.entrySet()) {
+            for (Town neighbor : entry.getValue().keySet()) {
+                addRoad(entry.getKey(), neighbor);
+            }
+        }
+    }
+
+    /**
+     * Adds a town as a component of its own, if it is not indexed yet.
+     *
+     * @param town the town
+     */
+    public void addTown(Town town) {
+        if (ids.putIfAbsent(town, towns) != null) return;
+        if (towns == parent.length) {
+            parent = Arrays.copyOf(parent, towns * 2);
+            size = Arrays.copyOf(size, towns * 2);
+        }
+        parent[towns] = towns;
+        size[towns] = 1;
+        towns++;
+        componentCount++;
+    }
+
+    /**
+     * Merges the components of a road's towns, adding the towns if needed.
+     *
+     * @param town1 one end of the road
+     * @param town2 the other end
+     */
+    public void addRoad(Town town1, Town town2) {
+        addTown(town1);
+        addTown(town2);
+        int a = find(ids.get(town1));
+        int b = find(ids.get(town2));
+        if (a == b) return;
+        if (size[a] < size[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        parent[b] = a;
+        size[a] += size[b];
+        componentCount--;
+    }
+
+    /**
+     * Checks whether two towns are in the same component.
+     *
+     * @param town1 the first town
+     * @param town2 the second town
+     * @return true if a chain of roads connects them, false if not or if
+     *         either town is not indexed
+     */
+    public boolean connected(Town town1, Town town2) {
+        Integer a = ids.get(town1);
+        Integer b = ids.get(town2);
+        return a != null && b != null && find(a) == find(b);
+    }
+
+    /**
+     * Returns the number of towns in a town's component.
+     *
+     * @param town the town
+     * @return the component size, 0 if the town is not indexed
+     */
+    public int componentSize(Town town) {
+        Integer id = ids.get(town);
+        return (id != null) ? size[find(id)] : 0;
+    }
+
+    /**
+     * Returns the number of components, counting every isolated town as one.
+     *
+     * @return the component count
+     */
+    public int componentCount() {
+        return componentCount;
+    }
+
+    private int find(int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+}
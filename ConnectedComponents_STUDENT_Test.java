@@ -0,0 +1,100 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests the functionality of the ConnectedComponents class and
+ * the reachability checks built on it in Graph and TownGraphManager.
+ *
+ * Author: Your Name
+ */
+public class ConnectedComponents_STUDENT_Test {
+    private TownGraphManager manager;
+
+    /**
+     * Sets up the test environment before each test.
+     * Builds two islands joined by a bridge, and an isolated town.
+     */
+    @Before
+    public void setUp() {
+        manager = new TownGraphManager();
+        manager.addRoad("Rockville", "Bethesda", 7, "Route 355");
+        manager.addRoad("Bethesda", "Silver Spring", 8, "Route 410");
+        manager.addRoad("Annapolis", "Easton", 30, "Route 50");
+        manager.addRoad("Easton", "Cambridge", 15, "Route 50 East");
+        manager.addRoad("Silver Spring", "Annapolis", 40, "Bay Bridge");
+        manager.addTown("Ocean City");
+    }
+
+    /**
+     * Tests unions, component sizes and counts on the index directly.
+     */
+    @Test
+    public void testUnionFind() {
+        ConnectedComponents components = new ConnectedComponents();
+        Town[] towns = new Town[40];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            components.addTown(towns[i]);
+        }
+        assertEquals(40, components.componentCount());
+        for (int i = 0; i + 2 < towns.length; i += 2) {
+            components.addRoad(towns[i], towns[i + 2]);
+        }
+        assertEquals(21, components.componentCount());
+        assertTrue(components.connected(towns[0], towns[38]));
+        assertFalse(components.connected(towns[0], towns[1]));
+        assertEquals(20, components.componentSize(towns[10]));
+        assertEquals(1, components.componentSize(towns[39]));
+        components.addRoad(towns[39], towns[0]);
+        assertTrue(components.connected(towns[1], towns[1]) && components.connected(towns[39], towns[20]));
+        assertFalse(components.connected(towns[0], new Town("Elsewhere")));
+        assertEquals(0, components.componentSize(new Town("Elsewhere")));
+    }
+
+    /**
+     * Tests that reachability follows added roads and removed ones.
+     */
+    @Test
+    public void testReachabilityAfterChanges() {
+        assertTrue(manager.isReachable("Rockville", "Cambridge"));
+        assertFalse(manager.isReachable("Rockville", "Ocean City"));
+        assertFalse(manager.isReachable("Rockville", "Baltimore"));
+
+        manager.deleteRoadConnection("Silver Spring", "Annapolis", "Bay Bridge");
+        assertFalse(manager.isReachable("Rockville", "Cambridge"));
+        assertTrue(manager.isReachable("Annapolis", "Cambridge"));
+
+        manager.addRoad("Cambridge", "Ocean City", 90, "Route 50 Ocean");
+        manager.addRoad("Ocean City", "Bethesda", 150, "Long Way Round");
+        assertTrue(manager.isReachable("Rockville", "Annapolis"));
+
+        manager.deleteTown("Ocean City");
+        manager.beginBatch().addRoad("Laurel", "Rockville", 20, "Route 198").commit();
+        assertTrue(manager.isReachable("Laurel", "Silver Spring"));
+        assertFalse(manager.isReachable("Laurel", "Easton"));
+    }
+
+    /**
+     * Tests that a path between components is answered empty without a search.
+     */
+    @Test
+    public void testUnreachableQueriesSkipTheSearch() {
+        Graph graph = new Graph();
+        Town a = new Town("A");
+        Town b = new Town("B");
+        Town c = new Town("C");
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addVertex(c);
+        graph.addEdge(a, b, 5, "AB");
+        assertTrue(graph.shortestPath(a, c).isEmpty());
+        assertEquals(0, graph.getTreeCacheMisses());
+        assertTrue(graph.shortestPath(c, a, RoutingAlgorithm.BIDIRECTIONAL_DIJKSTRA).isEmpty());
+        assertEquals(2, graph.components().componentCount());
+
+        graph.addEdge(b, c, 4, "BC");
+        assertEquals(1, graph.components().componentCount());
+        assertEquals("A via AB to B 5 mi", graph.shortestPath(a, c).get(0));
+    }
+}
@@ -0,0 +1,374 @@
+import java.util.Arrays;
+
+/**
+ * A Contraction Hierarchies index over a CompactTownGraph.
+ *
+ * Preprocessing contracts towns one at a time in order of importance. When a
+ * town is removed, a shortcut is added between each pair of its remaining
+ * neighbors whose shortest connection ran through it, unless a witness search
+ * finds an equally short way around. Every road and shortcut is then stored
+ * only at its lower-ranked end, pointing upward, so a query is two small
+ * upward Dijkstra searches (see ContractionHierarchySearch).
+ *
+ * A shortcut remembers the two edges it replaces, so query results can be
+ * unpacked back into the original roads.
+ *
+ * Author: Your Name
+ */
+public class ContractionHierarchy {
+    /** Settled-town limit for a witness search when shortcuts are actually added. */
+    private static final int WITNESS_SETTLE_LIMIT = 200;
+
+    /** Smaller limit used when only estimating a town's priority. */
+    private static final int ESTIMATE_SETTLE_LIMIT = 30;
+
+    private final CompactTownGraph graph;
+    private final int[] rank;
+
+    // Edge records: original roads first, then shortcuts.
+    private int edgeCount;
+    private int[] edgeFrom = new int[16];
+    private int[] edgeTo = new int[16];
+    private int[] edgeWeight = new int[16];
+    private int[] edgeArc = new int[16];      // snapshot arc for a road, NONE for a shortcut
+    private int[] edgeFirst = new int[16];    // shortcut half touching edgeFrom
+    private int[] edgeSecond = new int[16];   // shortcut half touching edgeTo
+    private int[] edgeMiddle = new int[16];   // contracted town a shortcut skips
+
+    // Upward search graph in CSR form.
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upEdges;
+
+    private final int shortcutCount;
+
+    /**
+     * Builds the hierarchy for a snapshot.
+     *
+     * @param graph the snapshot to index
+     */
+    public ContractionHierarchy(CompactTownGraph graph) {
+        this.graph = graph;
+        int n = graph.size();
+        rank = new int[n];
+
+        IntLists adjacency = new IntLists(n);
+        for (int v = 0; v < n; v++) {
+            for (int arc = graph.firstArc(v); arc < graph.endArc(v); arc++) {
+                int w = graph.target(arc);
+                if (v < w) {
+                    int edge = addEdge(v, w, graph.weight(arc), arc, CompactTownGraph.NONE, CompactTownGraph.NONE, CompactTownGraph.NONE);
+                    adjacency.add(v, edge);
+                    adjacency.add(w, edge);
+                }
+            }
+        }
+        int originalEdges = edgeCount;
+
+        contract(adjacency, n);
+        shortcutCount = edgeCount - originalEdges;
+
+        // Keep every edge at its lower-ranked end.
+        upOffsets = new int[n + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            upOffsets[lower(e) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+        }
+        upTargets = new int[edgeCount];
+        upWeights = new int[edgeCount];
+        upEdges = new int[edgeCount];
+        int[] fill = Arrays.copyOf(upOffsets, n);
+        for (int e = 0; e < edgeCount; e++) {
+            int low = lower(e);
+            int slot = fill[low]++;
+            upTargets[slot] = (low == edgeFrom[e]) ? edgeTo[e] : edgeFrom[e];
+            upWeights[slot] = edgeWeight[e];
+            upEdges[slot] = e;
+        }
+    }
+
+    private int lower(int edge) {
+        return (rank[edgeFrom[edge]] < rank[edgeTo[edge]]) ? edgeFrom[edge] : edgeTo[edge];
+    }
+
+    private void contract(IntLists adjacency, int n) {
+        boolean[] contracted = new boolean[n];
+        int[] contractedNeighbors = new int[n];
+        WitnessSearch witness = new WitnessSearch(n);
+        IndexedMinHeap order = new IndexedMinHeap(n);
+        for (int v = 0; v < n; v++) {
+            order.insertOrDecrease(v, priority(v, adjacency, contracted, contractedNeighbors, witness));
+        }
+
+        int nextRank = 0;
+        while (!order.isEmpty()) {
+            int v = order.poll();
+            // Lazy update: re-evaluate and put back if the town is no longer the cheapest.
+            int current = priority(v, adjacency, contracted, contractedNeighbors, witness);
+            if (!order.isEmpty() && current > order.peekKey()) {
+                order.insertOrDecrease(v, current);
+                continue;
+            }
+
+            addShortcuts(v, adjacency, contracted, witness);
+            contracted[v] = true;
+            rank[v] = nextRank++;
+            for (int i = 0; i < adjacency.size(v); i++) {
+                int u = other(adjacency.get(v, i), v);
+                if (!contracted[u]) {
+                    contractedNeighbors[u]++;
+                    dropContractedEdges(adjacency, contracted, u);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes edges to contracted towns from a town's list so later witness
+     * searches and priority updates do not keep skipping over them.
+     */
+    private void dropContractedEdges(IntLists adjacency, boolean[] contracted, int u) {
+        int kept = 0;
+        for (int i = 0; i < adjacency.size(u); i++) {
+            int edge = adjacency.get(u, i);
+            if (!contracted[other(edge, u)]) {
+                adjacency.set(u, kept++, edge);
+            }
+        }
+        adjacency.truncate(u, kept);
+    }
+
+    /**
+     * Edge difference plus the number of already contracted neighbors, which
+     * spreads contraction evenly across the network.
+     */
+    private int priority(int v, IntLists adjacency, boolean[] contracted, int[] contractedNeighbors, WitnessSearch witness) {
+        int removed = 0;
+        for (int i = 0; i < adjacency.size(v); i++) {
+            if (!contracted[other(adjacency.get(v, i), v)]) removed++;
+        }
+        int added = countOrAddShortcuts(v, adjacency, contracted, witness, false);
+        return added - removed + contractedNeighbors[v];
+    }
+
+    private void addShortcuts(int v, IntLists adjacency, boolean[] contracted, WitnessSearch witness) {
+        countOrAddShortcuts(v, adjacency, contracted, witness, true);
+    }
+
+    private int countOrAddShortcuts(int v, IntLists adjacency, boolean[] contracted, WitnessSearch witness, boolean add) {
+        int shortcuts = 0;
+        int degree = adjacency.size(v);
+        int maxWeight = 0;
+        for (int i = 0; i < degree; i++) {
+            int e = adjacency.get(v, i);
+            if (!contracted[other(e, v)]) maxWeight = Math.max(maxWeight, edgeWeight[e]);
+        }
+
+        for (int i = 0; i < degree; i++) {
+            int first = adjacency.get(v, i);
+            int u = other(first, v);
+            if (contracted[u] || u == v) continue;
+            witness.run(this, adjacency, contracted, u, v, edgeWeight[first] + maxWeight,
+                    add ? WITNESS_SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT);
+
+            for (int j = 0; j < degree; j++) {
+                int second = adjacency.get(v, j);
+                int w = other(second, v);
+                if (contracted[w] || w == v || w == u) continue;
+                // Each unordered pair is considered twice; handle it from the smaller id.
+                if (u > w) continue;
+                int through = edgeWeight[first] + edgeWeight[second];
+                if (witness.distance(w) <= through) continue;
+
+                shortcuts++;
+                if (add) {
+                    int shortcut = addEdge(u, w, through, CompactTownGraph.NONE, first, second, v);
+                    adjacency.add(u, shortcut);
+                    adjacency.add(w, shortcut);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    private int addEdge(int from, int to, int weight, int arc, int first, int second, int middle) {
+        if (edgeCount == edgeFrom.length) {
+            int capacity = edgeCount * 2;
+            edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+            edgeTo = Arrays.copyOf(edgeTo, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+            edgeArc = Arrays.copyOf(edgeArc, capacity);
+            edgeFirst = Arrays.copyOf(edgeFirst, capacity);
+            edgeSecond = Arrays.copyOf(edgeSecond, capacity);
+            edgeMiddle = Arrays.copyOf(edgeMiddle, capacity);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeWeight[edgeCount] = weight;
+        edgeArc[edgeCount] = arc;
+        edgeFirst[edgeCount] = first;
+        edgeSecond[edgeCount] = second;
+        edgeMiddle[edgeCount] = middle;
+        return edgeCount++;
+    }
+
+    private int other(int edge, int v) {
+        return (edgeFrom[edge] == v) ? edgeTo[edge] : edgeFrom[edge];
+    }
+
+    /**
+     * Returns the snapshot the hierarchy was built for.
+     *
+     * @return the graph
+     */
+    public CompactTownGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of shortcuts added during preprocessing.
+     *
+     * @return the shortcut count
+     */
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * Returns the contraction rank of a town; higher ranks are more important.
+     *
+     * @param v the town id
+     * @return the rank
+     */
+    public int rank(int v) {
+        return rank[v];
+    }
+
+    int firstUpArc(int v) {
+        return upOffsets[v];
+    }
+
+    int endUpArc(int v) {
+        return upOffsets[v + 1];
+    }
+
+    int upTarget(int upArc) {
+        return upTargets[upArc];
+    }
+
+    int upWeight(int upArc) {
+        return upWeights[upArc];
+    }
+
+    int upEdge(int upArc) {
+        return upEdges[upArc];
+    }
+
+    /**
+     * Adds the hops of an edge travelled from one end to the other to a route,
+     * expanding shortcuts into the roads they replace.
+     *
+     * @param route the route being built
+     * @param edge the edge record
+     * @param from the town the edge is entered from
+     */
+    void unpack(Route.Builder route, int edge, int from) {
+        if (edgeArc[edge] != CompactTownGraph.NONE) {
+            route.add(graph.road(edgeArc[edge]), other(edge, from));
+        } else if (from == edgeFrom[edge]) {
+            unpack(route, edgeFirst[edge], from);
+            unpack(route, edgeSecond[edge], edgeMiddle[edge]);
+        } else {
+            unpack(route, edgeSecond[edge], from);
+            unpack(route, edgeFirst[edge], edgeMiddle[edge]);
+        }
+    }
+
+    /**
+     * Growable per-town lists of edge ids used while contracting.
+     */
+    private static class IntLists {
+        private final int[][] items;
+        private final int[] sizes;
+
+        IntLists(int n) {
+            items = new int[n][];
+            sizes = new int[n];
+        }
+
+        void add(int v, int value) {
+            if (items[v] == null) {
+                items[v] = new int[4];
+            } else if (sizes[v] == items[v].length) {
+                items[v] = Arrays.copyOf(items[v], sizes[v] * 2);
+            }
+            items[v][sizes[v]++] = value;
+        }
+
+        int size(int v) {
+            return sizes[v];
+        }
+
+        int get(int v, int i) {
+            return items[v][i];
+        }
+
+        void set(int v, int i, int value) {
+            items[v][i] = value;
+        }
+
+        void truncate(int v, int size) {
+            sizes[v] = size;
+        }
+    }
+
+    /**
+     * Bounded Dijkstra over uncontracted towns that skips the town being
+     * contracted, used to decide whether a shortcut is needed.
+     */
+    private static class WitnessSearch {
+        private final int[] distances;
+        private final int[] stamps;
+        private final IndexedMinHeap heap;
+        private int generation;
+
+        WitnessSearch(int n) {
+            distances = new int[n];
+            stamps = new int[n];
+            heap = new IndexedMinHeap(n);
+        }
+
+        void run(ContractionHierarchy ch, IntLists adjacency, boolean[] contracted, int source, int skipped,
+                 int limit, int settleLimit) {
+            heap.clear();
+            generation++;
+            stamps[source] = generation;
+            distances[source] = 0;
+            heap.insertOrDecrease(source, 0);
+            int settled = 0;
+            while (!heap.isEmpty() && settled++ < settleLimit) {
+                int current = heap.poll();
+                int currentDistance = distances[current];
+                if (currentDistance > limit) break;
+                for (int i = 0; i < adjacency.size(current); i++) {
+                    int edge = adjacency.get(current, i);
+                    int next = ch.other(edge, current);
+                    if (next == skipped || contracted[next]) continue;
+                    int newDist = currentDistance + ch.edgeWeight[edge];
+                    if (stamps[next] != generation || newDist < distances[next]) {
+                        stamps[next] = generation;
+                        distances[next] = newDist;
+                        heap.insertOrDecrease(next, newDist);
+                    }
+                }
+            }
+        }
+
+        int distance(int v) {
+            return (stamps[v] == generation) ? distances[v] : CompactTownGraph.UNREACHABLE;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Answers point-to-point queries on a ContractionHierarchy with two upward
+ * Dijkstra searches, one from each end, that only follow edges toward more
+ * important towns. The shortest path is found at the town where the two
+ * searches meet with the smallest combined distance.
+ *
+ * Buffers are reused between queries with generation stamps, like
+ * DijkstraSearch. A search is not thread-safe; use forCurrentThread().
+ *
+ * Author: Your Name
+ */
+public class ContractionHierarchySearch {
+    private static final ThreadLocal<ContractionHierarchySearch> PER_THREAD =
+            ThreadLocal.withInitial(ContractionHierarchySearch::new);
+
+    private ContractionHierarchy hierarchy;
+    private final Side forward = new Side();
+    private final Side backward = new Side();
+    private int source = CompactTownGraph.NONE;
+    private int meeting = CompactTownGraph.NONE;
+    private int best = CompactTownGraph.UNREACHABLE;
+
+    /**
+     * Returns the search instance owned by the calling thread.
+     *
+     * @return this thread's ContractionHierarchySearch
+     */
+    public static ContractionHierarchySearch forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Finds the shortest distance between two towns.
+     *
+     * @param hierarchy the index to search
+     * @param source the source town id
+     * @param destination the destination town id
+     * @return the shortest distance, or UNREACHABLE if there is no path
+     */
+    public int run(ContractionHierarchy hierarchy, int source, int destination) {
+        this.hierarchy = hierarchy;
+        this.source = source;
+        int n = hierarchy.graph().size();
+        forward.start(n, source);
+        backward.start(n, destination);
+        best = CompactTownGraph.UNREACHABLE;
+        meeting = CompactTownGraph.NONE;
+
+        boolean forwardTurn = true;
+        while (!forward.heap.isEmpty() || !backward.heap.isEmpty()) {
+            Side side = forwardTurn ? forward : backward;
+            Side other = forwardTurn ? backward : forward;
+            forwardTurn = !forwardTurn;
+            if (side.heap.isEmpty()) continue;
+            // An upward search cannot improve on the best meeting once its queue passes it.
+            if (side.heap.peekKey() >= best) {
+                side.heap.clear();
+                continue;
+            }
+
+            int current = side.heap.poll();
+            side.settled++;
+            int currentDistance = side.distances[current];
+            int otherDistance = other.distance(current);
+            if (otherDistance != CompactTownGraph.UNREACHABLE && (long) currentDistance + otherDistance < best) {
+                best = currentDistance + otherDistance;
+                meeting = current;
+            }
+            int first = hierarchy.firstUpArc(current);
+            int end = hierarchy.endUpArc(current);
+            side.relaxed += end - first;
+            for (int arc = first; arc < end; arc++) {
+                side.relax(current, hierarchy.upTarget(arc), currentDistance + hierarchy.upWeight(arc), hierarchy.upEdge(arc));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the number of towns settled by both searches of the last query.
+     *
+     * @return the settled count
+     */
+    public int settledCount() {
+        return forward.settled + backward.settled;
+    }
+
+    /**
+     * Returns the number of upward edges relaxed by both searches of the last query.
+     *
+     * @return the relaxed count
+     */
+    public int relaxedCount() {
+        return forward.relaxed + backward.relaxed;
+    }
+
+    /**
+     * Returns the route found by the last query, with shortcuts expanded into roads.
+     *
+     * @return the Route, or null if there is no path
+     */
+    public Route route() {
+        if (meeting == CompactTownGraph.NONE) return null;
+        Route.Builder route = new Route.Builder(hierarchy.graph(), source);
+
+        // Collect the forward edges from the meeting town back to the source, then replay them in order.
+        int[] edges = new int[16];
+        int[] starts = new int[16];
+        int count = 0;
+        for (int v = meeting; forward.previousEdge(v) != CompactTownGraph.NONE; v = forward.previousTown[v]) {
+            if (count == edges.length) {
+                edges = Arrays.copyOf(edges, count * 2);
+                starts = Arrays.copyOf(starts, count * 2);
+            }
+            edges[count] = forward.previousEdge(v);
+            starts[count++] = forward.previousTown[v];
+        }
+        for (int i = count - 1; i >= 0; i--) {
+            hierarchy.unpack(route, edges[i], starts[i]);
+        }
+        for (int v = meeting; backward.previousEdge(v) != CompactTownGraph.NONE; v = backward.previousTown[v]) {
+            hierarchy.unpack(route, backward.previousEdge(v), v);
+        }
+        return route.build();
+    }
+
+    /**
+     * Describes the path found by the last query in the
+     * "from via road to to N mi" format, with shortcuts expanded into roads.
+     *
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> describePath() {
+        Route route = route();
+        return (route != null) ? route.toSteps() : new ArrayList<>();
+    }
+
+    /**
+     * State of one of the two upward searches.
+     */
+    private static class Side {
+        private int[] distances = new int[0];
+        private int[] previousEdges = new int[0];
+        private int[] previousTown = new int[0];
+        private int[] stamps = new int[0];
+        private int generation;
+        private final IndexedMinHeap heap = new IndexedMinHeap(0);
+        private int settled;
+        private int relaxed;
+
+        void start(int n, int source) {
+            if (stamps.length < n) {
+                distances = new int[n];
+                previousEdges = new int[n];
+                previousTown = new int[n];
+                stamps = new int[n];
+                generation = 0;
+            }
+            heap.ensureCapacity(n);
+            heap.clear();
+            if (++generation == 0) {
+                Arrays.fill(stamps, 0);
+                generation = 1;
+            }
+            settled = 0;
+            relaxed = 0;
+            stamps[source] = generation;
+            distances[source] = 0;
+            previousEdges[source] = CompactTownGraph.NONE;
+            heap.insertOrDecrease(source, 0);
+        }
+
+        void relax(int from, int v, int distance, int edge) {
+            if (stamps[v] != generation || distance < distances[v]) {
+                stamps[v] = generation;
+                distances[v] = distance;
+                previousEdges[v] = edge;
+                previousTown[v] = from;
+                heap.insertOrDecrease(v, distance);
+            }
+        }
+
+        int distance(int v) {
+            return (stamps[v] == generation) ? distances[v] : CompactTownGraph.UNREACHABLE;
+        }
+
+        int previousEdge(int v) {
+            return (stamps[v] == generation) ? previousEdges[v] : CompactTownGraph.NONE;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the ContractionHierarchy and
+ * ContractionHierarchySearch classes, including exact distances and
+ * unpacking shortcuts back into the original roads.
+ * 
+ * It uses a seeded random graph with a few disconnected towns.
+ * 
+ * Author: Your Name
+ */
+public class ContractionHierarchy_STUDENT_Test {
+    private Graph graph;
+    private CompactTownGraph snapshot;
+    private ContractionHierarchy hierarchy;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a random graph of 400 towns and 1000 roads and indexes it.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        Random random = new Random(5);
+        Town[] towns = new Town[400];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            graph.addVertex(towns[i]);
+        }
+        for (int i = 0; i < 1000; i++) {
+            graph.addEdge(towns[random.nextInt(towns.length)], towns[random.nextInt(towns.length)],
+                    1 + random.nextInt(30), "R" + i);
+        }
+        snapshot = graph.freeze();
+        hierarchy = snapshot.contractionHierarchy();
+    }
+
+    /**
+     * Tests that hierarchy queries report Dijkstra's distances, and that the
+     * unpacked path is a chain of real roads with the same total length.
+     */
+    @Test
+    public void testQueriesMatchDijkstra() {
+        DijkstraSearch dijkstra = new DijkstraSearch();
+        ContractionHierarchySearch search = new ContractionHierarchySearch();
+        Random random = new Random(9);
+        for (int i = 0; i < 200; i++) {
+            int source = random.nextInt(snapshot.size());
+            int destination = random.nextInt(snapshot.size());
+            int expected = dijkstra.runTo(snapshot, source, destination);
+            assertEquals(expected, search.run(hierarchy, source, destination));
+            if (expected == CompactTownGraph.UNREACHABLE) continue;
+
+            ArrayList<String> path = search.describePath();
+            String at = snapshot.town(source).getName();
+            int total = 0;
+            for (String step : path) {
+                String[] words = step.split(" ");
+                assertEquals(at, words[0]);
+                assertNotNull(graph.getEdge(new Town(words[0]), new Town(words[4])));
+                assertEquals(words[2], graph.getEdge(new Town(words[0]), new Town(words[4])).getName());
+                total += Integer.parseInt(words[5]);
+                at = words[4];
+            }
+            assertEquals(snapshot.town(destination).getName(), at);
+            assertEquals(expected, total);
+        }
+    }
+
+    /**
+     * Tests routing through the graph with the hierarchy on a small network
+     * where the detour is shorter than the direct road.
+     */
+    @Test
+    public void testGraphRouting() {
+        Graph small = new Graph();
+        Town a = new Town("A"), b = new Town("B"), c = new Town("C");
+        small.addVertex(a);
+        small.addVertex(b);
+        small.addVertex(c);
+        small.addEdge(a, b, 2, "AB");
+        small.addEdge(b, c, 2, "BC");
+        small.addEdge(a, c, 10, "AC");
+
+        ArrayList<String> path = small.shortestPath(a, c, RoutingAlgorithm.CONTRACTION_HIERARCHIES);
+        assertEquals(2, path.size());
+        assertEquals("A via AB to B 2 mi", path.get(0));
+        assertEquals("B via BC to C 2 mi", path.get(1));
+    }
+}
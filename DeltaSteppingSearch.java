@@ -0,0 +1,401 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel single-source shortest paths with Delta-stepping (Meyer and
+ * Sanders), for computing complete trees on large graphs with several cores.
+ *
+ * Towns are kept in buckets of width delta by tentative distance. The
+ * lowest non-empty bucket is taken as a frontier, and all of its towns
+ * relax their roads at once on a ForkJoinPool. A town whose distance drops
+ * goes into the bucket for its new distance, which may be the current one;
+ * a bucket is finished when it stays empty. A tentative distance is never
+ * more than the longest road past the current bucket, so only
+ * ceil(maxWeight / delta) + 1 buckets are ever in use, and they are kept in
+ * a cyclic array of that size. Every improvement is a
+ * compare-and-set of the distance and tree arc packed into one long, so
+ * concurrent relaxations never lose the shorter distance, and each town's
+ * tree arc always matches its distance. When nothing is left the distances
+ * are exactly Dijkstra's; only the choice between equally short paths may
+ * differ.
+ *
+ * A small delta settles towns nearly in Dijkstra order but leaves little
+ * work per round, while a large one gives more parallel work and more
+ * towns relaxed twice. The default is the mean road length of the graph.
+ * Frontiers of fewer than about two thousand towns are relaxed on the
+ * calling thread, so sparse searches do not pay for task handoff.
+ *
+ * A search holds the state of its last query and must be used by one thread
+ * at a time.
+ *
+ * Author: Your Name
+ */
+public class DeltaSteppingSearch {
+    /** Delta value that asks for the graph's mean road length. */
+    public static final int AUTO_DELTA = 0;
+
+    private static final VarHandle LABELS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int GRAIN = 1024;
+
+    private final int requestedDelta;
+    private final ForkJoinPool pool;
+
+    private RoutingGraph graph;
+    private int source = CompactTownGraph.NONE;
+    private int delta;
+    private RoutingGraph weightsGraph;
+    private int meanWeight;
+    private int maxWeight;
+    private long[] labels = new long[0];
+    private int[] frontierStamps = new int[0];
+    private int frontierStamp;
+    private int[] frontier = new int[0];
+    private IntList[] buckets = new IntList[0];
+    private int bucketCount;
+    private final List<Relaxation> relaxations = new ArrayList<>();
+    private int settledCount;
+    private int relaxedCount;
+
+    /**
+     * Constructs a search with the automatic delta on the common ForkJoinPool.
+     */
+    public DeltaSteppingSearch() {
+        this(AUTO_DELTA, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a search with a custom delta and thread pool.
+     *
+     * @param delta the bucket width, or AUTO_DELTA for the mean road length
+     * @param pool the pool to relax frontiers on
+     */
+    public DeltaSteppingSearch(int delta, ForkJoinPool pool) {
+        if (delta < 0 || pool == null) throw new IllegalArgumentException();
+        this.requestedDelta = delta;
+        this.pool = pool;
+    }
+
+    /**
+     * Computes the full shortest-path tree from a source town.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     */
+    public void run(RoutingGraph graph, int source) {
+        start(graph, source);
+        int bucket = 0;
+        do {
+            // Relaxing a frontier can refill the bucket it came from.
+            while (!bucket(bucket).isEmpty()) {
+                int size = takeFrontier(bucket);
+                if (size > 0) relax(size);
+            }
+        } while ((bucket = nextBucket(bucket)) >= 0);
+    }
+
+    /**
+     * Finds the next non-empty bucket after the current one, looking at
+     * every other slot of the cyclic array once.
+     *
+     * @return the bucket index, or -1 if every bucket is empty
+     */
+    private int nextBucket(int bucket) {
+        for (int i = 1; i < bucketCount; i++) {
+            if (!bucket(bucket + i).isEmpty()) return bucket + i;
+        }
+        return -1;
+    }
+
+    private void start(RoutingGraph graph, int source) {
+        this.graph = graph;
+        this.source = source;
+        int n = graph.size();
+        if (labels.length < n) {
+            labels = new long[n];
+            frontierStamps = new int[n];
+            frontier = new int[n];
+        }
+        Arrays.fill(labels, 0, n, label(CompactTownGraph.UNREACHABLE, CompactTownGraph.NONE));
+        if (weightsGraph != graph) {
+            measureWeights(graph);
+            weightsGraph = graph;
+        }
+        delta = (requestedDelta != AUTO_DELTA) ? requestedDelta : meanWeight;
+        bucketCount = (int) Math.min(Integer.MAX_VALUE, ((long) maxWeight + delta - 1) / delta + 1);
+        if (buckets.length < bucketCount) {
+            IntList[] grown = Arrays.copyOf(buckets, bucketCount);
+            for (int i = buckets.length; i < bucketCount; i++) grown[i] = new IntList();
+            buckets = grown;
+        }
+        for (IntList bucket : buckets) bucket.clear();
+        settledCount = 0;
+        relaxedCount = 0;
+        labels[source] = label(0, CompactTownGraph.NONE);
+        bucket(0).add(source);
+    }
+
+    /**
+     * Moves the towns of a bucket that still belong there into the frontier,
+     * once each.
+     *
+     * @return the frontier size
+     */
+    private int takeFrontier(int bucket) {
+        IntList towns = bucket(bucket);
+        if (++frontierStamp == 0) {
+            Arrays.fill(frontierStamps, 0);
+            frontierStamp = 1;
+        }
+        int size = 0;
+        for (int i = 0; i < towns.size; i++) {
+            int v = towns.values[i];
+            // A town whose distance dropped again was also added to a lower bucket,
+            // and the distance also tells this bucket from the ones sharing its slot.
+            if (frontierStamps[v] != frontierStamp && distanceOf(labels[v]) / delta == bucket) {
+                frontierStamps[v] = frontierStamp;
+                frontier[size++] = v;
+            }
+        }
+        towns.clear();
+        return size;
+    }
+
+    /**
+     * Relaxes every road leaving the frontier, then files each improved town
+     * in the bucket for its new distance.
+     */
+    private void relax(int size) {
+        int parts = Math.max(1, Math.min(pool.getParallelism() * 4, size / GRAIN));
+        while (relaxations.size() < parts) relaxations.add(new Relaxation());
+        for (int i = 0; i < parts; i++) {
+            relaxations.get(i).reset((int) ((long) size * i / parts), (int) ((long) size * (i + 1) / parts));
+        }
+        if (parts == 1) {
+            relaxations.get(0).compute();
+        } else {
+            pool.invoke(new Split(0, parts));
+        }
+        settledCount += size;
+        for (int i = 0; i < parts; i++) {
+            Relaxation part = relaxations.get(i);
+            relaxedCount += part.relaxed;
+            for (int k = 0; k < part.improved.size; k++) {
+                int v = part.improved.values[k];
+                bucket(distanceOf(labels[v]) / delta).add(v);
+            }
+        }
+    }
+
+    private IntList bucket(int index) {
+        return buckets[index % bucketCount];
+    }
+
+    private void measureWeights(RoutingGraph graph) {
+        long total = 0;
+        int arcs = 0;
+        int max = 0;
+        for (int v = 0, n = graph.size(); v < n; v++) {
+            for (int arc = graph.firstArc(v), end = graph.endArc(v); arc < end; arc++) {
+                total += graph.weight(arc);
+                max = Math.max(max, graph.weight(arc));
+                arcs++;
+            }
+        }
+        meanWeight = (arcs == 0) ? 1 : (int) Math.max(1, total / arcs);
+        maxWeight = max;
+    }
+
+    private static long label(int distance, int arc) {
+        return ((long) distance << 32) | (arc & 0xFFFFFFFFL);
+    }
+
+    private static int distanceOf(long label) {
+        return (int) (label >>> 32);
+    }
+
+    /**
+     * Returns the graph the last query ran on.
+     *
+     * @return the searched snapshot
+     */
+    public RoutingGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the source town id of the last query.
+     *
+     * @return the source id
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * Returns the bucket width the last query used.
+     *
+     * @return the delta
+     */
+    public int delta() {
+        return delta;
+    }
+
+    /**
+     * Returns the number of times the last query took a town from a bucket.
+     * This exceeds the number of reachable towns by the towns that had to
+     * be relaxed again.
+     *
+     * @return the settled count
+     */
+    public int settledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Returns the number of arcs relaxed by the last query.
+     *
+     * @return the relaxed count
+     */
+    public int relaxedCount() {
+        return relaxedCount;
+    }
+
+    /**
+     * Returns the distance found to a town by the last query.
+     *
+     * @param v the town id
+     * @return the distance, or UNREACHABLE if the town was not reached
+     */
+    public int distance(int v) {
+        return distanceOf(labels[v]);
+    }
+
+    /**
+     * Returns the arc used to reach a town in the last query.
+     *
+     * @param v the town id
+     * @return the arc index, or NONE for the source and unreached towns
+     */
+    public int previousArc(int v) {
+        return (int) labels[v];
+    }
+
+    /**
+     * Copies the last query's tree into caller-owned arrays.
+     *
+     * @param distances receives the distance to every town
+     * @param previousArcs receives the arc leading into every town
+     */
+    public void copyTree(int[] distances, int[] previousArcs) {
+        for (int v = 0; v < graph.size(); v++) {
+            distances[v] = distance(v);
+            previousArcs[v] = previousArc(v);
+        }
+    }
+
+    /**
+     * Returns the route from the last query's source to a destination.
+     *
+     * @param destination the destination town id
+     * @return the Route, or null if the destination was not reached
+     */
+    public Route route(int destination) {
+        if (distance(destination) == CompactTownGraph.UNREACHABLE) return null;
+        Route.Builder route = new Route.Builder(graph, source);
+        for (int v = destination, arc; (arc = previousArc(v)) != CompactTownGraph.NONE; v = graph.tail(arc)) {
+            route.add(graph.road(arc), v);
+        }
+        return route.reverse(0).build();
+    }
+
+    /**
+     * Relaxes one slice of the frontier and keeps the towns it improved.
+     * Slices are reused between rounds and queries.
+     */
+    private class Relaxation {
+        private final IntList improved = new IntList();
+        private int from;
+        private int to;
+        private int relaxed;
+
+        void reset(int from, int to) {
+            this.from = from;
+            this.to = to;
+            improved.clear();
+            relaxed = 0;
+        }
+
+        void compute() {
+            RoutingGraph graph = DeltaSteppingSearch.this.graph;
+            long[] labels = DeltaSteppingSearch.this.labels;
+            for (int i = from; i < to; i++) {
+                int u = frontier[i];
+                int distance = distanceOf((long) LABELS.getOpaque(labels, u));
+                for (int arc = graph.firstArc(u), end = graph.endArc(u); arc < end; arc++) {
+                    relaxed++;
+                    int v = graph.target(arc);
+                    int newDistance = distance + graph.weight(arc);
+                    long label = label(newDistance, arc);
+                    for (long old = (long) LABELS.getOpaque(labels, v); distanceOf(old) > newDistance;
+                            old = (long) LABELS.getOpaque(labels, v)) {
+                        if (LABELS.compareAndSet(labels, v, old, label)) {
+                            improved.add(v);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a range of Relaxations, splitting it in half until one is left.
+     */
+    private class Split extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        Split(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                relaxations.get(from).compute();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Split(from, middle), new Split(middle, to));
+        }
+    }
+
+    /**
+     * Growable list of town ids.
+     */
+    private static class IntList {
+        private int[] values = new int[0];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, Math.max(16, size * 2));
+            values[size++] = value;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
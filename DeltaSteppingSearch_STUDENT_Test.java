@@ -0,0 +1,108 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class tests the functionality of the DeltaSteppingSearch class
+ * against DijkstraSearch.
+ *
+ * Author: Your Name
+ */
+public class DeltaSteppingSearch_STUDENT_Test {
+    private ForkJoinPool pool;
+    private RoutingGraph network;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a four-thread pool and a planar network large enough for
+     * frontiers to be split between threads.
+     */
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        ArrayGraph graph = new ArrayGraph();
+        new RoadNetworkGenerator(RoadNetworkGenerator.Topology.PLANAR, 20000, 11)
+                .setWeights(RoadNetworkGenerator.WeightDistribution.PARETO, 1, 500)
+                .generate((number, town1, town2, distance) -> graph.addRoad(RoadNetworkGenerator.townName(town1),
+                        RoadNetworkGenerator.townName(town2), distance, RoadNetworkGenerator.roadName(number)));
+        network = graph.routingGraph();
+    }
+
+    /**
+     * Shuts the pool down after each test.
+     */
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tests that every delta gives Dijkstra's distances and a tree whose arcs
+     * add up to them.
+     */
+    @Test
+    public void testMatchesDijkstra() {
+        DijkstraSearch dijkstra = DijkstraSearch.forCurrentThread();
+        dijkstra.run(network, 0);
+        for (int delta : new int[] {1, 40, DeltaSteppingSearch.AUTO_DELTA, 100000}) {
+            DeltaSteppingSearch search = new DeltaSteppingSearch(delta, pool);
+            search.run(network, 0);
+            assertEquals(0, search.distance(0));
+            assertEquals(CompactTownGraph.NONE, search.previousArc(0));
+            for (int v = 0; v < network.size(); v++) {
+                assertEquals(dijkstra.distance(v), search.distance(v));
+                int arc = search.previousArc(v);
+                if (arc != CompactTownGraph.NONE) {
+                    assertEquals(v, network.target(arc));
+                    assertEquals(search.distance(v), search.distance(network.tail(arc)) + network.weight(arc));
+                }
+            }
+            assertTrue(search.settledCount() >= network.size());
+        }
+    }
+
+    /**
+     * Tests reusing one search for several sources and reading routes.
+     */
+    @Test
+    public void testReuseAndRoute() {
+        DeltaSteppingSearch search = new DeltaSteppingSearch(DeltaSteppingSearch.AUTO_DELTA, pool);
+        DijkstraSearch dijkstra = DijkstraSearch.forCurrentThread();
+        for (int source : new int[] {5, network.size() - 1, 777}) {
+            search.run(network, source);
+            int destination = (source * 31 + 7) % network.size();
+            assertEquals(dijkstra.runTo(network, source, destination), search.distance(destination));
+            assertEquals(search.distance(destination), search.route(destination).getDistance());
+        }
+    }
+
+    /**
+     * Tests that a Graph with a parallel search builds the same trees.
+     */
+    @Test
+    public void testGraphParallelTrees() {
+        Graph graph = new Graph();
+        Town[] towns = new Town[50];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("Town" + i);
+            graph.addVertex(towns[i]);
+        }
+        for (int i = 1; i < towns.length; i++) {
+            graph.addEdge(towns[i - 1], towns[i], 10, "Main" + i);
+            graph.addEdge(towns[i / 2], towns[i], 3 * i, "Branch" + i);
+        }
+        Graph sequential = new Graph();
+        for (Road road : graph.edgeSet()) {
+            sequential.addVertex(road.getSource());
+            sequential.addVertex(road.getDestination());
+            sequential.addEdge(road.getSource(), road.getDestination(), road.getDistance(), road.getName());
+        }
+        graph.setParallelSearch(new DeltaSteppingSearch(5, pool));
+        for (Town town : towns) {
+            assertEquals(sequential.shortestPathTree(towns[0]).distance(sequential.freeze().idOf(town)),
+                    graph.shortestPathTree(towns[0]).distance(graph.freeze().idOf(town)));
+        }
+    }
+}
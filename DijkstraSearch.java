@@ -0,0 +1,332 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Reusable Dijkstra engine that runs on any RoutingGraph, such as a
+ * CompactTownGraph snapshot or a MappedTownGraph file.
+ *
+ * Distances and tree arcs live in int arrays that are kept between queries.
+ * Instead of clearing them, every query bumps a generation counter, and an
+ * entry only counts as set when its stamp matches the current generation.
+ * Together with the IndexedMinHeap this means a query allocates nothing once
+ * the buffers have grown to the size of the graph.
+ *
+ * A search is not thread-safe; use forCurrentThread() to get the calling
+ * thread's own instance.
+ *
+ * Author: Your Name
+ */
+public class DijkstraSearch {
+    private static final ThreadLocal<DijkstraSearch> PER_THREAD = ThreadLocal.withInitial(DijkstraSearch::new);
+
+    private RoutingGraph graph;
+    private int source = CompactTownGraph.NONE;
+    private int[] distances = new int[0];
+    private int[] previousArcs = new int[0];
+    private int[] stamps = new int[0];
+    private int generation;
+    private final IndexedMinHeap heap = new IndexedMinHeap(0);
+    private int settledCount;
+    private int relaxedCount;
+    private Heuristic<Town> heuristic;
+    private LandmarkHeuristic landmarks;
+    private int destination = CompactTownGraph.NONE;
+
+    /**
+     * Returns the search instance owned by the calling thread.
+     *
+     * @return this thread's DijkstraSearch
+     */
+    public static DijkstraSearch forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Computes the full shortest-path tree from a source town.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     */
+    public void run(RoutingGraph graph, int source) {
+        start(graph, source);
+        while (!heap.isEmpty()) {
+            settle(heap.poll());
+        }
+    }
+
+    /**
+     * Searches from a source town until a destination town is settled. Towns
+     * that were not settled before the destination keep tentative distances.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     * @param destination the destination town id
+     * @return the distance to the destination, or UNREACHABLE if there is no path
+     */
+    public int runTo(RoutingGraph graph, int source, int destination) {
+        start(graph, source);
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            settle(current);
+            if (current == destination) break;
+        }
+        return distance(destination);
+    }
+
+    /**
+     * Searches from a source town until every marked target town is settled.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     * @param isTarget marks the target town ids
+     * @param targetCount the number of marked towns
+     */
+    public void runToAll(RoutingGraph graph, int source, boolean[] isTarget, int targetCount) {
+        start(graph, source);
+        int remaining = targetCount;
+        while (remaining > 0 && !heap.isEmpty()) {
+            int current = heap.poll();
+            settle(current);
+            if (isTarget[current]) remaining--;
+        }
+    }
+
+    /**
+     * Runs A* from a source town to a destination town, ordering the queue by
+     * distance plus the heuristic's estimate of the remaining distance. With a
+     * consistent heuristic the result equals Dijkstra's, while fewer towns are
+     * settled. A LandmarkHeuristic built on the same snapshot is evaluated on
+     * town ids directly.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     * @param destination the destination town id
+     * @param heuristic the remaining-distance estimate
+     * @return the distance to the destination, or UNREACHABLE if there is no path
+     */
+    public int runTo(RoutingGraph graph, int source, int destination, Heuristic<Town> heuristic) {
+        start(graph, source);
+        this.heuristic = heuristic;
+        this.destination = destination;
+        if (heuristic instanceof LandmarkHeuristic && ((LandmarkHeuristic) heuristic).graph() == graph) {
+            landmarks = (LandmarkHeuristic) heuristic;
+        }
+        try {
+            while (!heap.isEmpty()) {
+                int current = heap.poll();
+                settle(current);
+                if (current == destination) break;
+            }
+        } finally {
+            this.heuristic = null;
+            landmarks = null;
+        }
+        return distance(destination);
+    }
+
+    private int estimate(int v) {
+        if (landmarks != null) return landmarks.estimate(v, destination);
+        return heuristic.estimate(graph.town(v), graph.town(destination));
+    }
+
+    /**
+     * Starts a stepwise search from a source town. Use settleNext() to advance it.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     */
+    void start(RoutingGraph graph, int source) {
+        int n = graph.size();
+        if (stamps.length < n) {
+            distances = new int[n];
+            previousArcs = new int[n];
+            stamps = new int[n];
+            generation = 0;
+        }
+        heap.ensureCapacity(n);
+        heap.clear();
+        if (++generation == 0) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+        this.graph = graph;
+        this.source = source;
+        settledCount = 0;
+        relaxedCount = 0;
+
+        stamps[source] = generation;
+        distances[source] = 0;
+        previousArcs[source] = CompactTownGraph.NONE;
+        heap.insertOrDecrease(source, 0);
+    }
+
+    /**
+     * Checks whether a stepwise search has towns left to settle.
+     *
+     * @return true if the queue is empty
+     */
+    boolean isExhausted() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Returns the distance of the next town a stepwise search would settle.
+     *
+     * @return the smallest queued distance
+     */
+    int peekDistance() {
+        return heap.peekKey();
+    }
+
+    /**
+     * Settles the closest queued town and relaxes its arcs.
+     *
+     * @return the id of the settled town
+     */
+    int settleNext() {
+        int current = heap.poll();
+        settle(current);
+        return current;
+    }
+
+    private void settle(int current) {
+        settledCount++;
+        int currentDistance = distances[current];
+        int first = graph.firstArc(current);
+        int end = graph.endArc(current);
+        relaxedCount += end - first;
+        for (int arc = first; arc < end; arc++) {
+            int neighbor = graph.target(arc);
+            int newDist = currentDistance + graph.weight(arc);
+            if (stamps[neighbor] != generation || newDist < distances[neighbor]) {
+                stamps[neighbor] = generation;
+                distances[neighbor] = newDist;
+                previousArcs[neighbor] = arc;
+                heap.insertOrDecrease(neighbor, (heuristic == null) ? newDist : newDist + estimate(neighbor));
+            }
+        }
+    }
+
+    /**
+     * Returns the graph the last query ran on.
+     *
+     * @return the searched snapshot
+     */
+    public RoutingGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the source town id of the last query.
+     *
+     * @return the source id
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * Returns the number of towns settled by the last query.
+     *
+     * @return the settled count
+     */
+    public int settledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Returns the number of arcs relaxed by the last query.
+     *
+     * @return the relaxed count
+     */
+    public int relaxedCount() {
+        return relaxedCount;
+    }
+
+    /**
+     * Returns the distance found to a town by the last query.
+     *
+     * @param v the town id
+     * @return the distance, or UNREACHABLE if the town was not reached
+     */
+    public int distance(int v) {
+        return (stamps[v] == generation) ? distances[v] : CompactTownGraph.UNREACHABLE;
+    }
+
+    /**
+     * Returns the arc used to reach a town in the last query.
+     *
+     * @param v the town id
+     * @return the arc index, or NONE for the source and unreached towns
+     */
+    public int previousArc(int v) {
+        return (stamps[v] == generation) ? previousArcs[v] : CompactTownGraph.NONE;
+    }
+
+    /**
+     * Copies the last query's tree into caller-owned arrays.
+     *
+     * @param distances receives the distance to every town
+     * @param previousArcs receives the arc leading into every town
+     */
+    public void copyTree(int[] distances, int[] previousArcs) {
+        for (int v = 0; v < graph.size(); v++) {
+            distances[v] = distance(v);
+            previousArcs[v] = previousArc(v);
+        }
+    }
+
+    /**
+     * Adds the hops from the last query's source to a town to a route.
+     *
+     * @param route the route being built
+     * @param destination the destination town id
+     */
+    void appendPathTo(Route.Builder route, int destination) {
+        int first = route.hops();
+        for (int v = destination, arc; (arc = previousArc(v)) != CompactTownGraph.NONE; ) {
+            route.add(graph.road(arc), v);
+            v = graph.tail(arc);
+        }
+        route.reverse(first);
+    }
+
+    /**
+     * Adds the hops from a town back to the last query's source to a route.
+     * Used for the backward half of a bidirectional search.
+     *
+     * @param route the route being built
+     * @param from the town to start walking from
+     */
+    void appendPathFrom(Route.Builder route, int from) {
+        for (int v = from, arc; (arc = previousArc(v)) != CompactTownGraph.NONE; ) {
+            v = graph.tail(arc);
+            route.add(graph.road(arc), v);
+        }
+    }
+
+    /**
+     * Returns the route from the last query's source to a destination.
+     *
+     * @param destination the destination town id
+     * @return the Route, or null if the destination was not reached
+     */
+    public Route route(int destination) {
+        if (distance(destination) == CompactTownGraph.UNREACHABLE) return null;
+        Route.Builder route = new Route.Builder(graph, source);
+        appendPathTo(route, destination);
+        return route.build();
+    }
+
+    /**
+     * Describes the path from the last query's source to a destination in the
+     * "from via road to to N mi" format.
+     *
+     * @param destination the destination town id
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> describePath(int destination) {
+        Route route = route(destination);
+        return (route != null) ? route.toSteps() : new ArrayList<>();
+    }
+}
@@ -0,0 +1,125 @@
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Before;
+import org.junit.Test;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the DijkstraSearch and IndexedMinHeap
+ * classes, including decrease-key, buffer reuse between queries, and
+ * allocation-free searching once the buffers are warm.
+ * 
+ * It uses a seeded random graph and compares the results with Bellman-Ford.
+ * 
+ * Author: Your Name
+ */
+public class DijkstraSearch_STUDENT_Test {
+    private Graph graph;
+    private CompactTownGraph snapshot;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a random graph of 200 towns and 800 roads.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        Random random = new Random(42);
+        Town[] towns = new Town[200];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            graph.addVertex(towns[i]);
+        }
+        for (int i = 0; i < 800; i++) {
+            graph.addEdge(towns[random.nextInt(towns.length)], towns[random.nextInt(towns.length)],
+                    1 + random.nextInt(50), "R" + i);
+        }
+        snapshot = graph.freeze();
+    }
+
+    /**
+     * Tests that decrease-key reorders the heap and larger keys are ignored.
+     */
+    @Test
+    public void testHeapDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(0, 30);
+        heap.insertOrDecrease(1, 20);
+        heap.insertOrDecrease(2, 10);
+        heap.insertOrDecrease(0, 5);
+        heap.insertOrDecrease(2, 50);
+
+        assertEquals(3, heap.size());
+        assertEquals(0, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(1, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * Tests that repeated queries on the same search match Bellman-Ford,
+     * so stale entries from earlier generations never leak through.
+     */
+    @Test
+    public void testDistancesMatchBellmanFord() {
+        DijkstraSearch search = new DijkstraSearch();
+        for (int source = 0; source < snapshot.size(); source += 37) {
+            int[] expected = bellmanFord(source);
+            search.run(snapshot, source);
+            for (int v = 0; v < snapshot.size(); v++) {
+                assertEquals(expected[v], search.distance(v));
+            }
+        }
+    }
+
+    /**
+     * Tests that warm queries do not allocate on the calling thread.
+     */
+    @Test
+    public void testSteadyStateIsAllocationFree() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported());
+
+        DijkstraSearch search = new DijkstraSearch();
+        long checksum = 0;
+        for (int i = 0; i < 2000; i++) {
+            search.run(snapshot, i % snapshot.size());
+            checksum += search.distance(0);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1000; i++) {
+            search.run(snapshot, i % snapshot.size());
+            checksum += search.distance(0);
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(checksum != 0);
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private int[] bellmanFord(int source) {
+        int[] distances = new int[snapshot.size()];
+        Arrays.fill(distances, CompactTownGraph.UNREACHABLE);
+        distances[source] = 0;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int v = 0; v < snapshot.size(); v++) {
+                if (distances[v] == CompactTownGraph.UNREACHABLE) continue;
+                for (int arc = snapshot.firstArc(v); arc < snapshot.endArc(v); arc++) {
+                    int w = snapshot.target(arc);
+                    if (distances[v] + snapshot.weight(arc) < distances[w]) {
+                        distances[w] = distances[v] + snapshot.weight(arc);
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+}
@@ -1,17 +1,24 @@
 import java.util.*;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 
 /**
  * Graph class that implements a simple undirected graph with Towns as vertices
  * and Roads as edges. It supports adding, removing, and finding vertices and edges,
  * as well as finding the shortest path using Dijkstra's algorithm.
  * 
+ * Alongside the town and road sets, each town keeps a map from its neighbors to
+ * the connecting road, so neighbor and edge lookups never scan the whole road set.
+ * 
  * Author: Your Name
  */
 public class Graph implements GraphInterface<Town, Road> {
     private Set<Town> towns;
     private Set<Road> roads;
+    private Map<Town, Map<Town, Road>> adjacency;
+    private long version;
+    private CompactTownGraph snapshot;
 
     /**
      * Constructs an empty Graph with no towns or roads.
@@ -19,6 +26,7 @@ public class Graph implements GraphInterface<Town, Road> {
     public Graph() {
         towns = new HashSet<>();
         roads = new HashSet<>();
+        adjacency = new HashMap<>();
     }
 
     /**
@@ -31,16 +39,13 @@ public class Graph implements GraphInterface<Town, Road> {
     @Override
     public Road getEdge(Town sourceVertex, Town destinationVertex) {
         if (sourceVertex == null || destinationVertex == null) return null;
-        for (Road road : roads) {
-            if (road.contains(sourceVertex) && road.contains(destinationVertex)) {
-                return road;
-            }
-        }
-        return null;
+        Map<Town, Road> neighbors = adjacency.get(sourceVertex);
+        return (neighbors != null) ? neighbors.get(destinationVertex) : null;
     }
 
     /**
-     * Adds a new road connecting two towns.
+     * Adds a new road connecting two towns. A road already joining the towns,
+     * in either direction, is replaced by the new one.
      *
      * @param sourceVertex the source town
      * @param destinationVertex the destination town
@@ -53,7 +58,13 @@ public class Graph implements GraphInterface<Town, Road> {
         if (sourceVertex == null || destinationVertex == null) throw new NullPointerException();
         if (!towns.contains(sourceVertex) || !towns.contains(destinationVertex)) throw new IllegalArgumentException();
         Road road = new Road(sourceVertex, destinationVertex, weight, description);
-        roads.add(road);
+        Road replaced = insertRoad(road);
+        version++;
+        repairTrees(replaced, road);
+        updateComponents(sourceVertex, destinationVertex);
+        if (replaced == null || replaced.getDistance() >= weight) {
+            updateAllPairs(sourceVertex, destinationVertex, weight);
+        }
         return road;
     }
 
@@ -65,8 +76,10 @@ public class Graph implements GraphInterface<Town, Road> {
      */
     @Override
     public boolean addVertex(Town v) {
-        if (v == null) return false;
-        return towns.add(v);
+        if (v == null || !insertVertex(v)) return false;
+        version++;
+        updateComponents(v, v);
+        return true;
     }
 
     /**
@@ -110,13 +123,9 @@ public class Graph implements GraphInterface<Town, Road> {
      */
     @Override
     public Set<Road> edgesOf(Town vertex) {
-        Set<Road> edges = new HashSet<>();
-        for (Road road : roads) {
-            if (road.contains(vertex)) {
-                edges.add(road);
-            }
-        }
-        return edges;
+        Map<Town, Road> neighbors = adjacency.get(vertex);
+        if (neighbors == null) return new HashSet<>();
+        return new HashSet<>(neighbors.values());
     }
 
     /**
@@ -130,12 +139,12 @@ public class Graph implements GraphInterface<Town, Road> {
      */
     @Override
     public Road removeEdge(Town sourceVertex, Town destinationVertex, int weight, String description) {
-        Road road = getEdge(sourceVertex, destinationVertex);
+        Road road = unlink(sourceVertex, destinationVertex);
         if (road != null) {
-            roads.remove(road);
-            return road;
+            version++;
+            repairTrees(road, null);
         }
-        return null;
+        return road;
     }
 
     /**
@@ -146,11 +155,9 @@ public class Graph implements GraphInterface<Town, Road> {
      */
     @Override
     public boolean removeVertex(Town v) {
-        if (towns.remove(v)) {
-            roads.removeIf(road -> road.contains(v));
-            return true;
-        }
-        return false;
+        if (!deleteVertex(v)) return false;
+        version++;
+        return true;
     }
 
     /**
@@ -163,49 +170,266 @@ public class Graph implements GraphInterface<Town, Road> {
         return towns;
     }
 
+    // The four changes below touch only the sets and maps. Callers bump the
+    // version and bring the derived structures up to date.
+
+    private boolean insertVertex(Town v) {
+        if (!towns.add(v)) return false;
+        adjacency.put(v, new HashMap<>());
+        return true;
+    }
+
+    /**
+     * Enters a road in the road set and adjacency maps. The last road given
+     * between two towns wins whichever way round it runs, so a road already
+     * joining them leaves the road set as well.
+     *
+     * @return the road that was replaced, or null
+     */
+    private Road insertRoad(Road road) {
+        Road replaced = getEdge(road.getSource(), road.getDestination());
+        if (replaced != null) roads.remove(replaced);
+        roads.add(road);
+        adjacency.get(road.getSource()).put(road.getDestination(), road);
+        adjacency.get(road.getDestination()).put(road.getSource(), road);
+        return replaced;
+    }
+
+    private Road unlink(Town sourceVertex, Town destinationVertex) {
+        Road road = getEdge(sourceVertex, destinationVertex);
+        if (road != null) {
+            roads.remove(road);
+            adjacency.get(sourceVertex).remove(destinationVertex);
+            adjacency.get(destinationVertex).remove(sourceVertex);
+        }
+        return road;
+    }
+
+    private boolean deleteVertex(Town v) {
+        if (!towns.remove(v)) return false;
+        for (Map.Entry<Town, Road> entry : adjacency.remove(v).entrySet()) {
+            if (!entry.getKey().equals(v)) {
+                adjacency.get(entry.getKey()).remove(v);
+            }
+            roads.remove(entry.getValue());
+        }
+        return true;
+    }
+
+    // -------------- BATCH SECTION ---------------
+
+    /**
+     * Begins a batch of changes that commit() applies to this graph at once.
+     *
+     * @return an empty GraphBatch
+     */
+    public GraphBatch beginBatch() {
+        return new GraphBatch(this::apply);
+    }
+
+    private int apply(GraphBatch batch) {
+        return apply(batch, null);
+    }
+
+    /**
+     * Applies a batch in one pass with a single version change. Cached trees
+     * and the all-pairs table are then rebuilt when next used instead of being
+     * repaired after every change.
+     *
+     * @param batch the changes to apply
+     * @param townsByName a name index to keep in step, or null
+     * @return the number of changes that altered the graph
+     */
+    int apply(GraphBatch batch, Map<String, Town> townsByName) {
+        int changed = 0;
+        for (GraphBatch.Mutation mutation : batch.mutations()) {
+            switch (mutation.kind) {
+                case ADD_TOWN:
+                    if (insertVertex(townNamed(mutation.town1, townsByName))) changed++;
+                    break;
+                case ADD_ROAD:
+                    Town source = townNamed(mutation.town1, townsByName);
+                    Town destination = townNamed(mutation.town2, townsByName);
+                    insertVertex(source);
+                    insertVertex(destination);
+                    Road road = new Road(source, destination, mutation.distance, mutation.roadName);
+                    insertRoad(road);
+                    changed++;
+                    break;
+                case DELETE_ROAD:
+                    if (unlink(new Town(mutation.town1), new Town(mutation.town2)) != null) changed++;
+                    break;
+                case DELETE_TOWN:
+                    if (deleteVertex(new Town(mutation.town1))) {
+                        if (townsByName != null) townsByName.remove(mutation.town1);
+                        changed++;
+                    }
+                    break;
+            }
+        }
+        if (changed > 0) version++;
+        return changed;
+    }
+
+    /**
+     * Returns the Town to use for a name: the indexed one if there is an
+     * index, adding a new one to it if needed, or else a new Town.
+     */
+    private static Town townNamed(String name, Map<String, Town> townsByName) {
+        return (townsByName != null) ? townsByName.computeIfAbsent(name, Town::new) : new Town(name);
+    }
+
+    // -------------- COMPACT SNAPSHOT SECTION ---------------
+
+    /**
+     * Returns the current version of the graph. The version changes every time
+     * a town or road is added or removed.
+     *
+     * @return the graph version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a read-only compact snapshot of the graph for routing. The snapshot
+     * is reused until the graph is modified, after which the next call builds a
+     * fresh one.
+     *
+     * @return a CompactTownGraph reflecting the current graph
+     */
+    public CompactTownGraph freeze() {
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = new CompactTownGraph(version, adjacency);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes the graph to a binary graph file that MappedTownGraph can map.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void exportBinary(File file) throws IOException {
+        MappedTownGraph.write(freeze(), file);
+    }
+
+    /**
+     * Adds every town and road from a binary graph file to this graph.
+     *
+     * @param file the file to read
+     * @throws IOException if the file cannot be read or is not a valid graph file
+     */
+    public void importBinary(File file) throws IOException {
+        MappedTownGraph.open(file).copyInto(this);
+    }
+
+    /**
+     * Estimates the heap footprint of the graph's hash-based storage in bytes,
+     * for comparison with CompactTownGraph.estimatedBytes().
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        // Hash entry (32) plus table slot (4-8) for every set and map entry,
+        // plus the Town/Road objects themselves.
+        long townBytes = towns.size() * (16L + 40L + 40L + 48L);
+        long roadBytes = roads.size() * (32L + 40L + 2 * 40L);
+        return townBytes + roadBytes;
+    }
+
     // -------------- DIJKSTRA'S ALGORITHM SECTION ---------------
 
-    private Map<Town, Integer> distances;
-    private Map<Town, Town> previous;
-    private Set<Town> visited;
+    /** Number of shortest-path trees kept by default. */
+    public static final int DEFAULT_TREE_CACHE_CAPACITY = 16;
+
+    private int treeCacheCapacity = DEFAULT_TREE_CACHE_CAPACITY;
+    private DeltaSteppingSearch parallelSearch;
+    private long treeCacheVersion;
+    private final IndexedMinHeap repairHeap = new IndexedMinHeap(0);
+    private long treeCacheHits;
+    private long treeCacheMisses;
+    private final LinkedHashMap<Town, ShortestPathTree> treeCache = new LinkedHashMap<Town, ShortestPathTree>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Town, ShortestPathTree> eldest) {
+            return size() > treeCacheCapacity;
+        }
+    };
 
     /**
      * Implements Dijkstra's shortest path algorithm starting from a given source town.
+     * The complete tree is computed on the compact snapshot returned by freeze()
+     * and kept in the tree cache for later shortestPath calls.
      *
      * @param sourceVertex the starting town
      */
     @Override
     public void dijkstraShortestPath(Town sourceVertex) {
-        distances = new HashMap<>();
-        previous = new HashMap<>();
-        visited = new HashSet<>();
-
-        for (Town town : towns) {
-            distances.put(town, Integer.MAX_VALUE);
-        }
-        distances.put(sourceVertex, 0);
-
-        PriorityQueue<Town> queue = new PriorityQueue<>(Comparator.comparingInt(distances::get));
-        queue.add(sourceVertex);
-
-        while (!queue.isEmpty()) {
-            Town current = queue.poll();
-            visited.add(current);
-
-            for (Road road : edgesOf(current)) {
-                Town neighbor = road.getSource().equals(current) ? road.getDestination() : road.getSource();
-                if (!visited.contains(neighbor)) {
-                    int newDist = distances.get(current) + road.getDistance();
-                    if (newDist < distances.get(neighbor)) {
-                        distances.put(neighbor, newDist);
-                        previous.put(neighbor, current);
-                        queue.add(neighbor);
-                    }
-                }
-            }
+        if (treeCacheCapacity > 0) {
+            shortestPathTree(sourceVertex);
+            return;
+        }
+        CompactTownGraph graph = freeze();
+        int source = graph.idOf(sourceVertex);
+        if (source == CompactTownGraph.NONE) return;
+        if (parallelSearch != null) {
+            parallelSearch.run(graph, source);
+        } else {
+            DijkstraSearch.forCurrentThread().run(graph, source);
         }
     }
 
+    /**
+     * Returns the complete shortest-path tree rooted at a town, from the tree
+     * cache when possible. A miss computes the tree and caches it, evicting the
+     * least recently used tree once the cache is full. Cached trees are
+     * repaired when roads are added or removed, and dropped when towns are.
+     *
+     * @param sourceVertex the root town
+     * @return the ShortestPathTree, or null if the town is not in the graph
+     */
+    public ShortestPathTree shortestPathTree(Town sourceVertex) {
+        ShortestPathTree tree = cachedTree(sourceVertex);
+        if (tree != null) return tree;
+
+        CompactTownGraph graph = freeze();
+        int source = graph.idOf(sourceVertex);
+        if (source == CompactTownGraph.NONE) return null;
+        treeCacheMisses++;
+        tree = new ShortestPathTree(graph, source, parallelSearch);
+        if (treeCacheCapacity > 0) {
+            treeCache.put(sourceVertex, tree);
+        }
+        return tree;
+    }
+
+    private ShortestPathTree cachedTree(Town sourceVertex) {
+        if (treeCacheVersion != version) {
+            treeCache.clear();
+            treeCacheVersion = version;
+        }
+        ShortestPathTree tree = treeCache.get(sourceVertex);
+        if (tree != null) {
+            treeCacheHits++;
+        }
+        return tree;
+    }
+
+    /**
+     * Brings the cached trees up to date after one road change, if they were
+     * current before it. A replaced road is handled as a removal followed by
+     * an addition.
+     */
+    private void repairTrees(Road removed, Road added) {
+        if (treeCacheVersion != version - 1) return;
+        for (ShortestPathTree tree : treeCache.values()) {
+            if (removed != null) tree.roadRemoved(removed, adjacency, repairHeap);
+            if (added != null) tree.roadAdded(added, adjacency, repairHeap);
+        }
+        treeCacheVersion = version;
+    }
+
     /**
      * Returns the shortest path from the source town to the destination town
      * as a list of steps in string format.
@@ -216,30 +440,352 @@ public class Graph implements GraphInterface<Town, Road> {
      */
     @Override
     public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex) {
-        ArrayList<String> path = new ArrayList<>();
-        dijkstraShortestPath(sourceVertex);
+        return shortestPath(sourceVertex, destinationVertex, RoutingAlgorithm.DIJKSTRA);
+    }
 
-        if (!previous.containsKey(destinationVertex) && !sourceVertex.equals(destinationVertex)) {
-            return path; // No path
+    /**
+     * Returns the shortest path from the source town to the destination town
+     * using the given search strategy, rendered from route().
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param algorithm the search strategy to use
+     * @return an ArrayList of Strings describing the path
+     */
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex, RoutingAlgorithm algorithm) {
+        Route route = route(sourceVertex, destinationVertex, algorithm);
+        return (route != null) ? route.toSteps() : new ArrayList<>(); // Empty if no path
+    }
+
+    /**
+     * Finds the shortest route from the source town to the destination town
+     * using the given search strategy. A cached tree for the source answers the
+     * query directly. Otherwise the strategy runs its own point-to-point search,
+     * which for DIJKSTRA stops at the destination; trees are only computed and
+     * cached by dijkstraShortestPath and shortestPathTree. In all-pairs mode
+     * every strategy is answered from the all-pairs table.
+     * Before any search, towns in different connected components are reported
+     * as having no path by the components index.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param algorithm the search strategy to use
+     * @return the Route, or null if there is no path
+     */
+    public Route route(Town sourceVertex, Town destinationVertex, RoutingAlgorithm algorithm) {
+        if (metrics == null || (++routeCount & (metrics.getSampleInterval() - 1)) != 0) {
+            return findRoute(sourceVertex, destinationVertex, algorithm);
         }
+        long start = System.nanoTime();
+        Route route = findRoute(sourceVertex, destinationVertex, algorithm);
+        long nanos = System.nanoTime() - start;
+        recordSearch(algorithm, nanos);
+        return route;
+    }
 
-        Stack<Town> stack = new Stack<>();
-        Town step = destinationVertex;
-        stack.push(step);
+    private Route findRoute(Town sourceVertex, Town destinationVertex, RoutingAlgorithm algorithm) {
+        answeredBy = Answer.NONE;
+        if (allPairsMode) {
+            answeredBy = Answer.ALL_PAIRS;
+            return allPairs().route(sourceVertex, destinationVertex, this);
+        }
+        if (!towns.contains(sourceVertex) || !towns.contains(destinationVertex)) {
+            return null;
+        }
+        if (treeCacheCapacity > 0) {
+            ShortestPathTree tree = cachedTree(sourceVertex);
+            if (tree != null) {
+                answeredBy = Answer.CACHED_TREE;
+                return tree.route(tree.graph().idOf(destinationVertex));
+            }
+        }
+        if (!isReachable(sourceVertex, destinationVertex)) {
+            answeredBy = Answer.COMPONENTS;
+            return null;
+        }
+        boolean missed = treeCacheCapacity > 0 && algorithm == RoutingAlgorithm.DIJKSTRA;
+        answeredBy = missed ? Answer.TREE_MISS : Answer.SEARCH;
+        return freeze().route(sourceVertex, destinationVertex, algorithm);
+    }
+
+    /**
+     * Returns the shortest path from the source town to the destination town
+     * using A* search with the given heuristic.
+     *
+     * @param sourceVertex the starting town
+     * @param destinationVertex the target town
+     * @param heuristic an admissible, consistent estimate of remaining distance
+     * @return an ArrayList of Strings describing the path
+     */
+    public ArrayList<String> shortestPath(Town sourceVertex, Town destinationVertex, Heuristic<Town> heuristic) {
+        return freeze().shortestPath(sourceVertex, destinationVertex, heuristic);
+    }
+
+    /**
+     * Writes the landmark tables used by A_STAR routing to a file, computing
+     * them first if needed.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void saveLandmarks(File file) throws IOException {
+        freeze().landmarks().save(file);
+    }
+
+    /**
+     * Loads landmark tables written by saveLandmarks so A_STAR routing does not
+     * have to recompute them. Tables written for a different road network are
+     * ignored.
+     *
+     * @param file the file to read
+     * @return true if the tables match the graph and were loaded
+     * @throws IOException if the file cannot be read
+     */
+    public boolean loadLandmarks(File file) throws IOException {
+        CompactTownGraph graph = freeze();
+        LandmarkHeuristic landmarks = LandmarkHeuristic.load(file, graph);
+        if (landmarks == null) return false;
+        graph.useLandmarks(landmarks);
+        return true;
+    }
 
-        while (previous.get(step) != null) {
-            step = previous.get(step);
-            stack.push(step);
+    /**
+     * Returns how many shortest-path trees the cache keeps.
+     *
+     * @return the tree cache capacity
+     */
+    public int getTreeCacheCapacity() {
+        return treeCacheCapacity;
+    }
+
+    /**
+     * Sets how many shortest-path trees the cache keeps. A capacity of 0 turns
+     * the cache off, so dijkstraShortestPath runs a search without keeping
+     * its tree.
+     *
+     * @param capacity the new capacity
+     */
+    public void setTreeCacheCapacity(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException();
+        treeCacheCapacity = capacity;
+        while (treeCache.size() > capacity) {
+            Iterator<Town> eldest = treeCache.keySet().iterator();
+            eldest.next();
+            eldest.remove();
         }
+    }
+
+    /**
+     * Returns the search that computes full shortest-path trees.
+     *
+     * @return the parallel search, or null if trees are computed with Dijkstra
+     */
+    public DeltaSteppingSearch getParallelSearch() {
+        return parallelSearch;
+    }
 
-        while (stack.size() > 1) {
-            Town from = stack.pop();
-            Town to = stack.peek();
-            Road road = getEdge(from, to);
-            path.add(from + " via " + road.getName() + " to " + to + " " + road.getDistance() + " mi");
+    /**
+     * Sets the search that computes full shortest-path trees, for
+     * dijkstraShortestPath and the tree cache. With a DeltaSteppingSearch a
+     * tree on a large graph is computed on several cores; the distances are
+     * the same. Point-to-point searches are not affected.
+     *
+     * @param search the parallel search, or null for sequential Dijkstra
+     */
+    public void setParallelSearch(DeltaSteppingSearch search) {
+        parallelSearch = search;
+    }
+
+    /**
+     * Returns how many tree lookups were answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getTreeCacheHits() {
+        return treeCacheHits;
+    }
+
+    /**
+     * Returns how many tree lookups had to run Dijkstra.
+     *
+     * @return the miss count
+     */
+    public long getTreeCacheMisses() {
+        return treeCacheMisses;
+    }
+
+    // -------------- METRICS SECTION ---------------
+
+    private RoutingMetrics metrics;
+    private long routeCount;
+    private Answer answeredBy = Answer.NONE;
+
+    /**
+     * How the last route() call was answered. TREE_MISS is a DIJKSTRA search
+     * that found no cached tree for its source.
+     */
+    private enum Answer { NONE, ALL_PAIRS, CACHED_TREE, TREE_MISS, COMPONENTS, SEARCH }
+
+    /**
+     * Returns the metrics route() records into.
+     *
+     * @return the RoutingMetrics, or null if metrics are off
+     */
+    public RoutingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Attaches metrics that every route() and shortestPath call records into,
+     * or turns metrics off.
+     *
+     * @param metrics the metrics to record into, or null to turn them off
+     */
+    public void setMetrics(RoutingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Records a sampled query, with the effort of the search that answered
+     * it read from the calling thread's search instance.
+     */
+    private void recordSearch(RoutingAlgorithm algorithm, long nanos) {
+        int settled = 0;
+        int relaxed = 0;
+        if (answeredBy == Answer.ALL_PAIRS) {
+            metrics.recordAllPairsLookup();
+        } else if (answeredBy == Answer.CACHED_TREE) {
+            metrics.recordTreeCacheLookup(true);
+        } else if (answeredBy == Answer.TREE_MISS) {
+            metrics.recordTreeCacheLookup(false);
+        }
+        if (answeredBy == Answer.SEARCH && algorithm == RoutingAlgorithm.CONTRACTION_HIERARCHIES) {
+            ContractionHierarchySearch search = ContractionHierarchySearch.forCurrentThread();
+            settled = search.settledCount();
+            relaxed = search.relaxedCount();
+        } else if (answeredBy == Answer.SEARCH && algorithm == RoutingAlgorithm.BIDIRECTIONAL_DIJKSTRA) {
+            BidirectionalDijkstraSearch search = BidirectionalDijkstraSearch.forCurrentThread();
+            settled = search.settledCount();
+            relaxed = search.relaxedCount();
+        } else if (answeredBy == Answer.SEARCH || answeredBy == Answer.TREE_MISS) {
+            DijkstraSearch search = DijkstraSearch.forCurrentThread();
+            settled = search.settledCount();
+            relaxed = search.relaxedCount();
+        }
+        metrics.recordQuery(algorithm, nanos, settled, relaxed);
+    }
+
+    // -------------- ALL-PAIRS SECTION ---------------
+
+    private boolean allPairsMode;
+    private AllPairsShortestPaths allPairs;
+    private long allPairsVersion;
+
+    /**
+     * Checks whether shortest paths are answered from a precomputed all-pairs table.
+     *
+     * @return true if all-pairs mode is on
+     */
+    public boolean isAllPairsMode() {
+        return allPairsMode;
+    }
+
+    /**
+     * Turns all-pairs mode on or off. While it is on, every shortestPath call
+     * is answered from an n-by-n table of distances and next hops, built on
+     * the first query after the mode is turned on. New and shortened roads
+     * update the table in place; other changes rebuild it on the next query.
+     * Meant for networks of a few thousand towns.
+     *
+     * @param enabled true to answer queries from the table
+     */
+    public void setAllPairsMode(boolean enabled) {
+        allPairsMode = enabled;
+        if (!enabled) allPairs = null;
+    }
+
+    /**
+     * Returns the all-pairs table for the current graph, building it if needed.
+     *
+     * @return the up-to-date AllPairsShortestPaths
+     */
+    public AllPairsShortestPaths allPairs() {
+        if (allPairs == null || allPairsVersion != version) {
+            allPairs = null; // Let the old table go before allocating the new one.
+            allPairs = new AllPairsShortestPaths(freeze());
+            allPairsVersion = version;
+        }
+        return allPairs;
+    }
+
+    /**
+     * Returns the memory held by the all-pairs table.
+     *
+     * @return the estimated size in bytes, 0 if no table is built
+     */
+    public long allPairsEstimatedBytes() {
+        return (allPairs != null) ? allPairs.estimatedBytes() : 0;
+    }
+
+    /**
+     * Applies a new or shortened road to a current all-pairs table, so it
+     * does not have to be rebuilt.
+     */
+    private void updateAllPairs(Town u, Town v, int weight) {
+        if (allPairs == null || allPairsVersion != version - 1) return;
+        allPairs.addRoad(allPairs.idOf(u), allPairs.idOf(v), weight);
+        allPairsVersion = version;
+    }
+
+    // -------------- CONNECTED COMPONENTS SECTION ---------------
+
+    private ConnectedComponents components;
+    private long componentsVersion;
+
+    /**
+     * Checks whether a chain of roads connects two towns, without searching.
+     *
+     * @param sourceVertex the first town
+     * @param destinationVertex the second town
+     * @return true if both towns are in the graph and connected
+     */
+    public boolean isReachable(Town sourceVertex, Town destinationVertex) {
+        if (!towns.contains(sourceVertex) || !towns.contains(destinationVertex)) return false;
+        return components().connected(sourceVertex, destinationVertex);
+    }
+
+    /**
+     * Returns the connected-components index for the current graph. New towns
+     * and roads update it in place; after a removal or a batch it is rebuilt
+     * here, on first use.
+     *
+     * @return the up-to-date ConnectedComponents
+     */
+    public ConnectedComponents components() {
+        if (components == null || componentsVersion != version) {
+            components = new ConnectedComponents(adjacency);
+            componentsVersion = version;
         }
+        return components;
+    }
 
-        return path;
+    /**
+     * Applies a new town (u == v) or road to a current components index.
+     */
+    private void updateComponents(Town u, Town v) {
+        if (components == null || componentsVersion != version - 1) return;
+        components.addRoad(u, v);
+        componentsVersion = version;
+    }
+
+    /**
+     * Computes the minimum spanning forest of the current road network: the
+     * shortest set of roads that keeps every connected pair of towns connected.
+     *
+     * @return the MinimumSpanningForest of the compact snapshot
+     */
+    public MinimumSpanningForest minimumSpanningForest() {
+        return new MinimumSpanningForest(freeze());
     }
 
     /**
@@ -0,0 +1,163 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * A list of town and road changes that is applied to a graph as one
+ * transaction: all of them, with one version change, or none.
+ *
+ * Begin a batch with beginBatch() on a Graph, ConcurrentGraph or
+ * TownGraphManager, record the changes, then commit(). Nothing happens to
+ * the graph until the commit. The commit applies every change straight to
+ * the graph's maps in one pass and changes the version once, so cached
+ * shortest-path trees, the all-pairs table and the compact snapshot are
+ * rebuilt once for the whole batch instead of being repaired after every
+ * change. On a ConcurrentGraph the new snapshot is published at the end of
+ * the commit, so readers see either the graph before the batch or after it.
+ *
+ * Changes take effect in the order they were recorded and behave like the
+ * TownGraphManager methods of the same names. A batch is not thread-safe
+ * and can be committed once.
+ *
+ * Author: Your Name
+ */
+public class GraphBatch {
+    private final ToIntFunction<GraphBatch> target;
+    private final List<Mutation> mutations = new ArrayList<>();
+    private boolean committed;
+
+    /**
+     * Constructs a batch that commits into the given graph method.
+     *
+     * @param target applies a batch and returns how many changes took effect
+     */
+    GraphBatch(ToIntFunction<GraphBatch> target) {
+        this.target = target;
+    }
+
+    /**
+     * Records adding a town.
+     *
+     * @param name the name of the town
+     * @return this batch
+     */
+    public GraphBatch addTown(String name) {
+        return record(new Mutation(Kind.ADD_TOWN, Objects.requireNonNull(name), null, 0, null));
+    }
+
+    /**
+     * Records adding a road, and its towns if they do not exist.
+     *
+     * @param town1 the name of the first town
+     * @param town2 the name of the second town
+     * @param distance the distance of the road
+     * @param roadName the name of the road
+     * @return this batch
+     */
+    public GraphBatch addRoad(String town1, String town2, int distance, String roadName) {
+        return record(new Mutation(Kind.ADD_ROAD, Objects.requireNonNull(town1), Objects.requireNonNull(town2),
+                distance, roadName));
+    }
+
+    /**
+     * Records deleting the road between two towns.
+     *
+     * @param town1 the name of the first town
+     * @param town2 the name of the second town
+     * @param roadName the name of the road, ignored as in TownGraphManager
+     * @return this batch
+     */
+    public GraphBatch deleteRoadConnection(String town1, String town2, String roadName) {
+        return record(new Mutation(Kind.DELETE_ROAD, Objects.requireNonNull(town1), Objects.requireNonNull(town2),
+                0, roadName));
+    }
+
+    /**
+     * Records deleting a town and its roads.
+     *
+     * @param name the name of the town
+     * @return this batch
+     */
+    public GraphBatch deleteTown(String name) {
+        return record(new Mutation(Kind.DELETE_TOWN, Objects.requireNonNull(name), null, 0, null));
+    }
+
+    /**
+     * Returns the number of recorded changes.
+     *
+     * @return the change count
+     */
+    public int size() {
+        return mutations.size();
+    }
+
+    /**
+     * Checks whether the batch has been committed.
+     *
+     * @return true after commit()
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    /**
+     * Applies every recorded change to the graph the batch was begun on.
+     *
+     * @return the number of changes that altered the graph; adding a town
+     *         that exists or deleting a missing road does not
+     * @throws IllegalStateException if the batch was already committed
+     */
+    public int commit() {
+        if (committed) throw new IllegalStateException("The batch was already committed");
+        committed = true;
+        return target.applyAsInt(this);
+    }
+
+    /**
+     * Returns the recorded changes, for the graph applying the batch.
+     *
+     * @return the changes in recorded order
+     */
+    List<Mutation> mutations() {
+        return Collections.unmodifiableList(mutations);
+    }
+
+    /**
+     * Records a change, for the recorders above and for log replay.
+     *
+     * @param mutation the change
+     * @return this batch
+     */
+    GraphBatch record(Mutation mutation) {
+        if (committed) throw new IllegalStateException("The batch was already committed");
+        mutations.add(mutation);
+        return this;
+    }
+
+    /** The kinds of change a batch can hold. */
+    enum Kind {
+        ADD_TOWN, ADD_ROAD, DELETE_ROAD, DELETE_TOWN
+    }
+
+    /**
+     * One recorded change. town2, distance and roadName are only used by
+     * road changes.
+     */
+    static class Mutation {
+        final Kind kind;
+        final String town1;
+        final String town2;
+        final int distance;
+        final String roadName;
+
+        Mutation(Kind kind, String town1, String town2, int distance, String roadName) {
+            this.kind = kind;
+            this.town1 = town1;
+            this.town2 = town2;
+            this.distance = distance;
+            this.roadName = roadName;
+        }
+    }
+}
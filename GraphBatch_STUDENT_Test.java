@@ -0,0 +1,140 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the GraphBatch class.
+ *
+ * Author: Your Name
+ */
+public class GraphBatch_STUDENT_Test {
+    private TownGraphManager batched;
+    private TownGraphManager direct;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates two managers with the same ring of 30 towns.
+     */
+    @Before
+    public void setUp() {
+        batched = new TownGraphManager();
+        direct = new TownGraphManager();
+        for (int i = 0; i < 30; i++) {
+            batched.addRoad("Town" + i, "Town" + (i + 1) % 30, 10, "Ring" + i);
+            direct.addRoad("Town" + i, "Town" + (i + 1) % 30, 10, "Ring" + i);
+        }
+    }
+
+    /**
+     * Tests that a committed batch leaves the graph as the same calls made one
+     * at a time would, and that nothing changes before the commit.
+     */
+    @Test
+    public void testMatchesDirectCalls() {
+        assertEquals("Town0 via Ring0 to Town1 10 mi", batched.getPath("Town0", "Town1").get(0));
+        GraphBatch batch = batched.beginBatch();
+        Random random = new Random(5);
+        for (int step = 0; step < 500; step++) {
+            String a = "Town" + random.nextInt(40);
+            String b = "Town" + random.nextInt(40);
+            int action = random.nextInt(10);
+            if (action < 6) {
+                String low = (a.compareTo(b) <= 0) ? a : b;
+                String high = (a.compareTo(b) <= 0) ? b : a;
+                if (low.equals(high)) continue;
+                int distance = 1 + random.nextInt(20);
+                batch.addRoad(low, high, distance, "R" + step);
+                direct.addRoad(low, high, distance, "R" + step);
+            } else if (action < 8) {
+                batch.deleteRoadConnection(a, b, null);
+                direct.deleteRoadConnection(a, b, null);
+            } else if (action < 9) {
+                batch.deleteTown(a);
+                direct.deleteTown(a);
+            } else {
+                batch.addTown(a);
+                direct.addTown(a);
+            }
+        }
+        assertEquals(30, batched.allTowns().size());
+        assertTrue(batch.commit() > 0);
+        assertEquals(direct.allTowns(), batched.allTowns());
+        assertEquals(direct.allRoads(), batched.allRoads());
+        for (String town : direct.allTowns()) {
+            assertNotNull(batched.getTown(town));
+            assertEquals(direct.getPath("Town0", town).size(), batched.getPath("Town0", town).size());
+        }
+    }
+
+    /**
+     * Tests that a commit changes the graph version once and drops cached trees.
+     */
+    @Test
+    public void testOneVersionChange() {
+        Graph graph = new Graph();
+        Town a = new Town("A");
+        graph.addVertex(a);
+        graph.addVertex(new Town("B"));
+        graph.addEdge(a, new Town("B"), 5, "AB");
+        assertEquals(5, graph.route(a, new Town("B"), RoutingAlgorithm.DIJKSTRA).getDistance());
+        long version = graph.getVersion();
+
+        GraphBatch batch = graph.beginBatch().addRoad("B", "C", 1, "BC").addRoad("A", "C", 1, "AC")
+                .deleteRoadConnection("A", "B", "AB").addTown("A");
+        assertEquals(4, batch.size());
+        assertEquals(3, batch.commit());
+        assertEquals(version + 1, graph.getVersion());
+        assertEquals(2, graph.route(a, new Town("B"), RoutingAlgorithm.DIJKSTRA).getDistance());
+        assertTrue(batch.isCommitted());
+        try {
+            batch.commit();
+            fail("A batch can only be committed once");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+    }
+
+    /**
+     * Tests that a batched road replaces the existing road whichever way round
+     * it runs, in the road list too, and leaves nothing behind once it is
+     * removed.
+     */
+    @Test
+    public void testRepeatedRoadReplacesExisting() {
+        assertEquals(2, batched.beginBatch().addRoad("Town1", "Town0", 3, "Reversed")
+                .addRoad("Town0", "Town1", 4, "Same way").commit());
+        assertEquals(30, batched.allRoads().size());
+        assertFalse(batched.allRoads().contains("Ring0"));
+        assertFalse(batched.allRoads().contains("Reversed"));
+        assertEquals("Same way", batched.getRoad("Town1", "Town0"));
+
+        batched.beginBatch().deleteRoadConnection("Town0", "Town1", "Same way").deleteTown("Town0").commit();
+        assertEquals(28, batched.allRoads().size());
+        assertFalse(batched.allRoads().contains("Same way"));
+        assertFalse(batched.allRoads().contains("Ring29"));
+    }
+
+    /**
+     * Tests that ConcurrentGraph readers see the old snapshot until the commit
+     * and the whole batch after it.
+     */
+    @Test
+    public void testConcurrentGraphPublishesAtomically() {
+        ConcurrentGraph graph = new ConcurrentGraph();
+        graph.addVertex(new Town("A"));
+        CompactTownGraph before = graph.snapshot();
+        GraphBatch batch = graph.beginBatch();
+        for (int i = 0; i < 100; i++) {
+            batch.addRoad("A", "T" + i, i + 1, "R" + i);
+        }
+        assertSame(before, graph.snapshot());
+        batch.commit();
+        CompactTownGraph after = graph.snapshot();
+        assertNotSame(before, after);
+        assertEquals(101, after.size());
+        assertEquals(100, graph.edgeSet().size());
+        assertEquals(0, graph.beginBatch().deleteTown("Nowhere").commit());
+        assertSame(after, graph.snapshot());
+    }
+}
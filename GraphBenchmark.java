@@ -0,0 +1,256 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Micro-benchmark suite for the hot paths of Graph and TownGraphManager:
+ * ingestion through addVertex/addEdge, getEdge, edgesOf, dijkstraShortestPath,
+ * shortestPath and populateTownGraph.
+ *
+ * Each benchmark runs on seeded networks from RoadNetworkGenerator, one per
+ * topology. It is warmed up first, then measured in batches for a fixed time.
+ * The report gives throughput, average time per operation and the bytes
+ * allocated per operation, taken from the JVM's per-thread allocation counter.
+ *
+ * Usage: java GraphBenchmark [sizes] [topologies] [millis]
+ * for example "java GraphBenchmark 1000,100000 grid,power_law 2000".
+ * Defaults are 1000,10000,100000 towns, all topologies, and 2000 ms of
+ * measurement per benchmark. Use a large -Xmx for 1,000,000 towns.
+ *
+ * Author: Your Name
+ */
+public class GraphBenchmark {
+    private static final long SEED = 42;
+    private static final int QUERY_COUNT = 1024;
+
+    /** Consumes benchmark results so the JIT cannot drop the work. */
+    private static volatile long sink;
+
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final com.sun.management.ThreadMXBean allocations;
+
+    /**
+     * Runs the suite and prints one line per benchmark.
+     *
+     * @param args optional sizes, topologies and measurement time in ms
+     * @throws IOException if the temporary road file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int[] sizes = Arrays.stream(((args.length > 0) ? args[0] : "1000,10000,100000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        String[] topologies = ((args.length > 1) ? args[1] : "grid,planar,hub_and_spoke,power_law").split(",");
+        long millis = (args.length > 2) ? Long.parseLong(args[2]) : 2000;
+
+        GraphBenchmark benchmark = new GraphBenchmark(millis / 2, millis);
+        System.out.printf("%-28s %-10s %9s %14s %14s %12s %12s%n",
+                "benchmark", "topology", "towns", "ops/s", "avg ns/op", "alloc B/op", "alloc MB/s");
+        for (String topology : topologies) {
+            for (int size : sizes) {
+                benchmark.runAll(Network.generate(topology, size, SEED), topology);
+            }
+        }
+    }
+
+    /**
+     * Constructs a benchmark runner.
+     *
+     * @param warmupMillis warm-up time per benchmark
+     * @param measureMillis measurement time per benchmark
+     */
+    public GraphBenchmark(long warmupMillis, long measureMillis) {
+        warmupNanos = warmupMillis * 1_000_000L;
+        measureNanos = measureMillis * 1_000_000L;
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        allocations = (threads instanceof com.sun.management.ThreadMXBean)
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) threads : null;
+    }
+
+    private void runAll(Network network, String topology) throws IOException {
+        Town[] towns = network.towns();
+        Graph graph = network.toGraph(towns);
+        // Without the tree cache every query pays for its own search.
+        graph.setTreeCacheCapacity(0);
+        Random random = new Random(SEED);
+        int[] sources = new int[QUERY_COUNT];
+        int[] targets = new int[QUERY_COUNT];
+        int[] roads = new int[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            sources[i] = random.nextInt(network.size);
+            targets[i] = random.nextInt(network.size);
+            roads[i] = random.nextInt(network.roads);
+        }
+
+        report("ingest (per element)", topology, network,
+                measure(() -> network.toGraph(towns).getVersion(), network.size + network.roads));
+        report("getEdge", topology, network, measure(i -> {
+            int r = roads[i & (QUERY_COUNT - 1)];
+            return graph.getEdge(towns[network.from[r]], towns[network.to[r]]).getDistance();
+        }));
+        report("edgesOf", topology, network, measure(i -> graph.edgesOf(towns[sources[i & (QUERY_COUNT - 1)]]).size()));
+        report("dijkstraShortestPath", topology, network, measure(i -> {
+            graph.dijkstraShortestPath(towns[sources[i & (QUERY_COUNT - 1)]]);
+            return i;
+        }));
+        report("shortestPath", topology, network, measure(i -> {
+            int q = i & (QUERY_COUNT - 1);
+            return graph.shortestPath(towns[sources[q]], towns[targets[q]]).size();
+        }));
+
+        File file = File.createTempFile("roads", ".txt");
+        file.deleteOnExit();
+        network.write(file);
+        report("populateTownGraph (per road)", topology, network, measure(() -> {
+            TownGraphManager manager = new TownGraphManager();
+            try {
+                manager.populateTownGraph(file);
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException(e);
+            }
+            return manager.getLastLoadStatistics().getRoads();
+        }, network.roads));
+        file.delete();
+    }
+
+    /**
+     * A benchmarked operation; i counts the calls in the current run.
+     */
+    private interface Operation {
+        long run(int i);
+    }
+
+    /**
+     * A benchmarked operation that covers many elements in one call.
+     */
+    private interface BulkOperation {
+        long run();
+    }
+
+    /**
+     * Elapsed time, operation count and allocated bytes of a measurement.
+     */
+    private static class Measurement {
+        long nanos;
+        long operations;
+        long bytes = -1;
+    }
+
+    private Measurement measure(Operation operation) {
+        run(operation, warmupNanos, null);
+        Measurement result = new Measurement();
+        run(operation, measureNanos, result);
+        return result;
+    }
+
+    private Measurement measure(BulkOperation operation, int elements) {
+        Measurement result = measure(i -> operation.run());
+        result.operations *= elements;
+        return result;
+    }
+
+    private void run(Operation operation, long nanos, Measurement result) {
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = (allocations != null) ? allocations.getThreadAllocatedBytes(threadId) : 0;
+        long start = System.nanoTime();
+        long deadline = start + nanos;
+        long checksum = 0;
+        int calls = 0;
+        // Check the clock once per batch so timing calls do not dominate fast operations.
+        int batch = 1;
+        long now;
+        do {
+            for (int i = 0; i < batch; i++) {
+                checksum += operation.run(calls++);
+            }
+            now = System.nanoTime();
+            if (now - start < nanos / 100) batch = Math.min(batch * 2, 1 << 16);
+        } while (now < deadline);
+        sink += checksum;
+        if (result != null) {
+            result.nanos = now - start;
+            result.operations = calls;
+            if (allocations != null) result.bytes = allocations.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+    }
+
+    private static void report(String name, String topology, Network network, Measurement m) {
+        double opsPerSecond = m.operations * 1e9 / m.nanos;
+        double nanosPerOp = (double) m.nanos / m.operations;
+        String bytesPerOp = (m.bytes < 0) ? "n/a" : String.format("%.1f", (double) m.bytes / m.operations);
+        String allocationRate = (m.bytes < 0) ? "n/a" : String.format("%.1f", m.bytes * 1e9 / m.nanos / (1 << 20));
+        System.out.printf("%-28s %-10s %9d %14.1f %14.1f %12s %12s%n",
+                name, topology, network.size, opsPerSecond, nanosPerOp, bytesPerOp, allocationRate);
+    }
+
+    /**
+     * A seeded road network stored as an edge list.
+     */
+    static class Network {
+        final int size;
+        int roads;
+        int[] from = new int[16];
+        int[] to = new int[16];
+        int[] weights = new int[16];
+
+        Network(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Generates a network with RoadNetworkGenerator.
+         *
+         * @param topology a RoadNetworkGenerator.Topology name, in any case
+         * @param size the approximate number of towns
+         * @param seed the random seed
+         * @return the network
+         */
+        static Network generate(String topology, int size, long seed) {
+            RoadNetworkGenerator generator = new RoadNetworkGenerator(
+                    RoadNetworkGenerator.Topology.valueOf(topology.toUpperCase()), size, seed);
+            Network network = new Network(generator.townCount());
+            generator.generate((number, town1, town2, distance) -> network.add(town1, town2, distance));
+            return network;
+        }
+
+        void add(int a, int b, int weight) {
+            if (roads == from.length) {
+                from = Arrays.copyOf(from, roads * 2);
+                to = Arrays.copyOf(to, roads * 2);
+                weights = Arrays.copyOf(weights, roads * 2);
+            }
+            from[roads] = a;
+            to[roads] = b;
+            weights[roads++] = weight;
+        }
+
+        Town[] towns() {
+            Town[] towns = new Town[size];
+            for (int v = 0; v < size; v++) towns[v] = new Town("T" + v);
+            return towns;
+        }
+
+        Graph toGraph(Town[] towns) {
+            Graph graph = new Graph();
+            for (Town town : towns) graph.addVertex(town);
+            for (int r = 0; r < roads; r++) {
+                graph.addEdge(towns[from[r]], towns[to[r]], weights[r], "R" + r);
+            }
+            return graph;
+        }
+
+        void write(File file) throws IOException {
+            try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+                for (int r = 0; r < roads; r++) {
+                    out.println("R" + r + "," + weights[r] + ";T" + from[r] + ";T" + to[r]);
+                }
+            }
+        }
+    }
+}
@@ -66,4 +66,68 @@ public class Graph_STUDENT_Test {
         assertTrue(graph.removeVertex(town2));
         assertFalse(graph.containsVertex(town2));
     }
+
+    /**
+     * Tests that edgesOf and getEdge stay consistent after removing a vertex.
+     * Verifies that roads touching the removed town disappear from its neighbors.
+     */
+    @Test
+    public void testEdgesOfAfterRemoveVertex() {
+        graph.addVertex(town3);
+        graph.addEdge(town2, town3, 5, "Road_BC");
+        assertEquals(2, graph.edgesOf(town2).size());
+        assertNotNull(graph.getEdge(town3, town2));
+
+        graph.removeVertex(town1);
+        assertEquals(1, graph.edgesOf(town2).size());
+        assertNull(graph.getEdge(town2, town1));
+        assertEquals(1, graph.edgeSet().size());
+    }
+
+    /**
+     * Tests that queries without a cached tree do not build one, that queries
+     * from a source whose tree was computed reuse it, and that a road change
+     * keeps the cached tree up to date.
+     */
+    @Test
+    public void testShortestPathTreeCache() {
+        graph.addVertex(town3);
+        graph.addEdge(town2, town3, 5, "Road_BC");
+        assertEquals(2, graph.shortestPath(town1, town3).size());
+        assertEquals(0, graph.getTreeCacheMisses());
+        graph.dijkstraShortestPath(town1);
+        graph.shortestPath(town1, town2);
+        graph.shortestPath(town1, town3);
+        assertEquals(1, graph.getTreeCacheMisses());
+        assertEquals(2, graph.getTreeCacheHits());
+
+        // The cached tree is repaired rather than recomputed.
+        graph.addEdge(town1, town3, 1, "Road_AC");
+        ArrayList<String> path = graph.shortestPath(town1, town3);
+        assertEquals(1, graph.getTreeCacheMisses());
+        assertEquals(3, graph.getTreeCacheHits());
+        assertEquals(1, path.size());
+        assertEquals("A via Road_AC to C 1 mi", path.get(0));
+    }
+
+    /**
+     * Tests that the last road added between two towns replaces the existing
+     * road whichever way round it runs, in the road set too, so no stale road
+     * is left after it is removed.
+     */
+    @Test
+    public void testRepeatedRoadReplacesExisting() {
+        graph.addEdge(town2, town1, 5, "Road_BA");
+        assertEquals(1, graph.edgeSet().size());
+        assertEquals("Road_BA", graph.getEdge(town1, town2).getName());
+        graph.addEdge(town2, town1, 7, "Road_BA_again");
+        assertEquals(1, graph.edgeSet().size());
+        assertEquals("Road_BA_again", graph.getEdge(town1, town2).getName());
+
+        graph.removeEdge(town1, town2, 7, "Road_BA_again");
+        assertTrue(graph.edgeSet().isEmpty());
+        graph.removeVertex(town1);
+        assertTrue(graph.edgeSet().isEmpty());
+        assertTrue(graph.edgesOf(town2).isEmpty());
+    }
 }
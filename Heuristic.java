@@ -0,0 +1,20 @@
+/**
+ * Estimates the remaining distance between two vertices for A* search.
+ * An estimate must never exceed the true shortest distance (admissible),
+ * and should satisfy the triangle inequality along every road (consistent),
+ * otherwise A* may return a longer path than Dijkstra.
+ * 
+ * Author: Your Name
+ *
+ * @param <V> the vertex type
+ */
+public interface Heuristic<V> {
+    /**
+     * Returns a lower bound on the shortest distance between two vertices.
+     *
+     * @param from the vertex being considered
+     * @param to the destination vertex
+     * @return a lower bound on the distance, 0 if nothing is known
+     */
+    int estimate(V from, V to);
+}
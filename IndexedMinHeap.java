@@ -0,0 +1,166 @@
+import java.util.Arrays;
+
+/**
+ * A binary min-heap over int ids with int keys that supports decrease-key.
+ * Each id can be in the heap at most once; a position index maps ids to their
+ * slot so a key can be lowered in place instead of inserting a duplicate.
+ *
+ * All storage is primitive and grows only when a larger id range is needed,
+ * so a heap reused across queries does not allocate.
+ *
+ * Author: Your Name
+ */
+public class IndexedMinHeap {
+    private static final int ABSENT = -1;
+
+    private int[] heap;
+    private int[] keys;
+    private int[] positions;
+    private int size;
+
+    /**
+     * Constructs an empty heap for ids in the range [0, capacity).
+     *
+     * @param capacity the number of ids the heap can hold
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        keys = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Makes sure ids in the range [0, capacity) can be stored.
+     * The heap must be empty when it is grown.
+     *
+     * @param capacity the number of ids the heap must hold
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= positions.length) return;
+        int newCapacity = Math.max(capacity, positions.length * 2);
+        heap = new int[newCapacity];
+        keys = new int[newCapacity];
+        positions = new int[newCapacity];
+        Arrays.fill(positions, ABSENT);
+        size = 0;
+    }
+
+    /**
+     * Checks whether the heap has no entries.
+     *
+     * @return true if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of entries in the heap.
+     *
+     * @return the heap size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether an id is currently in the heap.
+     *
+     * @param id the id to check
+     * @return true if the id is queued
+     */
+    public boolean contains(int id) {
+        return positions[id] != ABSENT;
+    }
+
+    /**
+     * Inserts an id with the given key, or lowers its key if it is already queued
+     * with a larger one. A larger key for a queued id is ignored.
+     *
+     * @param id the id to insert or update
+     * @param key the new key
+     */
+    public void insertOrDecrease(int id, int key) {
+        int position = positions[id];
+        if (position == ABSENT) {
+            position = size++;
+            heap[position] = id;
+            positions[id] = position;
+        } else if (key >= keys[id]) {
+            return;
+        }
+        keys[id] = key;
+        siftUp(position);
+    }
+
+    /**
+     * Returns the smallest key in the heap without removing it.
+     *
+     * @return the minimum key
+     */
+    public int peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the id with the smallest key.
+     *
+     * @return the id with the minimum key
+     */
+    public int poll() {
+        int top = heap[0];
+        positions[top] = ABSENT;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            positions[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every entry. Only the queued ids are touched, so clearing costs
+     * O(size) rather than O(capacity).
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int id = heap[position];
+        int key = keys[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) break;
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        int id = heap[position];
+        int key = keys[id];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) child++;
+            int childId = heap[child];
+            if (key <= keys[childId]) break;
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
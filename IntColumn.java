@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+/**
+ * Growable column of ints, the storage behind ArrayGraph and NamePool.
+ *
+ * An IntColumn keeps its values in an int array on the heap. The OffHeap
+ * subclass keeps them in a ChunkedBuffer in direct memory instead, so the
+ * same graph code runs on either. A program that only builds heap columns
+ * never loads OffHeap, and the JIT then compiles every column access to a
+ * plain array access.
+ *
+ * Author: Your Name
+ */
+public class IntColumn {
+    private int[] values;
+
+    /**
+     * Constructs a heap column of zeros.
+     *
+     * @param capacity the number of values to make room for
+     */
+    public IntColumn(int capacity) {
+        values = new int[capacity];
+    }
+
+    /**
+     * Constructs a column of zeros on or off the heap.
+     *
+     * @param offHeap true to keep the values in direct memory
+     * @param capacity the number of values to make room for
+     * @return the new column
+     */
+    public static IntColumn create(boolean offHeap, int capacity) {
+        return offHeap ? new OffHeap(capacity) : new IntColumn(capacity);
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @param index the index of the value
+     * @return the value
+     */
+    public int get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Writes a value.
+     *
+     * @param index the index of the value
+     * @param value the new value
+     */
+    public void set(int index, int value) {
+        values[index] = value;
+    }
+
+    /**
+     * Makes room for at least the given number of values. New values are zero.
+     *
+     * @param capacity the number of values needed
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, values.length * 3L / 2)));
+        }
+    }
+
+    /**
+     * Shrinks the column to the given number of values.
+     *
+     * @param size the number of values to keep
+     */
+    public void trimToSize(int size) {
+        if (size < values.length) values = Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the memory the column takes, on or off the heap.
+     *
+     * @return the size in bytes
+     */
+    public long estimatedBytes() {
+        return 4L * values.length;
+    }
+
+    /**
+     * Sets a range of values.
+     *
+     * @param from the first index
+     * @param to the index after the last
+     * @param value the value
+     */
+    public void fill(int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            set(i, value);
+        }
+    }
+
+    /**
+     * An IntColumn kept in direct memory.
+     */
+    public static class OffHeap extends IntColumn {
+        private final ChunkedBuffer buffer;
+
+        /**
+         * Constructs an off-heap column of zeros.
+         *
+         * @param capacity the number of values to make room for
+         */
+        public OffHeap(int capacity) {
+            super(0);
+            buffer = new ChunkedBuffer(4L * capacity);
+        }
+
+        @Override
+        public int get(int index) {
+            return buffer.getInt(index);
+        }
+
+        @Override
+        public void set(int index, int value) {
+            buffer.putInt(index, value);
+        }
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            buffer.ensureInts(capacity);
+        }
+
+        @Override
+        public void trimToSize(int size) {
+            buffer.trimToBytes(4L * size);
+        }
+
+        @Override
+        public long estimatedBytes() {
+            return buffer.capacityBytes();
+        }
+    }
+}
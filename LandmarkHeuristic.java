@@ -0,0 +1,260 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The ALT (A*, landmarks, triangle inequality) heuristic. Exact distances
+ * from a few landmark towns are precomputed; for any landmark L the triangle
+ * inequality gives |d(L, t) - d(L, v)| <= d(v, t), and the largest of these
+ * bounds is used as the estimate. On an undirected graph the bound is
+ * consistent, so A* with it returns the same distances as Dijkstra.
+ *
+ * Landmarks are picked by farthest-point selection: each new landmark is the
+ * town farthest from all landmarks chosen so far. The tables belong to one
+ * CompactTownGraph snapshot and can be saved to and loaded from a file.
+ *
+ * Author: Your Name
+ */
+public class LandmarkHeuristic implements Heuristic<Town> {
+    private static final int FILE_MAGIC = 0x414C5432; // "ALT2"
+
+    private final CompactTownGraph graph;
+    private final int[] landmarks;
+    private final int[][] distances;
+
+    private LandmarkHeuristic(CompactTownGraph graph, int[] landmarks, int[][] distances) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.distances = distances;
+    }
+
+    /**
+     * Chooses landmarks by farthest-point selection and computes their distance tables.
+     *
+     * @param graph the snapshot the tables are for
+     * @param count the number of landmarks to choose
+     * @return the LandmarkHeuristic
+     */
+    public static LandmarkHeuristic build(CompactTownGraph graph, int count) {
+        int n = graph.size();
+        count = Math.min(count, n);
+        int[] landmarks = new int[count];
+        int[][] distances = new int[count][n];
+        if (count == 0) return new LandmarkHeuristic(graph, landmarks, distances);
+
+        // The town farthest from an arbitrary start makes a good first landmark.
+        int[] closest = new int[n];
+        int[] ignoredArcs = new int[n];
+        graph.shortestPathTree(0, closest, ignoredArcs);
+        int next = farthest(closest, 0);
+
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = next;
+            graph.shortestPathTree(next, distances[i], ignoredArcs);
+            for (int v = 0; v < n; v++) {
+                closest[v] = (i == 0) ? distances[i][v] : Math.min(closest[v], distances[i][v]);
+            }
+            next = farthest(closest, next);
+        }
+        return new LandmarkHeuristic(graph, landmarks, distances);
+    }
+
+    /**
+     * Picks the reachable town with the largest value. Once every reachable town
+     * is covered, the first town that was never reached is picked instead so
+     * other components get landmarks too.
+     */
+    private static int farthest(int[] closest, int fallback) {
+        int best = CompactTownGraph.NONE;
+        int bestDistance = 0;
+        int unreached = CompactTownGraph.NONE;
+        for (int v = 0; v < closest.length; v++) {
+            if (closest[v] == CompactTownGraph.UNREACHABLE) {
+                if (unreached == CompactTownGraph.NONE) unreached = v;
+            } else if (closest[v] > bestDistance) {
+                best = v;
+                bestDistance = closest[v];
+            }
+        }
+        if (best != CompactTownGraph.NONE) return best;
+        return (unreached != CompactTownGraph.NONE) ? unreached : fallback;
+    }
+
+    /**
+     * Reads the saved roads of one town and checks that the town has exactly
+     * those roads in the snapshot. Arc order may differ between snapshots, so
+     * both lists are compared as sorted (target, distance) pairs.
+     */
+    private static boolean sameRoads(DataInputStream in, CompactTownGraph graph, int[] ids, int v) throws IOException {
+        int degree = in.readInt();
+        long[] saved = new long[degree];
+        for (int i = 0; i < degree; i++) {
+            saved[i] = arcKey(ids[in.readInt()], in.readInt());
+        }
+        if (degree != graph.endArc(v) - graph.firstArc(v)) return false;
+        long[] current = new long[degree];
+        for (int i = 0; i < degree; i++) {
+            int arc = graph.firstArc(v) + i;
+            current[i] = arcKey(graph.target(arc), graph.weight(arc));
+        }
+        Arrays.sort(saved);
+        Arrays.sort(current);
+        return Arrays.equals(saved, current);
+    }
+
+    private static long arcKey(int target, int weight) {
+        return ((long) target << 32) | (weight & 0xFFFFFFFFL);
+    }
+
+    private static long totalWeight(CompactTownGraph graph) {
+        long total = 0;
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            total += graph.weight(arc);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the snapshot the tables were computed on.
+     *
+     * @return the graph
+     */
+    public CompactTownGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of landmarks.
+     *
+     * @return the landmark count
+     */
+    public int landmarkCount() {
+        return landmarks.length;
+    }
+
+    /**
+     * Returns the town used as a landmark.
+     *
+     * @param i the landmark index
+     * @return the landmark Town
+     */
+    public Town landmark(int i) {
+        return graph.town(landmarks[i]);
+    }
+
+    /**
+     * Returns a lower bound on the distance between two towns of the snapshot.
+     *
+     * @param from the town id being considered
+     * @param to the destination town id
+     * @return the largest landmark lower bound, 0 if no landmark reaches both
+     */
+    public int estimate(int from, int to) {
+        int best = 0;
+        for (int[] table : distances) {
+            int a = table[from];
+            int b = table[to];
+            if (a == CompactTownGraph.UNREACHABLE || b == CompactTownGraph.UNREACHABLE) continue;
+            int bound = (a > b) ? a - b : b - a;
+            if (bound > best) best = bound;
+        }
+        return best;
+    }
+
+    /**
+     * Returns a lower bound on the distance between two towns.
+     *
+     * @param from the town being considered
+     * @param to the destination town
+     * @return the largest landmark lower bound, 0 if either town is unknown
+     */
+    @Override
+    public int estimate(Town from, Town to) {
+        int fromId = graph.idOf(from);
+        int toId = graph.idOf(to);
+        if (fromId == CompactTownGraph.NONE || toId == CompactTownGraph.NONE) return 0;
+        return estimate(fromId, toId);
+    }
+
+    /**
+     * Writes the landmark tables to a file. Towns are stored by name, and
+     * every road by its towns and distance, so the tables can be matched to
+     * a later snapshot of exactly the same graph.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(graph.size());
+            out.writeInt(graph.arcCount());
+            out.writeLong(totalWeight(graph));
+            out.writeInt(landmarks.length);
+            for (int v = 0; v < graph.size(); v++) {
+                out.writeUTF(graph.town(v).getName());
+            }
+            for (int v = 0; v < graph.size(); v++) {
+                out.writeInt(graph.endArc(v) - graph.firstArc(v));
+                for (int arc = graph.firstArc(v); arc < graph.endArc(v); arc++) {
+                    out.writeInt(graph.target(arc));
+                    out.writeInt(graph.weight(arc));
+                }
+            }
+            for (int i = 0; i < landmarks.length; i++) {
+                out.writeInt(landmarks[i]);
+                for (int d : distances[i]) {
+                    out.writeInt(d);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads landmark tables written by save() and maps them onto a snapshot.
+     * The tables are only used if every town has the same roads, to the same
+     * towns and of the same distances, as when they were saved; tables for a
+     * different graph could overestimate and make A* return wrong routes.
+     *
+     * @param file the file to read
+     * @param graph the snapshot the tables should describe
+     * @return the LandmarkHeuristic, or null if the file was written for a
+     *         graph with different towns or roads
+     * @throws IOException if the file cannot be read or is not a landmark file
+     */
+    public static LandmarkHeuristic load(File file, CompactTownGraph graph) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            int magic = in.readInt();
+            if (magic != FILE_MAGIC) throw new IOException("Not a landmark file: " + file);
+            int n = in.readInt();
+            int arcs = in.readInt();
+            long weight = in.readLong();
+            int count = in.readInt();
+            if (n != graph.size() || arcs != graph.arcCount() || weight != totalWeight(graph)) return null;
+
+            int[] ids = new int[n];
+            for (int v = 0; v < n; v++) {
+                ids[v] = graph.idOf(new Town(in.readUTF()));
+                if (ids[v] == CompactTownGraph.NONE) return null;
+            }
+            for (int v = 0; v < n; v++) {
+                if (!sameRoads(in, graph, ids, ids[v])) return null;
+            }
+            int[] landmarks = new int[count];
+            int[][] distances = new int[count][n];
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = ids[in.readInt()];
+                for (int v = 0; v < n; v++) {
+                    distances[i][ids[v]] = in.readInt();
+                }
+            }
+            return new LandmarkHeuristic(graph, landmarks, distances);
+        }
+    }
+}
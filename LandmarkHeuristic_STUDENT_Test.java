@@ -0,0 +1,147 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the LandmarkHeuristic class and
+ * A* routing, including exact distances, fewer settled towns than Dijkstra,
+ * and saving and loading the landmark tables.
+ * 
+ * It uses a 30 by 30 grid of towns with seeded random road lengths.
+ * 
+ * Author: Your Name
+ */
+public class LandmarkHeuristic_STUDENT_Test {
+    private static final int SIDE = 30;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Graph graph;
+    private CompactTownGraph snapshot;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates the grid and freezes it.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        Random random = new Random(3);
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                Town town = new Town(row + "_" + col);
+                graph.addVertex(town);
+                if (col > 0) graph.addEdge(new Town(row + "_" + (col - 1)), town, 5 + random.nextInt(10), "E" + row + "_" + col);
+                if (row > 0) graph.addEdge(new Town((row - 1) + "_" + col), town, 5 + random.nextInt(10), "S" + row + "_" + col);
+            }
+        }
+        snapshot = graph.freeze();
+    }
+
+    /**
+     * Tests that A* with landmarks finds the same distances as Dijkstra
+     * while settling fewer towns across the grid.
+     */
+    @Test
+    public void testAStarMatchesDijkstra() {
+        LandmarkHeuristic landmarks = LandmarkHeuristic.build(snapshot, 4);
+        DijkstraSearch dijkstra = new DijkstraSearch();
+        DijkstraSearch aStar = new DijkstraSearch();
+        Random random = new Random(11);
+        long dijkstraSettled = 0;
+        long aStarSettled = 0;
+        for (int i = 0; i < 50; i++) {
+            int source = random.nextInt(snapshot.size());
+            int destination = random.nextInt(snapshot.size());
+            int expected = dijkstra.runTo(snapshot, source, destination);
+            assertTrue(landmarks.estimate(source, destination) <= expected);
+            assertEquals(expected, aStar.runTo(snapshot, source, destination, landmarks));
+            dijkstraSettled += dijkstra.settledCount();
+            aStarSettled += aStar.settledCount();
+        }
+        assertTrue(aStarSettled < dijkstraSettled);
+    }
+
+    /**
+     * Tests that A_STAR routing through the graph returns Dijkstra's path length.
+     */
+    @Test
+    public void testGraphAStarRouting() {
+        Town from = new Town("0_0");
+        Town to = new Town((SIDE - 1) + "_" + (SIDE - 1));
+        assertEquals(totalMiles(graph.shortestPath(from, to)),
+                totalMiles(graph.shortestPath(from, to, RoutingAlgorithm.A_STAR)));
+    }
+
+    /**
+     * Tests that saved tables load back onto the same network and are
+     * rejected once a road changes.
+     */
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        File file = folder.newFile("landmarks.alt");
+        graph.saveLandmarks(file);
+        LandmarkHeuristic loaded = LandmarkHeuristic.load(file, snapshot);
+        assertNotNull(loaded);
+        assertEquals(CompactTownGraph.DEFAULT_LANDMARKS, loaded.landmarkCount());
+        assertEquals(snapshot.landmarks().estimate(0, snapshot.size() - 1), loaded.estimate(0, snapshot.size() - 1));
+
+        graph.removeEdge(new Town("0_0"), new Town("0_1"), 0, null);
+        assertFalse(graph.loadLandmarks(file));
+    }
+
+    /**
+     * Tests that tables are rejected for a graph with the same towns, road
+     * count and total distance but two road distances swapped.
+     */
+    @Test
+    public void testSwappedDistancesAreRejected() throws Exception {
+        File file = folder.newFile("landmarks.alt");
+        graph.saveLandmarks(file);
+        Town a = new Town("0_0");
+        Town b = new Town("0_1");
+        Town c = new Town("1_0");
+        Road ab = graph.getEdge(a, b);
+        Road ac = graph.getEdge(a, c);
+        assertNotEquals(ab.getDistance(), ac.getDistance());
+        graph.removeEdge(a, b, 0, null);
+        graph.removeEdge(a, c, 0, null);
+        graph.addEdge(a, b, ac.getDistance(), ab.getName());
+        graph.addEdge(a, c, ab.getDistance(), ac.getName());
+        assertEquals(snapshot.arcCount(), graph.freeze().arcCount());
+
+        assertNull(LandmarkHeuristic.load(file, graph.freeze()));
+        assertFalse(graph.loadLandmarks(file));
+    }
+
+    /**
+     * Tests that a file that is not a landmark file is reported.
+     */
+    @Test
+    public void testOtherFilesAreRejected() throws Exception {
+        File file = folder.newFile("roads.tgrf");
+        graph.exportBinary(file);
+        try {
+            LandmarkHeuristic.load(file, snapshot);
+            fail("Expected a format error");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("Not a landmark file"));
+        }
+    }
+
+    private int totalMiles(ArrayList<String> path) {
+        int total = 0;
+        for (String step : path) {
+            String[] words = step.split(" ");
+            total += Integer.parseInt(words[words.length - 2]);
+        }
+        return total;
+    }
+}
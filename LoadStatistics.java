@@ -0,0 +1,96 @@
+/**
+ * Size and timing figures for one bulk load of a road file.
+ * 
+ * Author: Your Name
+ */
+public class LoadStatistics {
+    private final long bytes;
+    private final int roads;
+    private final long parseNanos;
+    private final long insertNanos;
+
+    /**
+     * Constructs a LoadStatistics record.
+     *
+     * @param bytes the size of the file read
+     * @param roads the number of road lines loaded
+     * @param parseNanos time spent reading and parsing the file
+     * @param insertNanos time spent adding towns and roads to the graph
+     */
+    public LoadStatistics(long bytes, int roads, long parseNanos, long insertNanos) {
+        this.bytes = bytes;
+        this.roads = roads;
+        this.parseNanos = parseNanos;
+        this.insertNanos = insertNanos;
+    }
+
+    /**
+     * Gets the size of the file read.
+     *
+     * @return the byte count
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of road lines loaded.
+     *
+     * @return the road count
+     */
+    public int getRoads() {
+        return roads;
+    }
+
+    /**
+     * Gets the time spent reading and parsing the file.
+     *
+     * @return the parse time in nanoseconds
+     */
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    /**
+     * Gets the time spent adding towns and roads to the graph.
+     *
+     * @return the insert time in nanoseconds
+     */
+    public long getInsertNanos() {
+        return insertNanos;
+    }
+
+    /**
+     * Gets the overall throughput in megabytes (10^6 bytes) per second.
+     *
+     * @return the MB/s figure
+     */
+    public double megabytesPerSecond() {
+        return bytes / 1e6 / seconds();
+    }
+
+    /**
+     * Gets the overall throughput in roads per second.
+     *
+     * @return the roads/s figure
+     */
+    public double roadsPerSecond() {
+        return roads / seconds();
+    }
+
+    private double seconds() {
+        return Math.max(1, parseNanos + insertNanos) / 1e9;
+    }
+
+    /**
+     * Returns a one-line summary of the load.
+     *
+     * @return a string describing the load
+     */
+    @Override
+    public String toString() {
+        return String.format("%d roads, %d bytes in %.1f ms (parse %.1f ms, insert %.1f ms): %.1f MB/s, %.0f roads/s",
+                roads, bytes, (parseNanos + insertNanos) / 1e6, parseNanos / 1e6, insertNanos / 1e6,
+                megabytesPerSecond(), roadsPerSecond());
+    }
+}
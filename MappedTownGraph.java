@@ -0,0 +1,439 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A road network stored in a versioned binary file and read through a memory
+ * mapping. Queries run directly on the mapped bytes: Town objects and step
+ * strings are only created for the towns a caller actually asks about, so
+ * opening even a very large file costs little more than mapping it.
+ *
+ * File layout (big-endian, all sections follow a 64-byte header):
+ * <pre>
+ *   header:  magic, format version, town count, arc count, road count,
+ *            reserved (0), CRC32, body length
+ *   int[towns + 1]  town name offsets into the town name bytes
+ *   int[towns + 1]  arc offsets (CSR), arcs of town v are [offsets[v], offsets[v + 1])
+ *   int[arcs]       arc targets
+ *   int[arcs]       arc weights
+ *   int[arcs]       road index of each arc
+ *   int[roads + 1]  road name offsets into the road name bytes
+ *   byte[]          town names, UTF-8, sorted by byte value
+ *   byte[]          road names, UTF-8
+ * </pre>
+ * Town ids are positions in the sorted name table, so a name is found by
+ * binary search without building a hash index. The CRC32 covers the body
+ * followed by every header field but itself, and the section sizes the
+ * header gives must add up to the body length, so a damaged count is
+ * reported as an invalid file rather than read past.
+ *
+ * Author: Your Name
+ */
+public class MappedTownGraph implements RoutingGraph {
+    /** First four bytes of every graph file ("TGRF"). */
+    public static final int MAGIC = 0x54475246;
+
+    /** Format version written by this class. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+
+    private final ByteBuffer buffer;
+    private final int townCount;
+    private final int arcCount;
+    private final int roadCount;
+    private final IntBuffer townNameOffsets;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final IntBuffer arcRoads;
+    private final IntBuffer roadNameOffsets;
+    private final int townNamesStart;
+    private final int roadNamesStart;
+
+    private MappedTownGraph(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) throw new IOException("Not a graph file");
+        int version = buffer.getInt(4);
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported graph file version " + version);
+        townCount = buffer.getInt(8);
+        arcCount = buffer.getInt(12);
+        roadCount = buffer.getInt(16);
+        long bodyLength = buffer.capacity() - HEADER_BYTES;
+        if (buffer.getLong(32) != bodyLength) throw new IOException("Truncated graph file");
+        if (townCount < 0 || arcCount < 0 || roadCount < 0 || buffer.getInt(20) != 0) {
+            throw new IOException("Corrupt graph file header");
+        }
+        // In long arithmetic, so no count can wrap the layout around.
+        long tableBytes = 8L * (townCount + 1L) + 12L * arcCount + 4L * (roadCount + 1L);
+        if (tableBytes > bodyLength) throw new IOException("Graph file sections do not match its length");
+
+        int position = HEADER_BYTES;
+        townNameOffsets = ints(position, townCount + 1);
+        position += 4 * (townCount + 1);
+        offsets = ints(position, townCount + 1);
+        position += 4 * (townCount + 1);
+        targets = ints(position, arcCount);
+        position += 4 * arcCount;
+        weights = ints(position, arcCount);
+        position += 4 * arcCount;
+        arcRoads = ints(position, arcCount);
+        position += 4 * arcCount;
+        roadNameOffsets = ints(position, roadCount + 1);
+        position += 4 * (roadCount + 1);
+        int townNameBytes = townNameOffsets.get(townCount);
+        int roadNameBytes = roadNameOffsets.get(roadCount);
+        if (townNameBytes < 0 || roadNameBytes < 0 || tableBytes + townNameBytes + roadNameBytes != bodyLength) {
+            throw new IOException("Graph file sections do not match its length");
+        }
+        townNamesStart = position;
+        roadNamesStart = position + townNameBytes;
+    }
+
+    private IntBuffer ints(int position, int count) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(position).limit(position + 4 * count);
+        return view.slice().asIntBuffer();
+    }
+
+    /**
+     * Maps a graph file and checks its header and checksum.
+     *
+     * @param file the file to open
+     * @return the MappedTownGraph
+     * @throws IOException if the file cannot be read, is not a graph file,
+     *                     has an unsupported version or fails its checksum
+     */
+    public static MappedTownGraph open(File file) throws IOException {
+        return open(file, true);
+    }
+
+    /**
+     * Maps a graph file, optionally skipping the checksum pass over the body
+     * for the fastest possible start-up. The header is checked either way.
+     *
+     * @param file the file to open
+     * @param verifyChecksum whether to check the CRC32 of the body and header
+     * @return the MappedTownGraph
+     * @throws IOException if the file cannot be read or is not a valid graph file
+     */
+    public static MappedTownGraph open(File file, boolean verifyChecksum) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Graph files over 2 GB are not supported");
+            if (channel.size() < HEADER_BYTES) throw new IOException("Not a graph file");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            MappedTownGraph graph = new MappedTownGraph(buffer);
+            if (verifyChecksum) {
+                CRC32 crc = new CRC32();
+                ByteBuffer body = buffer.duplicate();
+                body.position(HEADER_BYTES);
+                crc.update(body);
+                byte[] header = new byte[HEADER_BYTES];
+                buffer.duplicate().position(0).get(header);
+                updateHeader(crc, header);
+                if (crc.getValue() != buffer.getLong(24)) throw new IOException("Graph file checksum mismatch");
+            }
+            return graph;
+        }
+    }
+
+    /** Adds every header field but the CRC32 itself to a checksum. */
+    private static void updateHeader(CRC32 crc, byte[] header) {
+        crc.update(header, 0, 24);
+        crc.update(header, 32, HEADER_BYTES - 32);
+    }
+
+    /**
+     * Writes a snapshot to a graph file.
+     *
+     * @param graph the snapshot to write
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(CompactTownGraph graph, File file) throws IOException {
+        int n = graph.size();
+        byte[][] names = new byte[n][];
+        Integer[] order = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            names[v] = graph.town(v).getName().getBytes(StandardCharsets.UTF_8);
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(names[a], names[b]));
+        int[] fileId = new int[n];
+        for (int i = 0; i < n; i++) {
+            fileId[order[i]] = i;
+        }
+
+        Map<Road, Integer> roadIds = new IdentityHashMap<>();
+        ArrayList<byte[]> roadNames = new ArrayList<>();
+        int[] arcRoads = new int[graph.arcCount()];
+        for (int arc = 0; arc < graph.arcCount(); arc++) {
+            Road road = graph.road(arc);
+            Integer id = roadIds.get(road);
+            if (id == null) {
+                id = roadNames.size();
+                roadIds.put(road, id);
+                roadNames.add(road.getName().getBytes(StandardCharsets.UTF_8));
+            }
+            arcRoads[arc] = id;
+        }
+
+        CRC32 crc = new CRC32();
+        long bodyLength;
+        try (FileOutputStream fileOut = new FileOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     new CheckedOutputStream(fileOut, crc), 1 << 16))) {
+            fileOut.write(new byte[HEADER_BYTES]); // filled in below
+
+            int nameOffset = 0;
+            out.writeInt(0);
+            for (int i = 0; i < n; i++) {
+                nameOffset += names[order[i]].length;
+                out.writeInt(nameOffset);
+            }
+            int arcOffset = 0;
+            out.writeInt(0);
+            for (int i = 0; i < n; i++) {
+                int v = order[i];
+                arcOffset += graph.endArc(v) - graph.firstArc(v);
+                out.writeInt(arcOffset);
+            }
+            for (int i = 0; i < n; i++) {
+                int v = order[i];
+                for (int arc = graph.firstArc(v); arc < graph.endArc(v); arc++) out.writeInt(fileId[graph.target(arc)]);
+            }
+            for (int i = 0; i < n; i++) {
+                int v = order[i];
+                for (int arc = graph.firstArc(v); arc < graph.endArc(v); arc++) out.writeInt(graph.weight(arc));
+            }
+            for (int i = 0; i < n; i++) {
+                int v = order[i];
+                for (int arc = graph.firstArc(v); arc < graph.endArc(v); arc++) out.writeInt(arcRoads[arc]);
+            }
+            int roadOffset = 0;
+            out.writeInt(0);
+            for (byte[] name : roadNames) {
+                roadOffset += name.length;
+                out.writeInt(roadOffset);
+            }
+            for (int i = 0; i < n; i++) {
+                out.write(names[order[i]]);
+            }
+            for (byte[] name : roadNames) {
+                out.write(name);
+            }
+            out.flush();
+            bodyLength = out.size();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(n).putInt(graph.arcCount()).putInt(roadNames.size())
+                .putInt(0).putLong(0).putLong(bodyLength);
+        updateHeader(crc, header.array());
+        header.putLong(24, crc.getValue());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write(header.array());
+        }
+    }
+
+    /**
+     * Returns the number of distinct roads in the file.
+     *
+     * @return the road count
+     */
+    public int roadCount() {
+        return roadCount;
+    }
+
+    /**
+     * Returns the number of directed arcs (two per road, one per self-loop).
+     *
+     * @return the arc count
+     */
+    public int arcCount() {
+        return arcCount;
+    }
+
+    @Override
+    public int size() {
+        return townCount;
+    }
+
+    @Override
+    public int firstArc(int v) {
+        return offsets.get(v);
+    }
+
+    @Override
+    public int endArc(int v) {
+        return offsets.get(v + 1);
+    }
+
+    @Override
+    public int target(int arc) {
+        return targets.get(arc);
+    }
+
+    @Override
+    public int weight(int arc) {
+        return weights.get(arc);
+    }
+
+    @Override
+    public int tail(int arc) {
+        // Binary search for the town whose arc range holds the arc.
+        int low = 0;
+        int high = townCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets.get(mid) <= arc) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    @Override
+    public Town town(int id) {
+        return new Town(townName(id));
+    }
+
+    /**
+     * Returns the name of a town without creating a Town object.
+     *
+     * @param id the town id
+     * @return the town name
+     */
+    public String townName(int id) {
+        int start = townNameOffsets.get(id);
+        return string(townNamesStart + start, townNameOffsets.get(id + 1) - start);
+    }
+
+    /**
+     * Returns the name of the road an arc belongs to.
+     *
+     * @param arc the arc index
+     * @return the road name
+     */
+    public String roadName(int arc) {
+        int road = arcRoads.get(arc);
+        int start = roadNameOffsets.get(road);
+        return string(roadNamesStart + start, roadNameOffsets.get(road + 1) - start);
+    }
+
+    private String string(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.duplicate().position(position).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Finds a town's id by binary search over the sorted name table.
+     *
+     * @param name the town name
+     * @return the town id, or NONE if there is no such town
+     */
+    public int idOf(String name) {
+        if (name == null) return CompactTownGraph.NONE;
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = townCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareName(mid, key);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        return CompactTownGraph.NONE;
+    }
+
+    private int compareName(int id, byte[] key) {
+        int start = townNamesStart + townNameOffsets.get(id);
+        int length = townNameOffsets.get(id + 1) - townNameOffsets.get(id);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+            if (cmp != 0) return cmp;
+        }
+        return length - key.length;
+    }
+
+    /**
+     * Returns a Road object for an arc, created from the mapped data.
+     *
+     * @param arc the arc index
+     * @return a new Road object
+     */
+    @Override
+    public Road road(int arc) {
+        return new Road(town(tail(arc)), town(target(arc)), weight(arc), roadName(arc));
+    }
+
+    /**
+     * Returns the name of the road directly connecting two towns.
+     *
+     * @param town1 the name of the first town
+     * @param town2 the name of the second town
+     * @return the road name if found, otherwise null
+     */
+    public String getRoad(String town1, String town2) {
+        int source = idOf(town1);
+        int destination = idOf(town2);
+        if (source == CompactTownGraph.NONE || destination == CompactTownGraph.NONE) return null;
+        for (int arc = firstArc(source); arc < endArc(source); arc++) {
+            if (target(arc) == destination) return roadName(arc);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the shortest path between two towns, computed on the mapped data.
+     *
+     * @param town1 the name of the starting town
+     * @param town2 the name of the destination town
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> getPath(String town1, String town2) {
+        int source = idOf(town1);
+        int destination = idOf(town2);
+        if (source == CompactTownGraph.NONE || destination == CompactTownGraph.NONE) return new ArrayList<>();
+        DijkstraSearch search = DijkstraSearch.forCurrentThread();
+        search.runTo(this, source, destination);
+        return search.describePath(destination);
+    }
+
+    /**
+     * Adds every town and road in the file to a graph.
+     *
+     * @param graph the graph receiving the towns and roads
+     */
+    public void copyInto(Graph graph) {
+        Town[] towns = new Town[townCount];
+        for (int v = 0; v < townCount; v++) {
+            towns[v] = new Town(townName(v));
+            graph.addVertex(towns[v]);
+        }
+        for (int v = 0; v < townCount; v++) {
+            for (int arc = firstArc(v); arc < endArc(v); arc++) {
+                int w = target(arc);
+                if (w >= v) {
+                    graph.addEdge(towns[v], towns[w], weight(arc), roadName(arc));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+/**
+ * This class tests the functionality of the MappedTownGraph class,
+ * including writing and mapping a graph file, answering queries from the
+ * mapping, importing it back, and rejecting damaged files.
+ * 
+ * Author: Your Name
+ */
+public class MappedTownGraph_STUDENT_Test {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TownGraphManager manager;
+    private File file;
+
+    /**
+     * Sets up the test environment before each test.
+     * Builds a small network with an isolated town and exports it.
+     */
+    @Before
+    public void setUp() throws IOException {
+        manager = new TownGraphManager();
+        manager.addRoad("Rockville", "Bethesda", 7, "Route 355");
+        manager.addRoad("Bethesda", "Silver Spring", 8, "Route 410");
+        manager.addRoad("Rockville", "Silver Spring", 20, "Norbeck Road");
+        manager.addRoad("Z\u00fcrich", "Rockville", 4000, "Atlantic Ferry");
+        manager.addTown("Annapolis");
+        file = folder.newFile("roads.tgrf");
+        manager.exportGraph(file);
+    }
+
+    /**
+     * Tests that queries on the mapped file match the in-memory manager.
+     */
+    @Test
+    public void testQueriesOnMappedFile() throws IOException {
+        MappedTownGraph mapped = MappedTownGraph.open(file);
+        assertEquals(5, mapped.size());
+        assertEquals(4, mapped.roadCount());
+        assertEquals(CompactTownGraph.NONE, mapped.idOf("Baltimore"));
+        assertEquals("Z\u00fcrich", mapped.townName(mapped.idOf("Z\u00fcrich")));
+        assertEquals("Route 410", mapped.getRoad("Silver Spring", "Bethesda"));
+        assertNull(mapped.getRoad("Annapolis", "Bethesda"));
+        assertEquals(manager.getPath("Z\u00fcrich", "Silver Spring"), mapped.getPath("Z\u00fcrich", "Silver Spring"));
+        assertTrue(mapped.getPath("Annapolis", "Rockville").isEmpty());
+    }
+
+    /**
+     * Tests that importing the file rebuilds the same towns and roads.
+     */
+    @Test
+    public void testImportRoundTrip() throws IOException {
+        TownGraphManager copy = new TownGraphManager();
+        copy.importGraph(file);
+        assertEquals(manager.allTowns(), copy.allTowns());
+        assertEquals(manager.allRoads(), copy.allRoads());
+        assertEquals("Norbeck Road", copy.getRoad("Silver Spring", "Rockville"));
+    }
+
+    /**
+     * Tests that a flipped byte or a wrong version is reported.
+     */
+    @Test
+    public void testDamagedFilesAreRejected() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 1);
+            int last = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(last ^ 1);
+        }
+        try {
+            MappedTownGraph.open(file);
+            fail("Expected a checksum error");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("checksum"));
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(4);
+            raf.writeInt(MappedTownGraph.FORMAT_VERSION + 1);
+        }
+        try {
+            MappedTownGraph.open(file, false);
+            fail("Expected a version error");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("version"));
+        }
+    }
+
+    /**
+     * Tests that every single flipped header bit is reported as an invalid
+     * file, with or without the checksum pass, and never read past.
+     */
+    @Test
+    public void testDamagedHeadersAreRejected() throws IOException {
+        File damaged = folder.newFile("damaged.tgrf");
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        for (int bit = 0; bit < 8 * 64; bit++) {
+            bytes[bit / 8] ^= 1 << (bit % 8);
+            Files.write(damaged.toPath(), bytes);
+            bytes[bit / 8] ^= 1 << (bit % 8);
+            try {
+                MappedTownGraph.open(damaged);
+                fail("Header bit " + bit + " was not detected");
+            } catch (IOException expected) {
+                // Expected
+            }
+            // Without the checksum only the counts and layout are checked.
+            if (bit >= 64 && bit < 192) {
+                try {
+                    MappedTownGraph.open(damaged, false);
+                    fail("Header bit " + bit + " was not detected without the checksum");
+                } catch (IOException expected) {
+                    // Expected
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+/**
+ * Receives the routing metrics when RoutingMetrics.report() is called, for
+ * example to log them or forward them to a monitoring system. Call report()
+ * from a scheduled task to report at a fixed interval.
+ * 
+ * Author: Your Name
+ */
+public interface MetricsReporter {
+    /**
+     * Reports the current metrics. Reporters run on the thread calling
+     * report() and should not block it for long.
+     *
+     * @param metrics the metrics to read
+     */
+    void report(RoutingMetrics metrics);
+}
@@ -0,0 +1,143 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * The minimum spanning forest of a road network: the shortest set of roads
+ * that keeps every pair of connected towns connected. On a connected network
+ * it is a minimum spanning tree of n - 1 roads; otherwise it holds one tree
+ * per connected component.
+ *
+ * The forest is found with Kruskal's algorithm over primitive arrays. Every
+ * road becomes one long key, its distance in the high half and its arc in
+ * the low half, written in parallel, one task per range of towns. The keys are
+ * sorted with Arrays.parallelSort, which orders them by distance like
+ * Road.compareTo, with the arc breaking ties. A single pass over the sorted
+ * keys then keeps each road whose towns a union-find over town ids does not
+ * connect yet, and stops as soon as the forest is complete. No Road objects
+ * are created until roads() asks for them, so networks of millions of roads
+ * take a few seconds, most of it in the parallel sort.
+ *
+ * Author: Your Name
+ */
+public class MinimumSpanningForest {
+    private final RoutingGraph graph;
+    private final int[] arcs;
+    private final long totalDistance;
+    private final int treeCount;
+
+    /**
+     * Computes the minimum spanning forest of a routing graph.
+     *
+     * @param graph the snapshot to span
+     */
+    public MinimumSpanningForest(RoutingGraph graph) {
+        this.graph = graph;
+        int n = graph.size();
+        long[] keys = sortedRoadKeys(graph);
+
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+        }
+        int[] chosen = new int[Math.max(0, n - 1)];
+        int count = 0;
+        long total = 0;
+        for (int i = 0; i < keys.length && count < n - 1; i++) {
+            int arc = (int) keys[i];
+            int a = find(parent, graph.tail(arc));
+            int b = find(parent, graph.target(arc));
+            if (a != b) {
+                parent[a] = b;
+                chosen[count++] = arc;
+                total += keys[i] >> 32;
+            }
+        }
+        arcs = Arrays.copyOf(chosen, count);
+        totalDistance = total;
+        treeCount = n - count;
+    }
+
+    /**
+     * Packs each road once, from its lower-numbered town, as distance and arc,
+     * and sorts the keys.
+     */
+    private static long[] sortedRoadKeys(RoutingGraph graph) {
+        int n = graph.size();
+        int[] counts = new int[n + 1];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            for (int arc = graph.firstArc(v), end = graph.endArc(v); arc < end; arc++) {
+                if (graph.target(arc) > v) counts[v + 1]++;
+            }
+        });
+        Arrays.parallelPrefix(counts, Integer::sum);
+        long[] keys = new long[counts[n]];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int next = counts[v];
+            for (int arc = graph.firstArc(v), end = graph.endArc(v); arc < end; arc++) {
+                if (graph.target(arc) > v) keys[next++] = ((long) graph.weight(arc) << 32) | arc;
+            }
+        });
+        Arrays.parallelSort(keys);
+        return keys;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Returns the roads of the forest, shortest first.
+     *
+     * @return a new list of the chosen roads
+     */
+    public List<Road> roads() {
+        List<Road> roads = new ArrayList<>(arcs.length);
+        for (int arc : arcs) {
+            roads.add(graph.road(arc));
+        }
+        return roads;
+    }
+
+    /**
+     * Returns the number of roads in the forest.
+     *
+     * @return the road count, the town count minus treeCount()
+     */
+    public int roadCount() {
+        return arcs.length;
+    }
+
+    /**
+     * Returns the arcs of the chosen roads in the spanned graph, shortest first.
+     *
+     * @return a copy of the arc indexes
+     */
+    public int[] arcs() {
+        return arcs.clone();
+    }
+
+    /**
+     * Returns the sum of the distances of the roads in the forest.
+     *
+     * @return the total distance
+     */
+    public long totalDistance() {
+        return totalDistance;
+    }
+
+    /**
+     * Returns the number of trees in the forest, which is the number of
+     * connected components, counting every isolated town as one.
+     *
+     * @return the tree count, 1 for a connected network
+     */
+    public int treeCount() {
+        return treeCount;
+    }
+}
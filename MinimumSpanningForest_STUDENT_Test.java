@@ -0,0 +1,114 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class tests the functionality of the MinimumSpanningForest class,
+ * comparing it with a simple Prim's algorithm on random networks.
+ *
+ * Author: Your Name
+ */
+public class MinimumSpanningForest_STUDENT_Test {
+    private TownGraphManager manager;
+
+    /**
+     * Sets up the test environment before each test.
+     * Builds a square with a diagonal and a separate pair of towns.
+     */
+    @Before
+    public void setUp() {
+        manager = new TownGraphManager();
+        manager.addRoad("A", "B", 4, "AB");
+        manager.addRoad("B", "C", 2, "BC");
+        manager.addRoad("C", "D", 5, "CD");
+        manager.addRoad("D", "A", 1, "DA");
+        manager.addRoad("A", "C", 3, "AC");
+        manager.addRoad("X", "Y", 9, "XY");
+        manager.addTown("Lonely");
+    }
+
+    /**
+     * Tests the chosen roads, their order, the total and the tree count.
+     */
+    @Test
+    public void testSmallForest() {
+        MinimumSpanningForest forest = manager.minimumSpanningForest();
+        List<String> names = new ArrayList<>();
+        for (Road road : forest.roads()) {
+            names.add(road.getName());
+        }
+        assertEquals(List.of("DA", "BC", "AC", "XY"), names);
+        assertEquals(15, forest.totalDistance());
+        assertEquals(4, forest.roadCount());
+        assertEquals(3, forest.treeCount());
+        List<Road> sorted = new ArrayList<>(forest.roads());
+        Collections.sort(sorted);
+        assertEquals(forest.roads(), sorted);
+    }
+
+    /**
+     * Tests the total against Prim's algorithm on random networks, and that
+     * the forest connects every town the network connects.
+     */
+    @Test
+    public void testMatchesPrim() {
+        Random random = new Random(8);
+        for (int round = 0; round < 20; round++) {
+            Graph network = new Graph();
+            Town[] towns = new Town[20 + random.nextInt(80)];
+            for (int i = 0; i < towns.length; i++) {
+                towns[i] = new Town("T" + i);
+                network.addVertex(towns[i]);
+            }
+            for (int i = 0; i < towns.length * 2; i++) {
+                network.addEdge(towns[random.nextInt(towns.length)], towns[random.nextInt(towns.length)],
+                        random.nextInt(50), "R" + i);
+            }
+            MinimumSpanningForest forest = network.minimumSpanningForest();
+            assertEquals(prim(network.freeze()), forest.totalDistance());
+
+            ConnectedComponents spanned = new ConnectedComponents();
+            for (Town town : towns) {
+                spanned.addTown(town);
+            }
+            for (Road road : forest.roads()) {
+                spanned.addRoad(road.getSource(), road.getDestination());
+            }
+            for (Town town : towns) {
+                assertEquals(network.isReachable(towns[0], town), spanned.connected(towns[0], town));
+            }
+            assertEquals(network.components().componentCount(), forest.treeCount());
+        }
+    }
+
+    private static long prim(CompactTownGraph graph) {
+        int n = graph.size();
+        boolean[] done = new boolean[n];
+        int[] best = new int[n];
+        Arrays.fill(best, Integer.MAX_VALUE);
+        long total = 0;
+        for (int root = 0; root < n; root++) {
+            if (done[root]) continue;
+            best[root] = 0;
+            while (true) {
+                int u = -1;
+                for (int v = 0; v < n; v++) {
+                    if (!done[v] && best[v] != Integer.MAX_VALUE && (u < 0 || best[v] < best[u])) u = v;
+                }
+                if (u < 0) break;
+                done[u] = true;
+                total += best[u];
+                for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                    int v = graph.target(arc);
+                    if (!done[v] && graph.weight(arc) < best[v]) best[v] = graph.weight(arc);
+                }
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,517 @@
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of graph changes with snapshots, so that the edits made to a
+ * TownGraphManager at run time survive a restart.
+ *
+ * A log is a directory. Every change made through a manager the log is
+ * attached to is appended as one record, numbered by a log sequence number
+ * (LSN). From time to time the whole graph is written as a snapshot in the
+ * binary graph file format of MappedTownGraph, named after the LSN of the
+ * last change it contains, and the records it covers are deleted.
+ * TownGraphManager.recover loads the newest snapshot and replays only the
+ * records after it.
+ *
+ * Records are written with group commit. Appending only encodes a record
+ * into a memory buffer; sync writes out everything buffered so far and calls
+ * fsync once, so the threads waiting at the same time share one fsync. With
+ * a sync interval of 0 every change is on disk when its call returns. With a
+ * positive interval a background thread syncs at that period instead, and
+ * changes return at memory speed; a crash then loses at most the last
+ * interval of changes. Snapshots are written on a background thread from an
+ * immutable CompactTownGraph, so the graph stays usable meanwhile.
+ *
+ * Files in the directory:
+ * <pre>
+ *   snapshot-LSN.tgrf  a graph file holding every change up to LSN
+ *   log-LSN.wal        a log segment whose first record is LSN
+ * </pre>
+ * A record is an int body length, the CRC32 of the body, and the body: long
+ * LSN, byte kind, town name, second town name, int distance, road name. A
+ * name is an int byte count, -1 for none, and its UTF-8 bytes. A record cut
+ * short by a crash at the end of the newest segment is dropped on open.
+ *
+ * Author: Your Name
+ */
+public class MutationLog implements Closeable {
+    /** Number of changes between automatic snapshots by default. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".tgrf";
+    private static final String SEGMENT_PREFIX = "log-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int RECORD_HEADER_BYTES = 8;
+
+    private final File directory;
+    private final long syncIntervalMillis;
+    private final int snapshotInterval;
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(MutationLog::daemon);
+    private final ScheduledExecutorService syncer;
+
+    // Guarded by appendLock.
+    private final Object appendLock = new Object();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final DataOutputStream bodyOut = new DataOutputStream(body);
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    private final CRC32 crc = new CRC32();
+    private long lastLsn;
+    private long segmentStartLsn;
+    private FileChannel segment;
+
+    // Guarded by syncLock; sync takes appendLock inside it, never the reverse.
+    private final Object syncLock = new Object();
+    private volatile long durableLsn;
+    private volatile IOException failure;
+    private long syncCount;
+
+    private volatile long snapshotLsn;
+    private Future<File> snapshotInProgress;
+    private File recoveredSnapshot;
+    private List<GraphBatch.Mutation> recoveredTail;
+    private boolean closed;
+
+    private MutationLog(File directory, long syncIntervalMillis, int snapshotInterval) throws IOException {
+        if (syncIntervalMillis < 0 || snapshotInterval <= 0) throw new IllegalArgumentException();
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+        this.directory = directory;
+        this.syncIntervalMillis = syncIntervalMillis;
+        this.snapshotInterval = snapshotInterval;
+        recover();
+        if (syncIntervalMillis > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(MutationLog::daemon);
+            syncer.scheduleWithFixedDelay(this::backgroundSync, syncIntervalMillis, syncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            syncer = null;
+        }
+    }
+
+    /**
+     * Opens or creates a log that makes every change durable before its call
+     * returns and snapshots every DEFAULT_SNAPSHOT_INTERVAL changes.
+     *
+     * @param directory the log directory
+     * @return the MutationLog
+     * @throws IOException if the directory cannot be read or holds a damaged log
+     */
+    public static MutationLog open(File directory) throws IOException {
+        return open(directory, 0, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens or creates a log with a custom sync interval and snapshot interval.
+     *
+     * @param directory the log directory
+     * @param syncIntervalMillis 0 to sync before every change returns, or the
+     *                           period of background syncs
+     * @param snapshotInterval the number of changes between automatic snapshots
+     * @return the MutationLog
+     * @throws IOException if the directory cannot be read or holds a damaged log
+     */
+    public static MutationLog open(File directory, long syncIntervalMillis, int snapshotInterval) throws IOException {
+        return new MutationLog(directory, syncIntervalMillis, snapshotInterval);
+    }
+
+    private static Thread daemon(Runnable task) {
+        Thread thread = new Thread(task, "mutation-log");
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // -------------- RECOVERY SECTION ---------------
+
+    /**
+     * Finds the newest snapshot, deletes what it makes obsolete, reads the
+     * records after it and reopens the newest segment for appending.
+     */
+    private void recover() throws IOException {
+        TreeMap<Long, File> snapshots = files(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        TreeMap<Long, File> segments = files(SEGMENT_PREFIX, SEGMENT_SUFFIX);
+        snapshotLsn = snapshots.isEmpty() ? 0 : snapshots.lastKey();
+        recoveredSnapshot = snapshots.isEmpty() ? null : snapshots.lastEntry().getValue();
+        for (File old : snapshots.headMap(snapshotLsn).values()) Files.deleteIfExists(old.toPath());
+        // Segments are started right after the LSN of a snapshot, so one that
+        // starts at or before the newest snapshot holds only covered records.
+        for (File old : segments.headMap(snapshotLsn, true).values()) Files.deleteIfExists(old.toPath());
+        segments = new TreeMap<>(segments.tailMap(snapshotLsn, false));
+
+        recoveredTail = new ArrayList<>();
+        lastLsn = snapshotLsn;
+        for (File file : segments.values()) {
+            boolean newest = file.equals(segments.lastEntry().getValue());
+            readSegment(file, newest);
+        }
+        durableLsn = lastLsn;
+        if (segments.isEmpty()) {
+            openSegment(lastLsn + 1);
+        } else {
+            segmentStartLsn = segments.lastKey();
+            segment = FileChannel.open(segments.lastEntry().getValue().toPath(), StandardOpenOption.WRITE);
+            segment.position(segment.size());
+        }
+    }
+
+    private void readSegment(File file, boolean newest) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        while (bytes.hasRemaining()) {
+            int start = bytes.position();
+            GraphBatch.Mutation mutation = readRecord(bytes);
+            if (mutation == null) {
+                if (!newest) throw new IOException("Damaged mutation log segment " + file);
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+                    channel.truncate(start);
+                    channel.force(true);
+                }
+                return;
+            }
+            recoveredTail.add(mutation);
+        }
+    }
+
+    /**
+     * Decodes the record at the buffer position and sets lastLsn to its LSN.
+     *
+     * @return the change, or null if the record is incomplete or damaged
+     */
+    private GraphBatch.Mutation readRecord(ByteBuffer bytes) {
+        if (bytes.remaining() < RECORD_HEADER_BYTES) return null;
+        int length = bytes.getInt();
+        int checksum = bytes.getInt();
+        if (length < 0 || length > bytes.remaining()) return null;
+        crc.reset();
+        crc.update(bytes.array(), bytes.position(), length);
+        if ((int) crc.getValue() != checksum) return null;
+        lastLsn = bytes.getLong();
+        GraphBatch.Kind kind = GraphBatch.Kind.values()[bytes.get()];
+        String town1 = readName(bytes);
+        String town2 = readName(bytes);
+        int distance = bytes.getInt();
+        String roadName = readName(bytes);
+        return new GraphBatch.Mutation(kind, town1, town2, distance, roadName);
+    }
+
+    private static String readName(ByteBuffer bytes) {
+        int length = bytes.getInt();
+        if (length < 0) return null;
+        String name = new String(bytes.array(), bytes.position(), length, StandardCharsets.UTF_8);
+        bytes.position(bytes.position() + length);
+        return name;
+    }
+
+    private TreeMap<Long, File> files(String prefix, String suffix) throws IOException {
+        TreeMap<Long, File> files = new TreeMap<>();
+        File[] listed = directory.listFiles();
+        if (listed == null) throw new IOException("Cannot list " + directory);
+        for (File file : listed) {
+            String name = file.getName();
+            if (name.endsWith(TEMPORARY_SUFFIX)) {
+                Files.deleteIfExists(file.toPath()); // an interrupted snapshot
+            } else if (name.startsWith(prefix) && name.endsWith(suffix)) {
+                files.put(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())), file);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Returns the newest snapshot found when the log was opened.
+     *
+     * @return the snapshot file, or null if there is none
+     */
+    File recoveredSnapshot() {
+        return recoveredSnapshot;
+    }
+
+    /**
+     * Adds the changes logged after the recovered snapshot to a batch, once.
+     *
+     * @param batch the batch to replay into
+     * @return the number of changes added
+     */
+    int replayInto(GraphBatch batch) {
+        List<GraphBatch.Mutation> tail = recoveredTail;
+        if (tail == null) throw new IllegalStateException("The log was already replayed");
+        recoveredTail = null;
+        for (GraphBatch.Mutation mutation : tail) batch.record(mutation);
+        return tail.size();
+    }
+
+    // -------------- APPEND SECTION ---------------
+
+    /**
+     * Appends a change to the log buffer. It is on disk after the next sync.
+     *
+     * @param mutation the change
+     * @return the LSN of its record
+     */
+    long append(GraphBatch.Mutation mutation) {
+        synchronized (appendLock) {
+            if (closed) throw new IllegalStateException("The log is closed");
+            long lsn = lastLsn + 1;
+            try {
+                body.reset();
+                bodyOut.writeLong(lsn);
+                bodyOut.writeByte(mutation.kind.ordinal());
+                writeName(mutation.town1);
+                writeName(mutation.town2);
+                bodyOut.writeInt(mutation.distance);
+                writeName(mutation.roadName);
+                byte[] bytes = body.toByteArray();
+                crc.reset();
+                crc.update(bytes);
+                pendingOut.writeInt(bytes.length);
+                pendingOut.writeInt((int) crc.getValue());
+                pendingOut.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // not thrown by memory streams
+            }
+            return lastLsn = lsn;
+        }
+    }
+
+    private void writeName(String name) throws IOException {
+        if (name == null) {
+            bodyOut.writeInt(-1);
+        } else {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            bodyOut.writeInt(bytes.length);
+            bodyOut.write(bytes);
+        }
+    }
+
+    /**
+     * Waits until a record is durable if the log syncs on every change, and
+     * returns at once if it syncs in the background.
+     *
+     * @param lsn the LSN of the record
+     * @throws UncheckedIOException if the log could not be written
+     */
+    void commit(long lsn) {
+        try {
+            if (syncIntervalMillis == 0) {
+                sync(lsn);
+            } else if (failure != null) {
+                throw failure;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes every record up to an LSN durable. Records appended by other
+     * threads by then are written with the same fsync.
+     *
+     * @param lsn the LSN to wait for
+     * @throws IOException if the log could not be written
+     */
+    public void sync(long lsn) throws IOException {
+        if (failure != null) throw failure;
+        if (durableLsn >= lsn) return;
+        synchronized (syncLock) {
+            if (durableLsn < lsn) flush();
+        }
+    }
+
+    /**
+     * Writes out the buffer and fsyncs the segment. Called holding syncLock.
+     * After a failed write the log refuses further syncs, since the records
+     * that were lost would leave a gap.
+     */
+    private void flush() throws IOException {
+        if (failure != null) throw failure;
+        ByteBuffer bytes;
+        long upTo;
+        FileChannel channel;
+        synchronized (appendLock) {
+            bytes = ByteBuffer.wrap(pending.toByteArray());
+            pending.reset();
+            upTo = lastLsn;
+            channel = segment;
+        }
+        try {
+            while (bytes.hasRemaining()) channel.write(bytes);
+            channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        durableLsn = upTo;
+        syncCount++;
+    }
+
+    private void backgroundSync() {
+        try {
+            sync(lastLsn());
+        } catch (IOException e) {
+            // Kept in failure and reported by the next commit.
+        }
+    }
+
+    private void openSegment(long startLsn) throws IOException {
+        segmentStartLsn = startLsn;
+        segment = FileChannel.open(fileFor(SEGMENT_PREFIX, startLsn, SEGMENT_SUFFIX).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // -------------- SNAPSHOT SECTION ---------------
+
+    /**
+     * Checks whether enough changes were logged since the last snapshot to
+     * write another one, and none is being written.
+     *
+     * @return true if a snapshot is due
+     */
+    public boolean isSnapshotDue() {
+        synchronized (appendLock) {
+            return lastLsn - segmentStartLsn + 1 >= snapshotInterval
+                    && (snapshotInProgress == null || snapshotInProgress.isDone());
+        }
+    }
+
+    /**
+     * Starts writing a snapshot in the background. The graph must contain
+     * exactly the changes logged so far. New records go to a new segment at
+     * once, and when the snapshot is on disk the older snapshots and segments
+     * are deleted.
+     *
+     * @param graph the graph to save
+     * @return completes with the snapshot file
+     * @throws IOException if the log could not be written
+     */
+    public Future<File> snapshot(CompactTownGraph graph) throws IOException {
+        long lsn;
+        synchronized (syncLock) {
+            synchronized (appendLock) {
+                if (closed) throw new IllegalStateException("The log is closed");
+                flush();
+                lsn = lastLsn;
+                FileChannel old = segment;
+                openSegment(lsn + 1);
+                old.close();
+                return snapshotInProgress = snapshotWriter.submit(() -> writeSnapshot(graph, lsn));
+            }
+        }
+    }
+
+    private File writeSnapshot(CompactTownGraph graph, long lsn) throws IOException {
+        File target = fileFor(SNAPSHOT_PREFIX, lsn, SNAPSHOT_SUFFIX);
+        File temporary = new File(target.getPath() + TEMPORARY_SUFFIX);
+        MappedTownGraph.write(graph, temporary);
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        snapshotLsn = lsn;
+        for (File old : files(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX).headMap(lsn).values()) {
+            Files.deleteIfExists(old.toPath());
+        }
+        for (File old : files(SEGMENT_PREFIX, SEGMENT_SUFFIX).headMap(lsn, true).values()) {
+            Files.deleteIfExists(old.toPath());
+        }
+        return target;
+    }
+
+    private File fileFor(String prefix, long lsn, String suffix) {
+        return new File(directory, String.format("%s%020d%s", prefix, lsn, suffix));
+    }
+
+    // -------------- STATUS SECTION ---------------
+
+    /**
+     * Returns the LSN of the last appended record.
+     *
+     * @return the last LSN, 0 for an empty log
+     */
+    public long lastLsn() {
+        synchronized (appendLock) {
+            return lastLsn;
+        }
+    }
+
+    /**
+     * Returns the LSN up to which records are known to be on disk.
+     *
+     * @return the durable LSN
+     */
+    public long durableLsn() {
+        return durableLsn;
+    }
+
+    /**
+     * Returns the LSN of the newest snapshot on disk.
+     *
+     * @return the snapshot LSN, 0 if there is none
+     */
+    public long snapshotLsn() {
+        return snapshotLsn;
+    }
+
+    /**
+     * Returns the number of fsyncs of the log so far. Comparing it with the
+     * number of changes shows how well they were grouped.
+     *
+     * @return the sync count
+     */
+    public long syncCount() {
+        synchronized (syncLock) {
+            return syncCount;
+        }
+    }
+
+    /**
+     * Syncs the remaining records, waits for a snapshot being written and
+     * closes the log.
+     *
+     * @throws IOException if the log could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            if (closed) return;
+            if (syncer != null) syncer.shutdown();
+            try {
+                flush();
+            } finally {
+                synchronized (appendLock) {
+                    closed = true;
+                }
+                snapshotWriter.shutdown();
+                try {
+                    if (snapshotInProgress != null) snapshotInProgress.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                    throw new IOException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    segment.close();
+                }
+            }
+        }
+    }
+}
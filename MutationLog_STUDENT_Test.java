@@ -0,0 +1,252 @@
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class tests the functionality of the MutationLog class, including
+ * recovering logged changes, snapshots, torn records and group commit.
+ *
+ * Author: Your Name
+ */
+public class MutationLog_STUDENT_Test {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File directory;
+    private MutationLog log;
+    private TownGraphManager manager;
+
+    /**
+     * Sets up the test environment before each test.
+     * Attaches a new log to an empty manager and adds a small network.
+     */
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.newFolder("log");
+        log = MutationLog.open(directory, 0, 1000);
+        manager = new TownGraphManager();
+        assertEquals(0, manager.recover(log));
+        manager.addRoad("Rockville", "Bethesda", 7, "Route 355");
+        manager.addRoad("Bethesda", "Silver Spring", 8, "Route 410");
+        manager.addRoad("Rockville", "Silver Spring", 20, "Norbeck Road");
+        manager.addTown("Annapolis");
+    }
+
+    /**
+     * Closes the log after each test.
+     */
+    @After
+    public void tearDown() throws IOException {
+        log.close();
+    }
+
+    /**
+     * Tests that every kind of change, including a batch, is replayed after a restart.
+     */
+    @Test
+    public void testRecoverReplaysChanges() throws IOException {
+        manager.deleteRoadConnection("Rockville", "Bethesda", "Route 355");
+        manager.deleteTown("Annapolis");
+        manager.beginBatch().addRoad("Annapolis", "Bethesda", 30, "Route 50").addTown("Laurel").commit();
+        assertFalse(manager.deleteTown("Baltimore"));
+        long lastLsn = log.lastLsn();
+        assertEquals(lastLsn, log.durableLsn());
+        log.close();
+
+        log = MutationLog.open(directory, 0, 1000);
+        TownGraphManager restarted = new TownGraphManager();
+        assertEquals(lastLsn, restarted.recover(log));
+        assertEquals(manager.allTowns(), restarted.allTowns());
+        assertEquals(manager.allRoads(), restarted.allRoads());
+        assertEquals(manager.getPath("Rockville", "Annapolis"), restarted.getPath("Rockville", "Annapolis"));
+
+        restarted.addTown("Frederick");
+        assertEquals(lastLsn + 1, log.lastLsn());
+    }
+
+    /**
+     * Tests that a change the log cannot take is not applied either, so the
+     * graph never holds a change the log does not.
+     */
+    @Test
+    public void testFailedAppendLeavesGraphUnchanged() throws IOException {
+        log.close();
+        try {
+            manager.addRoad("Rockville", "Laurel", 20, "Route 198");
+            fail("A closed log must refuse the change");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+        try {
+            manager.beginBatch().deleteTown("Annapolis").addTown("Laurel").commit();
+            fail("A closed log must refuse the batch");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+        try {
+            manager.deleteRoadConnection("Rockville", "Bethesda", "Route 355");
+            fail("A closed log must refuse the change");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+        assertFalse(manager.containsTown("Laurel"));
+        assertTrue(manager.containsTown("Annapolis"));
+        assertTrue(manager.containsRoadConnection("Rockville", "Bethesda"));
+        assertEquals(4, manager.allTowns().size());
+        assertEquals(3, manager.allRoads().size());
+    }
+
+    /**
+     * Tests that a snapshot replaces the records it covers, and recovery
+     * replays only the changes after it.
+     */
+    @Test
+    public void testSnapshotShortensReplay() throws Exception {
+        File snapshot = manager.snapshot().get();
+        assertEquals(4, log.snapshotLsn());
+        assertTrue(snapshot.exists());
+        manager.addRoad("Annapolis", "Bethesda", 30, "Route 50");
+        manager.deleteRoadConnection("Rockville", "Silver Spring", "Norbeck Road");
+        log.close();
+        assertEquals(1, directory.listFiles((dir, name) -> name.endsWith(".wal")).length);
+
+        log = MutationLog.open(directory, 0, 1000);
+        TownGraphManager restarted = new TownGraphManager();
+        assertEquals(2, restarted.recover(log));
+        assertEquals(manager.allRoads(), restarted.allRoads());
+        assertFalse(restarted.containsRoadConnection("Rockville", "Silver Spring"));
+    }
+
+    /**
+     * Tests that roads added again after a snapshot, either way round, replace
+     * the snapshot's roads on recovery just as they did before the restart.
+     */
+    @Test
+    public void testRoadsReplacedAfterSnapshot() throws Exception {
+        manager.addRoad("Bethesda", "Rockville", 5, "Old Georgetown Road");
+        manager.snapshot().get();
+        manager.addRoad("Bethesda", "Rockville", 7, "Wisconsin Avenue");
+        manager.addRoad("Silver Spring", "Bethesda", 9, "East-West Highway");
+        log.close();
+
+        log = MutationLog.open(directory, 0, 1000);
+        TownGraphManager restarted = new TownGraphManager();
+        assertEquals(2, restarted.recover(log));
+        assertEquals("Wisconsin Avenue", restarted.getRoad("Rockville", "Bethesda"));
+        assertEquals("East-West Highway", restarted.getRoad("Bethesda", "Silver Spring"));
+        assertEquals(manager.allRoads(), restarted.allRoads());
+        assertEquals(manager.getPath("Rockville", "Silver Spring"), restarted.getPath("Rockville", "Silver Spring"));
+    }
+
+    /**
+     * Tests that importing a graph file into a logged manager takes one sync.
+     */
+    @Test
+    public void testImportIsOneBatch() throws IOException {
+        File file = folder.newFile("network.tgr");
+        manager.exportGraph(file);
+        TownGraphManager imported = new TownGraphManager();
+        MutationLog other = MutationLog.open(folder.newFolder("imported"), 0, 1000);
+        try {
+            imported.recover(other);
+            long syncsBefore = other.syncCount();
+            imported.importGraph(file);
+            assertEquals(1, other.syncCount() - syncsBefore);
+            assertEquals(manager.allTowns(), imported.allTowns());
+            assertEquals(manager.allRoads(), imported.allRoads());
+        } finally {
+            other.close();
+        }
+    }
+
+    /**
+     * Tests that snapshots are written automatically every snapshot interval.
+     */
+    @Test
+    public void testAutomaticSnapshots() throws IOException {
+        log.close();
+        log = MutationLog.open(folder.newFolder("small"), 0, 10);
+        manager = new TownGraphManager();
+        manager.recover(log);
+        for (int i = 0; i < 25; i++) {
+            manager.addRoad("Town" + i, "Town" + (i + 1), i + 1, "Road" + i);
+        }
+        log.close();
+        assertTrue(log.snapshotLsn() >= 10);
+
+        log = MutationLog.open(new File(folder.getRoot(), "small"), 0, 10);
+        TownGraphManager restarted = new TownGraphManager();
+        assertTrue(restarted.recover(log) < 25);
+        assertEquals(manager.allRoads(), restarted.allRoads());
+    }
+
+    /**
+     * Tests that a record cut short by a crash is dropped and later records follow it.
+     */
+    @Test
+    public void testTornRecordIsDropped() throws IOException {
+        log.close();
+        File[] segments = directory.listFiles((dir, name) -> name.endsWith(".wal"));
+        try (FileOutputStream out = new FileOutputStream(segments[0], true)) {
+            out.write(new byte[] {0, 0, 0, 40, 1, 2, 3});
+        }
+
+        log = MutationLog.open(directory, 0, 1000);
+        TownGraphManager restarted = new TownGraphManager();
+        assertEquals(4, restarted.recover(log));
+        restarted.addTown("Laurel");
+        log.close();
+
+        log = MutationLog.open(directory, 0, 1000);
+        restarted = new TownGraphManager();
+        assertEquals(5, restarted.recover(log));
+        assertTrue(restarted.containsTown("Laurel"));
+    }
+
+    /**
+     * Tests that threads syncing at the same time share fsyncs, and that
+     * background syncing loses nothing on close.
+     */
+    @Test
+    public void testGroupCommit() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        log.sync(log.append(new GraphBatch.Mutation(GraphBatch.Kind.ADD_TOWN, "T" + id + "-" + i,
+                                null, 0, null)));
+                    } catch (IOException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            }));
+        }
+        long syncsBefore = log.syncCount();
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(804, log.durableLsn());
+        assertTrue(log.syncCount() - syncsBefore <= 800);
+        log.close();
+
+        log = MutationLog.open(directory, 5, 1000);
+        TownGraphManager restarted = new TownGraphManager();
+        assertEquals(804, restarted.recover(log));
+        for (int i = 0; i < 50; i++) restarted.addTown("Deferred" + i);
+        log.close();
+
+        log = MutationLog.open(directory, 0, 1000);
+        TownGraphManager again = new TownGraphManager();
+        again.recover(log);
+        assertEquals(restarted.allTowns(), again.allTowns());
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Interns names into one shared byte array, so each distinct town or road
+ * name is stored once, without a String object, and is known by a dense int
+ * id. Strings are only created when a name is read back.
+ *
+ * Names are stored as UTF-8 style bytes (one byte per ASCII character) and
+ * found through an open-addressing table of ids keyed by String.hashCode(),
+ * so a lookup with an existing String costs no allocation. A name costs its
+ * bytes plus about 10 bytes of index. Ids are never reused; the pool only grows.
+ *
+ * The bytes, offsets and table are columns that can be kept off-heap, where
+ * even hundreds of millions of names add nothing to garbage collection.
+ * A pool holds at most 2 GB of name bytes. A pool is not thread-safe.
+ *
+ * Author: Your Name
+ */
+public class NamePool {
+    /** Id returned by find() for a name that is not in the pool. */
+    public static final int NONE = -1;
+
+    private final boolean offHeap;
+    private final ByteColumn bytes;
+    private int byteCount;
+    private final IntColumn starts;
+    private int count;
+    private IntColumn table;
+    private int tableLength = 32;
+
+    /**
+     * Constructs an empty pool on the Java heap.
+     */
+    public NamePool() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty pool.
+     *
+     * @param offHeap true to keep the names in direct memory
+     */
+    public NamePool(boolean offHeap) {
+        this.offHeap = offHeap;
+        bytes = ByteColumn.create(offHeap, 256);
+        starts = IntColumn.create(offHeap, 16);
+        table = IntColumn.create(offHeap, tableLength);
+    }
+
+    /**
+     * Returns the id of a name, adding the name if it is new.
+     *
+     * @param name the name to intern
+     * @return the name's id
+     */
+    public int intern(String name) {
+        int hash = name.hashCode();
+        int mask = tableLength - 1;
+        int slot = hash & mask;
+        for (int id; (id = table.get(slot) - 1) != NONE; slot = (slot + 1) & mask) {
+            if (matches(id, name)) return id;
+        }
+
+        int id = count++;
+        starts.ensureCapacity(id + 2);
+        append(name);
+        starts.set(id + 1, byteCount);
+        table.set(slot, id + 1);
+        // Rehash above a load factor of 3/4.
+        if (count * 4L > tableLength * 3L) rehash();
+        return id;
+    }
+
+    /**
+     * Returns the id of a name without adding it.
+     *
+     * @param name the name to look up
+     * @return the name's id, or NONE if it was never interned
+     */
+    public int find(String name) {
+        if (name == null) return NONE;
+        int hash = name.hashCode();
+        int mask = tableLength - 1;
+        for (int slot = hash & mask, id; (id = table.get(slot) - 1) != NONE; slot = (slot + 1) & mask) {
+            if (matches(id, name)) return id;
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns a name as a new String.
+     *
+     * @param id the name's id
+     * @return the name
+     */
+    public String name(int id) {
+        if (id < 0 || id >= count) throw new IndexOutOfBoundsException("No name " + id);
+        char[] chars = new char[starts.get(id + 1) - starts.get(id)];
+        return new String(chars, 0, decode(id, chars));
+    }
+
+    /**
+     * Returns the number of distinct names.
+     *
+     * @return the name count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Checks whether the pool is kept in direct memory.
+     *
+     * @return true if the pool is off-heap
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Estimates the footprint of the pool in bytes, on or off the heap.
+     *
+     * @return the estimated size in bytes
+     */
+    public long estimatedBytes() {
+        return bytes.estimatedBytes() + starts.estimatedBytes() + table.estimatedBytes();
+    }
+
+    /**
+     * Shrinks the name storage to its current size, for example after a bulk load.
+     */
+    public void trimToSize() {
+        bytes.trimToSize(byteCount);
+        starts.trimToSize(count + 1);
+    }
+
+    /**
+     * Decodes a stored name into a char array at least as long as its byte count.
+     *
+     * @return the number of chars written
+     */
+    private int decode(int id, char[] chars) {
+        int length = 0;
+        for (int i = starts.get(id), end = starts.get(id + 1); i < end; ) {
+            int b = bytes.get(i++) & 0xFF;
+            if (b < 0x80) {
+                chars[length++] = (char) b;
+            } else if (b < 0xE0) {
+                chars[length++] = (char) (((b & 0x1F) << 6) | (bytes.get(i++) & 0x3F));
+            } else {
+                chars[length++] = (char) (((b & 0x0F) << 12) | ((bytes.get(i++) & 0x3F) << 6) | (bytes.get(i++) & 0x3F));
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Compares a stored name with a String character by character.
+     */
+    private boolean matches(int id, String name) {
+        int i = starts.get(id);
+        int end = starts.get(id + 1);
+        for (int k = 0, length = name.length(); k < length; k++) {
+            char c = name.charAt(k);
+            if (c < 0x80) {
+                if (i >= end || bytes.get(i++) != c) return false;
+            } else if (c < 0x800) {
+                if (i + 2 > end || bytes.get(i++) != (byte) (0xC0 | (c >> 6))
+                        || bytes.get(i++) != (byte) (0x80 | (c & 0x3F))) {
+                    return false;
+                }
+            } else if (i + 3 > end || bytes.get(i++) != (byte) (0xE0 | (c >> 12))
+                    || bytes.get(i++) != (byte) (0x80 | ((c >> 6) & 0x3F)) || bytes.get(i++) != (byte) (0x80 | (c & 0x3F))) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    /**
+     * Appends a name's bytes. Characters outside the Basic Multilingual Plane
+     * are stored as two surrogate chars of three bytes each, so every char
+     * round-trips.
+     */
+    private void append(String name) {
+        long needed = byteCount + 3L * name.length();
+        if (needed > Integer.MAX_VALUE) throw new IllegalStateException("Name pool is full");
+        bytes.ensureCapacity((int) needed);
+        for (int k = 0, length = name.length(); k < length; k++) {
+            char c = name.charAt(k);
+            if (c < 0x80) {
+                bytes.set(byteCount++, (byte) c);
+            } else if (c < 0x800) {
+                bytes.set(byteCount++, (byte) (0xC0 | (c >> 6)));
+                bytes.set(byteCount++, (byte) (0x80 | (c & 0x3F)));
+            } else {
+                bytes.set(byteCount++, (byte) (0xE0 | (c >> 12)));
+                bytes.set(byteCount++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                bytes.set(byteCount++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Doubles the table. Hashes are not stored, so each one is recomputed from
+     * the bytes the way String.hashCode() computes it.
+     */
+    private void rehash() {
+        tableLength *= 2;
+        table = null; // Let the old table go before allocating the new one.
+        table = IntColumn.create(offHeap, tableLength);
+        int mask = tableLength - 1;
+        char[] chars = new char[16];
+        for (int id = 0; id < count; id++) {
+            int byteLength = starts.get(id + 1) - starts.get(id);
+            if (chars.length < byteLength) chars = new char[byteLength];
+            int hash = 0;
+            for (int i = 0, length = decode(id, chars); i < length; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int slot = hash & mask;
+            while (table.get(slot) != 0) slot = (slot + 1) & mask;
+            table.set(slot, id + 1);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This class tests the functionality of the NamePool class.
+ *
+ * Author: Your Name
+ */
+public class NamePool_STUDENT_Test {
+    private NamePool pool;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates an empty pool.
+     */
+    @Before
+    public void setUp() {
+        pool = new NamePool();
+    }
+
+    /**
+     * Tests that equal names share an id and that names read back unchanged.
+     */
+    @Test
+    public void testIntern() {
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, pool.intern("Town" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, pool.intern("Town" + i));
+            assertEquals(i, pool.find("Town" + i));
+            assertEquals("Town" + i, pool.name(i));
+        }
+        assertEquals(1000, pool.size());
+        assertEquals(NamePool.NONE, pool.find("Town1000"));
+        assertEquals(NamePool.NONE, pool.find(null));
+    }
+
+    /**
+     * Tests names outside ASCII, the empty name, and names that are prefixes of others.
+     */
+    @Test
+    public void testUnusualNames() {
+        String[] names = {"", "Z\u00FCrich", "\u0391\u03B8\u03AE\u03BD\u03B1", "\u6771\u4EAC", "emoji \uD83D\uDE97", "Town", "Town1", "Tow"};
+        for (String name : names) {
+            pool.intern(name);
+        }
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(names[i], pool.name(i));
+            assertEquals(i, pool.find(names[i]));
+        }
+        assertEquals(NamePool.NONE, pool.find("Zurich"));
+        assertEquals(NamePool.NONE, pool.find("To"));
+    }
+
+    /**
+     * Tests that an off-heap pool interns, finds and trims like a heap pool.
+     */
+    @Test
+    public void testOffHeap() {
+        NamePool offHeap = new NamePool(true);
+        assertTrue(offHeap.isOffHeap());
+        assertFalse(pool.isOffHeap());
+        for (int i = 0; i < 5000; i++) {
+            String name = (i % 7 == 0) ? "Stra\u00DFe " + i : "Road" + i;
+            assertEquals(pool.intern(name), offHeap.intern(name));
+        }
+        offHeap.trimToSize();
+        assertEquals(5000, offHeap.intern("Added after trimming"));
+        for (int i = 0; i < pool.size(); i++) {
+            assertEquals(pool.name(i), offHeap.name(i));
+            assertEquals(i, offHeap.find(pool.name(i)));
+        }
+        assertEquals(NamePool.NONE, offHeap.find("Road5000"));
+    }
+}
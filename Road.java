@@ -104,13 +104,14 @@ public class Road implements Comparable<Road> {
     }
 
     /**
-     * Generates a hash code based on the source and destination towns.
+     * Generates a hash code based on the source and destination towns. It does
+     * not depend on direction, like equals, so a road and its reverse hash alike.
      * 
      * @return the hash code
      */
     @Override
     public int hashCode() {
-        return Objects.hash(source, destination);
+        return Objects.hashCode(source) + Objects.hashCode(destination);
     }
 
     /**
@@ -0,0 +1,436 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic road networks for load and scale
+ * testing. Networks are streamed road by road, either as lines in the
+ * populateTownGraph format ("road-name,distance;town1;town2"), straight into
+ * a TownGraphManager, or to any RoadSink.
+ *
+ * Nothing is kept per town or per road: coordinates are derived from a hash
+ * of the seed and the town id, and every other random choice comes from one
+ * sequential random stream. Memory use is therefore constant, so files of
+ * many gigabytes can be written, and the same seed always gives the same
+ * network. Towns are named "T<id>" and roads "R<number>".
+ *
+ * Author: Your Name
+ */
+public class RoadNetworkGenerator {
+
+    /**
+     * Shape of the generated network.
+     */
+    public enum Topology {
+        /** A square lattice; every town joins its right and lower neighbor. */
+        GRID,
+        /**
+         * A jittered lattice triangulated along the shorter diagonal of every
+         * cell, which gives a planar, Delaunay-like mesh like real road maps.
+         */
+        PLANAR,
+        /**
+         * Hub towns joined in a ring with a few long-haul links, each serving a
+         * group of spoke towns that connect to their hub and to each other.
+         */
+        HUB_AND_SPOKE,
+        /**
+         * Every town joins a few earlier towns picked with a strong bias toward
+         * low ids, which gives a power-law degree distribution with large hubs.
+         */
+        POWER_LAW
+    }
+
+    /**
+     * How road distances are drawn, between the minimum and maximum weight.
+     */
+    public enum WeightDistribution {
+        /** Every distance in the range is equally likely. */
+        UNIFORM,
+        /** Normally distributed around the middle of the range, clamped to it. */
+        GAUSSIAN,
+        /** Pareto distributed from the minimum, clamped to the maximum: mostly short roads, a few long ones. */
+        PARETO,
+        /** The straight-line distance between the towns, one lattice step being the mean weight. */
+        EUCLIDEAN
+    }
+
+    /**
+     * Receives the generated roads.
+     */
+    public interface RoadSink {
+        /**
+         * Accepts one road.
+         *
+         * @param number the road number; a duplicated road repeats its number
+         * @param town1 the id of the first town
+         * @param town2 the id of the second town
+         * @param distance the road distance
+         */
+        void road(long number, int town1, int town2, int distance);
+    }
+
+    private static final double JITTER = 0.35;
+
+    private final Topology topology;
+    private final int towns;
+    private final long seed;
+    private WeightDistribution weights = WeightDistribution.UNIFORM;
+    private int minWeight = 1;
+    private int maxWeight = 100;
+    private double duplicateRate;
+    private double parallelRate;
+    private int hubCount;
+    private int edgesPerTown = 2;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param topology the network shape
+     * @param towns the number of towns; GRID and PLANAR round it to a square
+     * @param seed the random seed
+     */
+    public RoadNetworkGenerator(Topology topology, int towns, long seed) {
+        if (towns < 2) throw new IllegalArgumentException("At least two towns are needed");
+        this.topology = topology;
+        this.towns = towns;
+        this.seed = seed;
+        hubCount = Math.max(1, (int) Math.sqrt(towns));
+    }
+
+    /**
+     * Sets how road distances are drawn.
+     *
+     * @param distribution the weight distribution
+     * @param min the smallest distance
+     * @param max the largest distance
+     * @return this generator
+     */
+    public RoadNetworkGenerator setWeights(WeightDistribution distribution, int min, int max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException();
+        weights = distribution;
+        minWeight = min;
+        maxWeight = max;
+        return this;
+    }
+
+    /**
+     * Sets the probability that a road is written a second time, unchanged.
+     *
+     * @param rate a probability from 0 to 1
+     * @return this generator
+     */
+    public RoadNetworkGenerator setDuplicateRate(double rate) {
+        duplicateRate = rate;
+        return this;
+    }
+
+    /**
+     * Sets the probability that a road gets a parallel road: another road
+     * between the same towns with its own name and distance.
+     *
+     * @param rate a probability from 0 to 1
+     * @return this generator
+     */
+    public RoadNetworkGenerator setParallelRate(double rate) {
+        parallelRate = rate;
+        return this;
+    }
+
+    /**
+     * Sets the number of hubs for HUB_AND_SPOKE; the default is the square
+     * root of the town count.
+     *
+     * @param hubs the hub count
+     * @return this generator
+     */
+    public RoadNetworkGenerator setHubCount(int hubs) {
+        if (hubs < 1 || hubs > towns) throw new IllegalArgumentException();
+        hubCount = hubs;
+        return this;
+    }
+
+    /**
+     * Sets how many earlier towns each town joins in POWER_LAW; the default is 2.
+     *
+     * @param edges the number of roads per new town
+     * @return this generator
+     */
+    public RoadNetworkGenerator setEdgesPerTown(int edges) {
+        if (edges < 1) throw new IllegalArgumentException();
+        edgesPerTown = edges;
+        return this;
+    }
+
+    /**
+     * Returns the number of towns the network will have.
+     *
+     * @return the town count
+     */
+    public int townCount() {
+        if (topology == Topology.GRID || topology == Topology.PLANAR) {
+            int side = side();
+            return side * side;
+        }
+        return towns;
+    }
+
+    /**
+     * Returns the name of a town.
+     *
+     * @param id the town id
+     * @return the town name
+     */
+    public static String townName(int id) {
+        return "T" + id;
+    }
+
+    /**
+     * Returns the name of a road.
+     *
+     * @param number the road number
+     * @return the road name
+     */
+    public static String roadName(long number) {
+        return "R" + number;
+    }
+
+    /**
+     * Writes the network to a file in the populateTownGraph format.
+     *
+     * @param file the file to write
+     * @return the number of lines written
+     * @throws IOException if the file cannot be written
+     */
+    public long writeTo(File file) throws IOException {
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 20)) {
+            return writeTo(out);
+        }
+    }
+
+    /**
+     * Writes the network as lines in the populateTownGraph format.
+     *
+     * @param out the writer receiving the lines
+     * @return the number of lines written
+     * @throws IOException if writing fails
+     */
+    public long writeTo(Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(48);
+        try {
+            return generate((number, town1, town2, distance) -> {
+                line.setLength(0);
+                line.append('R').append(number).append(',').append(distance)
+                        .append(";T").append(town1).append(";T").append(town2).append('\n');
+                try {
+                    out.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Adds the network to a manager with addRoad, which creates the towns.
+     *
+     * @param manager the manager receiving the roads
+     * @return the number of roads added
+     */
+    public long populate(TownGraphManager manager) {
+        return generate((number, town1, town2, distance) ->
+                manager.addRoad(townName(town1), townName(town2), distance, roadName(number)));
+    }
+
+    /**
+     * Generates the network into a sink.
+     *
+     * @param sink the receiver of the roads
+     * @return the number of roads emitted, duplicates included
+     */
+    public long generate(RoadSink sink) {
+        Emitter emitter = new Emitter(sink);
+        switch (topology) {
+            case GRID:
+                grid(emitter);
+                break;
+            case PLANAR:
+                planar(emitter);
+                break;
+            case HUB_AND_SPOKE:
+                hubAndSpoke(emitter);
+                break;
+            case POWER_LAW:
+            default:
+                powerLaw(emitter);
+                break;
+        }
+        return emitter.emitted;
+    }
+
+    private int side() {
+        return Math.max(2, (int) Math.round(Math.sqrt(towns)));
+    }
+
+    private void grid(Emitter out) {
+        int side = side();
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) out.road(v, v + 1);
+                if (row + 1 < side) out.road(v, v + side);
+            }
+        }
+    }
+
+    private void planar(Emitter out) {
+        int side = side();
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) out.road(v, v + 1);
+                if (row + 1 < side) out.road(v, v + side);
+                if (col + 1 < side && row + 1 < side) {
+                    // Split the cell along its shorter diagonal, as a Delaunay triangulation would.
+                    if (distance(v, v + side + 1) <= distance(v + 1, v + side)) out.road(v, v + side + 1);
+                    else out.road(v + 1, v + side);
+                }
+            }
+        }
+    }
+
+    private void hubAndSpoke(Emitter out) {
+        int hubs = hubCount;
+        for (int h = 0; h < hubs; h++) {
+            if (hubs > 1 && (h + 1 < hubs || hubs > 2)) out.road(h, (h + 1) % hubs);
+            if (hubs > 3) {
+                int far = out.random.nextInt(hubs);
+                if (far != h && far != (h + 1) % hubs && (far + 1) % hubs != h) out.road(h, far);
+            }
+        }
+        for (int v = hubs; v < towns; v++) {
+            out.road(v, v % hubs);
+            // Spokes of the same hub are numbered hubs apart; join some of them locally.
+            if (v - hubs >= hubs && out.random.nextDouble() < 0.3) out.road(v, v - hubs);
+        }
+    }
+
+    private void powerLaw(Emitter out) {
+        int[] picked = new int[edgesPerTown];
+        for (int v = 1; v < towns; v++) {
+            int count = 0;
+            for (int k = 0; k < edgesPerTown && count < v; k++) {
+                // u squared skews the pick toward early towns, so they collect most roads.
+                double u = out.random.nextDouble();
+                int target = (int) (v * u * u);
+                boolean seen = false;
+                for (int i = 0; i < count; i++) seen |= picked[i] == target;
+                if (!seen) {
+                    picked[count++] = target;
+                    out.road(v, target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the straight-line distance between two towns, in lattice steps.
+     */
+    private double distance(int a, int b) {
+        return Math.hypot(x(a) - x(b), y(a) - y(b));
+    }
+
+    private double x(int v) {
+        switch (topology) {
+            case GRID:
+                return v % side();
+            case PLANAR:
+                return v % side() + JITTER * (2 * unit(v, 1) - 1);
+            case HUB_AND_SPOKE:
+                // Spokes sit around their hub.
+                return (v < hubCount) ? Math.sqrt(towns) * unit(v, 1) : x(v % hubCount) + unit(v, 1) - 0.5;
+            default:
+                return Math.sqrt(towns) * unit(v, 1);
+        }
+    }
+
+    private double y(int v) {
+        switch (topology) {
+            case GRID:
+                return v / side();
+            case PLANAR:
+                return v / side() + JITTER * (2 * unit(v, 2) - 1);
+            case HUB_AND_SPOKE:
+                return (v < hubCount) ? Math.sqrt(towns) * unit(v, 2) : y(v % hubCount) + unit(v, 2) - 0.5;
+            default:
+                return Math.sqrt(towns) * unit(v, 2);
+        }
+    }
+
+    /**
+     * Returns a value in [0, 1) that depends only on the seed, a town and a
+     * coordinate, so coordinates never have to be stored.
+     */
+    private double unit(int v, int coordinate) {
+        long z = seed + 0x9E3779B97F4A7C15L * ((long) v * 4 + coordinate);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Draws weights, adds duplicate and parallel roads, and numbers the roads.
+     */
+    private class Emitter {
+        private final RoadSink sink;
+        private final SplittableRandom random = new SplittableRandom(seed);
+        private long number;
+        private long emitted;
+
+        Emitter(RoadSink sink) {
+            this.sink = sink;
+        }
+
+        void road(int a, int b) {
+            long id = number++;
+            int distance = weight(a, b);
+            sink.road(id, a, b, distance);
+            emitted++;
+            if (duplicateRate > 0 && random.nextDouble() < duplicateRate) {
+                sink.road(id, a, b, distance);
+                emitted++;
+            }
+            if (parallelRate > 0 && random.nextDouble() < parallelRate) {
+                sink.road(number++, a, b, weight(a, b));
+                emitted++;
+            }
+        }
+
+        private int weight(int a, int b) {
+            int range = maxWeight - minWeight;
+            switch (weights) {
+                case GAUSSIAN:
+                    double gaussian = minWeight + range / 2.0 + random.nextGaussian() * range / 6.0;
+                    return (int) Math.max(minWeight, Math.min(maxWeight, Math.round(gaussian)));
+                case PARETO:
+                    double pareto = minWeight / Math.pow(1 - random.nextDouble(), 1 / 1.5);
+                    return (int) Math.min(maxWeight, Math.round(pareto));
+                case EUCLIDEAN:
+                    return (int) Math.max(1, Math.round(distance(a, b) * (minWeight + maxWeight) / 2.0));
+                case UNIFORM:
+                default:
+                    return minWeight + random.nextInt(range + 1);
+            }
+        }
+    }
+}
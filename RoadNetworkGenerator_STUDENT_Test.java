@@ -0,0 +1,103 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+
+/**
+ * This class tests the functionality of the RoadNetworkGenerator class.
+ *
+ * Author: Your Name
+ */
+public class RoadNetworkGenerator_STUDENT_Test {
+    private RoadNetworkGenerator planar;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a generator for a planar network of 400 towns.
+     */
+    @Before
+    public void setUp() {
+        planar = new RoadNetworkGenerator(RoadNetworkGenerator.Topology.PLANAR, 400, 7);
+    }
+
+    /**
+     * Tests that the same seed gives the same file and another seed does not.
+     */
+    @Test
+    public void testDeterministic() throws IOException {
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        StringWriter other = new StringWriter();
+        planar.writeTo(first);
+        planar.writeTo(second);
+        new RoadNetworkGenerator(RoadNetworkGenerator.Topology.PLANAR, 400, 8).writeTo(other);
+        assertEquals(first.toString(), second.toString());
+        assertNotEquals(first.toString(), other.toString());
+        assertTrue(first.toString().startsWith("R0,"));
+    }
+
+    /**
+     * Tests that every topology produces a connected network of the requested size.
+     */
+    @Test
+    public void testTopologiesAreConnected() {
+        for (RoadNetworkGenerator.Topology topology : RoadNetworkGenerator.Topology.values()) {
+            RoadNetworkGenerator generator = new RoadNetworkGenerator(topology, 500, 3);
+            TownGraphManager manager = new TownGraphManager();
+            long roads = generator.populate(manager);
+            assertEquals(topology.name(), generator.townCount(), manager.allTowns().size());
+            assertTrue(topology.name(), roads >= generator.townCount() - 1);
+            String last = RoadNetworkGenerator.townName(generator.townCount() - 1);
+            assertFalse(topology.name(), manager.getPath("T0", last).isEmpty());
+        }
+    }
+
+    /**
+     * Tests that weights stay in range and that duplicate and parallel roads are emitted.
+     */
+    @Test
+    public void testWeightsAndDuplicates() {
+        long[] counts = new long[3];
+        planar.setWeights(RoadNetworkGenerator.WeightDistribution.PARETO, 5, 50)
+                .setDuplicateRate(0.2)
+                .setParallelRate(0.1);
+        long[] previous = {-1};
+        long emitted = planar.generate((number, town1, town2, distance) -> {
+            assertTrue(distance >= 5 && distance <= 50);
+            if (number == previous[0]) counts[0]++;
+            else if (number != previous[0] + 1) fail("Road numbers must be consecutive");
+            previous[0] = number;
+            counts[1]++;
+        });
+        assertEquals(counts[1], emitted);
+        assertTrue(counts[0] > 0);
+        assertTrue(previous[0] + 1 + counts[0] == emitted);
+    }
+
+    /**
+     * Tests that a written file loads back through populateTownGraph.
+     */
+    @Test
+    public void testWrittenFileLoads() throws IOException {
+        File file = File.createTempFile("network", ".txt");
+        try {
+            RoadNetworkGenerator generator = new RoadNetworkGenerator(
+                    RoadNetworkGenerator.Topology.HUB_AND_SPOKE, 300, 11)
+                    .setWeights(RoadNetworkGenerator.WeightDistribution.EUCLIDEAN, 10, 30);
+            long lines = generator.writeTo(file);
+            assertEquals(lines, Files.readAllLines(file.toPath()).size());
+
+            TownGraphManager loaded = new TownGraphManager();
+            loaded.populateTownGraph(file);
+            TownGraphManager direct = new TownGraphManager();
+            generator.populate(direct);
+            assertEquals(direct.allRoads(), loaded.allRoads());
+            assertEquals(direct.getPath("T5", "T250"), loaded.getPath("T5", "T250"));
+        } finally {
+            file.delete();
+        }
+    }
+}
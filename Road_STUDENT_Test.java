@@ -47,6 +47,16 @@ public class Road_STUDENT_Test {
         assertTrue(road1.equals(road2)); // undirected
     }
 
+    /**
+     * Tests that a road and its reverse, which are equal, have the same hash code
+     * and so are found in hash sets either way round.
+     */
+    @Test
+    public void testHashCodeMatchesEquals() {
+        assertEquals(road1.hashCode(), road2.hashCode());
+        assertTrue(new java.util.HashSet<>(java.util.Arrays.asList(road1)).contains(road2));
+    }
+
     /**
      * Tests the compareTo method by comparing two roads based on their distance.
      */
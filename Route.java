@@ -0,0 +1,212 @@
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The result of a shortest-path query: the towns passed through, as int ids
+ * of a RoutingGraph, the roads between them and the total distance.
+ *
+ * Nothing is formatted until toSteps() is called, so callers that only need
+ * the distance or the town sequence never build strings.
+ *
+ * Author: Your Name
+ */
+public class Route {
+    private final RoutingGraph graph;
+    private final int[] towns;
+    private final Road[] roads;
+    private final int distance;
+
+    private Route(RoutingGraph graph, int[] towns, Road[] roads, int distance) {
+        this.graph = graph;
+        this.towns = towns;
+        this.roads = roads;
+        this.distance = distance;
+    }
+
+    /**
+     * Returns the graph whose town ids the route uses.
+     *
+     * @return the routed graph
+     */
+    public RoutingGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of roads on the route.
+     *
+     * @return the hop count, 0 if the source is the destination
+     */
+    public int hopCount() {
+        return roads.length;
+    }
+
+    /**
+     * Returns the total distance of the route.
+     *
+     * @return the sum of the road distances
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the id of the i-th town on the route; town 0 is the source and
+     * town hopCount() is the destination.
+     *
+     * @param i the position on the route
+     * @return the town id
+     */
+    public int townId(int i) {
+        return towns[i];
+    }
+
+    /**
+     * Returns the i-th town on the route.
+     *
+     * @param i the position on the route
+     * @return the Town object
+     */
+    public Town town(int i) {
+        return graph.town(towns[i]);
+    }
+
+    /**
+     * Returns the road from town i to town i + 1.
+     *
+     * @param i the hop index
+     * @return the Road object
+     */
+    public Road road(int i) {
+        return roads[i];
+    }
+
+    /**
+     * Returns the towns on the route, from source to destination, as a
+     * read-only view that resolves each town when it is read.
+     *
+     * @return the town sequence
+     */
+    public List<Town> towns() {
+        return new AbstractList<Town>() {
+            @Override
+            public Town get(int i) {
+                return town(i);
+            }
+
+            @Override
+            public int size() {
+                return towns.length;
+            }
+        };
+    }
+
+    /**
+     * Renders the route in the "from via road to to N mi" format, one step per road.
+     *
+     * @return an ArrayList of Strings describing the route
+     */
+    public ArrayList<String> toSteps() {
+        ArrayList<String> steps = new ArrayList<>(roads.length);
+        StringBuilder step = new StringBuilder(64);
+        for (int i = 0; i < roads.length; i++) {
+            step.setLength(0);
+            step.append(graph.town(towns[i])).append(" via ").append(roads[i].getName())
+                    .append(" to ").append(graph.town(towns[i + 1])).append(' ')
+                    .append(roads[i].getDistance()).append(" mi");
+            steps.add(step.toString());
+        }
+        return steps;
+    }
+
+    /**
+     * Returns the rendered steps, for debugging.
+     *
+     * @return the steps as a list string
+     */
+    @Override
+    public String toString() {
+        return toSteps().toString();
+    }
+
+    /**
+     * Collects the hops of a route. Hops found by walking a search tree
+     * backward can be added in that order and then put right with reverse().
+     */
+    static class Builder {
+        private final RoutingGraph graph;
+        private final int source;
+        private int[] to = new int[16];
+        private Road[] roads = new Road[16];
+        private int hops;
+
+        /**
+         * Starts a route at a source town.
+         *
+         * @param graph the graph whose ids the route uses
+         * @param source the source town id
+         */
+        Builder(RoutingGraph graph, int source) {
+            this.graph = graph;
+            this.source = source;
+        }
+
+        /**
+         * Returns the number of hops added so far.
+         *
+         * @return the hop count
+         */
+        int hops() {
+            return hops;
+        }
+
+        /**
+         * Adds a hop along a road.
+         *
+         * @param road the road travelled
+         * @param end the town id the hop ends at
+         * @return this builder
+         */
+        Builder add(Road road, int end) {
+            if (hops == roads.length) {
+                to = Arrays.copyOf(to, hops * 2);
+                roads = Arrays.copyOf(roads, hops * 2);
+            }
+            to[hops] = end;
+            roads[hops++] = road;
+            return this;
+        }
+
+        /**
+         * Reverses the order of the hops added since a given hop count.
+         *
+         * @param first the hop count before the segment was added
+         * @return this builder
+         */
+        Builder reverse(int first) {
+            for (int i = first, j = hops - 1; i < j; i++, j--) {
+                int t = to[i]; to[i] = to[j]; to[j] = t;
+                Road r = roads[i]; roads[i] = roads[j]; roads[j] = r;
+            }
+            return this;
+        }
+
+        /**
+         * Creates the route.
+         *
+         * @return the finished Route
+         */
+        Route build() {
+            int[] towns = new int[hops + 1];
+            towns[0] = source;
+            int distance = 0;
+            for (int i = 0; i < hops; i++) {
+                towns[i + 1] = to[i];
+                distance += roads[i].getDistance();
+            }
+            return new Route(graph, towns, Arrays.copyOf(roads, hops), distance);
+        }
+    }
+}
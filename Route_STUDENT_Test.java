@@ -0,0 +1,71 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.Arrays;
+
+/**
+ * This class tests the functionality of the Route class, as returned by
+ * TownGraphManager.getRoute for each routing algorithm.
+ *
+ * Author: Your Name
+ */
+public class Route_STUDENT_Test {
+    private TownGraphManager manager;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates the chain A - B - C - D with a longer direct road from A to D.
+     */
+    @Before
+    public void setUp() {
+        manager = new TownGraphManager();
+        manager.addRoad("A", "B", 2, "AB");
+        manager.addRoad("B", "C", 3, "BC");
+        manager.addRoad("C", "D", 4, "CD");
+        manager.addRoad("A", "D", 20, "AD");
+        manager.addTown("Island");
+    }
+
+    /**
+     * Tests the structured fields of a route and that rendering matches getPath.
+     */
+    @Test
+    public void testRouteFields() {
+        Route route = manager.getRoute("A", "D");
+        assertEquals(9, route.getDistance());
+        assertEquals(3, route.hopCount());
+        assertEquals("A", route.town(0).getName());
+        assertEquals("BC", route.road(1).getName());
+        assertEquals(Arrays.asList(manager.getTown("A"), manager.getTown("B"), manager.getTown("C"),
+                manager.getTown("D")), route.towns());
+        assertEquals(manager.getPath("A", "D"), route.toSteps());
+        assertEquals("A via AB to B 2 mi", route.toSteps().get(0));
+    }
+
+    /**
+     * Tests that every algorithm returns the same route.
+     */
+    @Test
+    public void testAlgorithmsAgree() {
+        for (RoutingAlgorithm algorithm : RoutingAlgorithm.values()) {
+            Route route = manager.getRoute("D", "A", algorithm);
+            assertEquals(algorithm.name(), 9, route.getDistance());
+            assertEquals(algorithm.name(), "D via CD to C 4 mi", route.toSteps().get(0));
+        }
+    }
+
+    /**
+     * Tests the routes to the source itself, to an unreachable town and to an unknown town.
+     */
+    @Test
+    public void testEmptyAndMissingRoutes() {
+        Route self = manager.getRoute("B", "B");
+        assertEquals(0, self.hopCount());
+        assertEquals(0, self.getDistance());
+        assertTrue(self.toSteps().isEmpty());
+
+        assertNull(manager.getRoute("A", "Island"));
+        assertNull(manager.getRoute("A", "Nowhere"));
+        assertTrue(manager.getPath("A", "Island").isEmpty());
+    }
+}
@@ -0,0 +1,23 @@
+/**
+ * The search strategies the graph can use to answer point-to-point
+ * shortest path queries. All of them return the same distances.
+ * 
+ * Author: Your Name
+ */
+public enum RoutingAlgorithm {
+    /** Single-direction Dijkstra that stops once the destination is settled. */
+    DIJKSTRA,
+
+    /** Dijkstra from both ends at once, stopping when the two searches meet. */
+    BIDIRECTIONAL_DIJKSTRA,
+
+    /** A* guided by the graph's landmark (ALT) lower bounds. */
+    A_STAR,
+
+    /**
+     * Upward searches on a Contraction Hierarchies index. The index is built
+     * the first time it is needed after the graph changes, so this suits
+     * networks that are queried far more often than they are edited.
+     */
+    CONTRACTION_HIERARCHIES
+}
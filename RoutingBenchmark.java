@@ -0,0 +1,93 @@
+import java.util.Random;
+
+/**
+ * Command-line benchmark comparing Contraction Hierarchies queries with
+ * Dijkstra on a seeded grid road network.
+ *
+ * Usage: java RoutingBenchmark [side] [queries]
+ * builds a side-by-side grid (default 200, so 40,000 towns) and times
+ * preprocessing plus the average latency of each query type.
+ * 
+ * Author: Your Name
+ */
+public class RoutingBenchmark {
+
+    /**
+     * Runs the benchmark and prints the timings.
+     *
+     * @param args optional grid side length and query count
+     */
+    public static void main(String[] args) {
+        int side = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int queries = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+
+        Graph graph = buildGrid(side, new Random(1));
+        CompactTownGraph snapshot = graph.freeze();
+        System.out.printf("Grid %dx%d: %d towns, %d roads%n", side, side, snapshot.size(), snapshot.arcCount() / 2);
+
+        long start = System.nanoTime();
+        ContractionHierarchy hierarchy = new ContractionHierarchy(snapshot);
+        long preprocessing = System.nanoTime() - start;
+        System.out.printf("CH preprocessing: %.1f ms, %d shortcuts%n", preprocessing / 1e6, hierarchy.shortcutCount());
+
+        int[] sources = new int[queries];
+        int[] destinations = new int[queries];
+        Random random = new Random(2);
+        for (int i = 0; i < queries; i++) {
+            sources[i] = random.nextInt(snapshot.size());
+            destinations[i] = random.nextInt(snapshot.size());
+        }
+
+        DijkstraSearch dijkstra = new DijkstraSearch();
+        ContractionHierarchySearch upward = new ContractionHierarchySearch();
+        long checksum = 0;
+        for (int round = 0; round < 2; round++) {
+            boolean report = (round == 1); // first round warms up the JIT
+
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                graph.dijkstraShortestPath(snapshot.town(sources[i]));
+            }
+            long full = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                checksum += dijkstra.runTo(snapshot, sources[i], destinations[i]);
+            }
+            long pointToPoint = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                checksum -= upward.run(hierarchy, sources[i], destinations[i]);
+            }
+            long ch = System.nanoTime() - start;
+
+            if (report) {
+                System.out.printf("dijkstraShortestPath:     %10.1f us/query%n", full / 1e3 / queries);
+                System.out.printf("point-to-point Dijkstra:  %10.1f us/query%n", pointToPoint / 1e3 / queries);
+                System.out.printf("Contraction Hierarchies:  %10.1f us/query%n", ch / 1e3 / queries);
+            }
+        }
+        if (checksum != 0) {
+            System.out.println("Distance mismatch between Dijkstra and CH");
+        }
+    }
+
+    private static Graph buildGrid(int side, Random random) {
+        Graph graph = new Graph();
+        graph.setTreeCacheCapacity(0);
+        Town[] towns = new Town[side * side];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            graph.addVertex(towns[i]);
+        }
+        for (int row = 0; row < side; row++) {
+            for (int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if (col + 1 < side) graph.addEdge(towns[v], towns[v + 1], 1 + random.nextInt(100), "E" + v);
+                if (row + 1 < side) graph.addEdge(towns[v], towns[v + side], 1 + random.nextInt(100), "S" + v);
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Read-only view of a road network as arrays of arcs over dense int town ids,
+ * the shape DijkstraSearch and BidirectionalDijkstraSearch run on. The arcs
+ * leaving town v are numbered firstArc(v) up to, but not including, endArc(v).
+ * 
+ * Author: Your Name
+ */
+public interface RoutingGraph {
+    /**
+     * Returns the number of towns; ids run from 0 to size() - 1.
+     *
+     * @return the town count
+     */
+    int size();
+
+    /**
+     * Returns the index of the first arc leaving a town.
+     *
+     * @param v the town id
+     * @return the first arc index
+     */
+    int firstArc(int v);
+
+    /**
+     * Returns the index one past the last arc leaving a town.
+     *
+     * @param v the town id
+     * @return the end arc index
+     */
+    int endArc(int v);
+
+    /**
+     * Returns the town id an arc leads to.
+     *
+     * @param arc the arc index
+     * @return the target town id
+     */
+    int target(int arc);
+
+    /**
+     * Returns the distance of an arc.
+     *
+     * @param arc the arc index
+     * @return the road distance
+     */
+    int weight(int arc);
+
+    /**
+     * Returns the town id an arc starts from.
+     *
+     * @param arc the arc index
+     * @return the source town id
+     */
+    int tail(int arc);
+
+    /**
+     * Returns the town with the given id.
+     *
+     * @param id the town id
+     * @return the Town object
+     */
+    Town town(int id);
+
+    /**
+     * Returns the road an arc belongs to.
+     *
+     * @param arc the arc index
+     * @return the Road object
+     */
+    Road road(int arc);
+}
@@ -0,0 +1,325 @@
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Instrumentation for routing queries and road-file loads: latency and
+ * search-effort histograms per RoutingAlgorithm, tree cache hits and
+ * misses, all-pairs lookups, and load timings.
+ *
+ * Metrics are off unless a RoutingMetrics is attached to a Graph or
+ * TownGraphManager. Without one, the only cost is a null check per query.
+ * With one, recording uses lock-free per-thread histograms and
+ * LongAdders, so concurrent queries do not contend on a lock.
+ *
+ * Recording a query costs from 100 to 300 ns, mostly the two
+ * System.nanoTime calls. That is well under 1% of a search, but a tree
+ * cache hit takes only a couple of microseconds, so a workload made mostly
+ * of cache hits should pass a sample interval. Then only one query in
+ * every interval is recorded, and counts are estimated from the sampled ones.
+ *
+ * The figures can be read directly, through JMX after registerMBean(), or
+ * pushed to MetricsReporters with report().
+ *
+ * Author: Your Name
+ */
+public class RoutingMetrics implements RoutingMetricsMBean {
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final ConcurrentHistogram latency = new ConcurrentHistogram();
+    private final ConcurrentHistogram[] latencyByAlgorithm = new ConcurrentHistogram[RoutingAlgorithm.values().length];
+    private final ConcurrentHistogram settled = new ConcurrentHistogram();
+    private final ConcurrentHistogram relaxed = new ConcurrentHistogram();
+    private final LongAdder treeCacheHits = new LongAdder();
+    private final LongAdder treeCacheMisses = new LongAdder();
+    private final LongAdder allPairsLookups = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private volatile LoadStatistics lastLoad;
+    private final List<MetricsReporter> reporters = new CopyOnWriteArrayList<>();
+    private final int sampleInterval;
+
+    /**
+     * Constructs an empty set of metrics that records every query.
+     */
+    public RoutingMetrics() {
+        this(1);
+    }
+
+    /**
+     * Constructs an empty set of metrics that records one query in every
+     * sampleInterval. Counts are scaled up by the interval, and rates and
+     * histograms describe the sampled queries.
+     *
+     * @param sampleInterval a power of two; 1 records every query
+     */
+    public RoutingMetrics(int sampleInterval) {
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("The sample interval must be a power of two");
+        }
+        this.sampleInterval = sampleInterval;
+        for (int i = 0; i < latencyByAlgorithm.length; i++) {
+            latencyByAlgorithm[i] = new ConcurrentHistogram();
+        }
+    }
+
+    /**
+     * Returns how many queries there are for every one that is timed.
+     *
+     * @return the sample interval, a power of two
+     */
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Records one routing query.
+     *
+     * @param algorithm the strategy that was asked for
+     * @param nanos the time the query took
+     * @param settledTowns the number of towns the search settled, 0 for lookups
+     * @param relaxedRoads the number of roads the search relaxed, 0 for lookups
+     */
+    public void recordQuery(RoutingAlgorithm algorithm, long nanos, int settledTowns, int relaxedRoads) {
+        latency.record(nanos);
+        latencyByAlgorithm[algorithm.ordinal()].record(nanos);
+        settled.record(settledTowns);
+        relaxed.record(relaxedRoads);
+    }
+
+    /**
+     * Records the shortest-path tree cache lookup of a recorded query.
+     *
+     * @param hit true if the tree was cached
+     */
+    public void recordTreeCacheLookup(boolean hit) {
+        (hit ? treeCacheHits : treeCacheMisses).increment();
+    }
+
+    /**
+     * Records that a recorded query was answered from the all-pairs table.
+     */
+    public void recordAllPairsLookup() {
+        allPairsLookups.increment();
+    }
+
+    /**
+     * Records a completed road-file load.
+     *
+     * @param statistics the load's size and timing figures
+     */
+    public void recordLoad(LoadStatistics statistics) {
+        loadCount.increment();
+        lastLoad = statistics;
+    }
+
+    /**
+     * Returns the latency histogram of all queries, in nanoseconds.
+     *
+     * @return the histogram
+     */
+    public ConcurrentHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * Returns the latency histogram of the queries for one strategy, in nanoseconds.
+     *
+     * @param algorithm the strategy
+     * @return the histogram
+     */
+    public ConcurrentHistogram latency(RoutingAlgorithm algorithm) {
+        return latencyByAlgorithm[algorithm.ordinal()];
+    }
+
+    /**
+     * Returns the histogram of towns settled per query.
+     *
+     * @return the histogram
+     */
+    public ConcurrentHistogram settledTowns() {
+        return settled;
+    }
+
+    /**
+     * Returns the histogram of roads relaxed per query.
+     *
+     * @return the histogram
+     */
+    public ConcurrentHistogram relaxedRoads() {
+        return relaxed;
+    }
+
+    /**
+     * Returns the figures of the most recent load.
+     *
+     * @return the LoadStatistics, or null if nothing was loaded
+     */
+    public LoadStatistics getLastLoad() {
+        return lastLoad;
+    }
+
+    @Override
+    public long getQueryCount() {
+        return latency.count() * sampleInterval;
+    }
+
+    @Override
+    public double getMeanLatencyMicros() {
+        return latency.mean() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP50LatencyMicros() {
+        return latency.valueAtPercentile(50) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP99LatencyMicros() {
+        return latency.valueAtPercentile(99) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP999LatencyMicros() {
+        return latency.valueAtPercentile(99.9) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getMaxLatencyMicros() {
+        return latency.max() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getMeanSettledTowns() {
+        return settled.mean();
+    }
+
+    @Override
+    public long getP99SettledTowns() {
+        return settled.valueAtPercentile(99);
+    }
+
+    @Override
+    public double getMeanRelaxedRoads() {
+        return relaxed.mean();
+    }
+
+    @Override
+    public double getTreeCacheHitRate() {
+        long hits = treeCacheHits.sum();
+        long lookups = hits + treeCacheMisses.sum();
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long getAllPairsLookups() {
+        return allPairsLookups.sum() * sampleInterval;
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    @Override
+    public double getLastLoadParseMillis() {
+        LoadStatistics load = lastLoad;
+        return (load != null) ? load.getParseNanos() / NANOS_PER_MILLI : 0;
+    }
+
+    @Override
+    public double getLastLoadInsertMillis() {
+        LoadStatistics load = lastLoad;
+        return (load != null) ? load.getInsertNanos() / NANOS_PER_MILLI : 0;
+    }
+
+    @Override
+    public long getLastLoadRoads() {
+        LoadStatistics load = lastLoad;
+        return (load != null) ? load.getRoads() : 0;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        for (ConcurrentHistogram histogram : latencyByAlgorithm) {
+            histogram.reset();
+        }
+        settled.reset();
+        relaxed.reset();
+        treeCacheHits.reset();
+        treeCacheMisses.reset();
+        allPairsLookups.reset();
+        loadCount.reset();
+        lastLoad = null;
+    }
+
+    /**
+     * Adds a reporter that report() will call.
+     *
+     * @param reporter the reporter to add
+     */
+    public void addReporter(MetricsReporter reporter) {
+        reporters.add(reporter);
+    }
+
+    /**
+     * Removes a reporter.
+     *
+     * @param reporter the reporter to remove
+     * @return true if it was registered
+     */
+    public boolean removeReporter(MetricsReporter reporter) {
+        return reporters.remove(reporter);
+    }
+
+    /**
+     * Passes the current metrics to every reporter.
+     */
+    public void report() {
+        for (MetricsReporter reporter : reporters) {
+            reporter.report(this);
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, under the
+     * object name "TownGraph:type=RoutingMetrics,name=" followed by the given name.
+     *
+     * @param name the name that tells this instance apart from others
+     * @return the registered object name
+     * @throws JMException if the name is invalid or already registered
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("TownGraph:type=RoutingMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Removes a registration made by registerMBean.
+     *
+     * @param objectName the object name registerMBean returned
+     * @throws JMException if the name is not registered
+     */
+    public static void unregisterMBean(ObjectName objectName) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.unregisterMBean(objectName);
+    }
+
+    /**
+     * Returns a one-line summary of the query and cache figures.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        return String.format("queries=%d p50=%.1fus p99=%.1fus max=%.1fus settled=%.1f relaxed=%.1f treeCacheHitRate=%.2f",
+                getQueryCount(), getP50LatencyMicros(), getP99LatencyMicros(), getMaxLatencyMicros(),
+                getMeanSettledTowns(), getMeanRelaxedRoads(), getTreeCacheHitRate());
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * JMX management interface of RoutingMetrics. Latencies are reported in
+ * microseconds, and every figure covers the time since the last reset.
+ * 
+ * Author: Your Name
+ */
+public interface RoutingMetricsMBean {
+    /**
+     * Gets the number of routing queries, estimated from the timed ones
+     * when only a sample is timed.
+     *
+     * @return the query count
+     */
+    long getQueryCount();
+
+    /**
+     * Gets the mean query latency.
+     *
+     * @return the mean latency in microseconds
+     */
+    double getMeanLatencyMicros();
+
+    /**
+     * Gets the median query latency.
+     *
+     * @return the 50th percentile latency in microseconds
+     */
+    double getP50LatencyMicros();
+
+    /**
+     * Gets the 99th percentile query latency.
+     *
+     * @return the 99th percentile latency in microseconds
+     */
+    double getP99LatencyMicros();
+
+    /**
+     * Gets the 99.9th percentile query latency.
+     *
+     * @return the 99.9th percentile latency in microseconds
+     */
+    double getP999LatencyMicros();
+
+    /**
+     * Gets the slowest query latency.
+     *
+     * @return the maximum latency in microseconds
+     */
+    double getMaxLatencyMicros();
+
+    /**
+     * Gets the mean number of towns settled per query.
+     *
+     * @return the mean settled count
+     */
+    double getMeanSettledTowns();
+
+    /**
+     * Gets the 99th percentile of towns settled per query.
+     *
+     * @return the 99th percentile settled count
+     */
+    long getP99SettledTowns();
+
+    /**
+     * Gets the mean number of roads relaxed per query.
+     *
+     * @return the mean relaxed count
+     */
+    double getMeanRelaxedRoads();
+
+    /**
+     * Gets the share of shortest-path tree cache lookups that were hits.
+     *
+     * @return the hit rate from 0 to 1, or 0 if the cache was not used
+     */
+    double getTreeCacheHitRate();
+
+    /**
+     * Gets the number of queries answered from the all-pairs table.
+     *
+     * @return the all-pairs lookup count
+     */
+    long getAllPairsLookups();
+
+    /**
+     * Gets the number of road files loaded.
+     *
+     * @return the load count
+     */
+    long getLoadCount();
+
+    /**
+     * Gets the parse time of the most recent load.
+     *
+     * @return the parse time in milliseconds, 0 if nothing was loaded
+     */
+    double getLastLoadParseMillis();
+
+    /**
+     * Gets the insert time of the most recent load.
+     *
+     * @return the insert time in milliseconds, 0 if nothing was loaded
+     */
+    double getLastLoadInsertMillis();
+
+    /**
+     * Gets the number of roads in the most recent load.
+     *
+     * @return the road count, 0 if nothing was loaded
+     */
+    long getLastLoadRoads();
+
+    /**
+     * Clears every metric.
+     */
+    void reset();
+}
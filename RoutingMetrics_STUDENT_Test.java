@@ -0,0 +1,138 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This class tests the functionality of the RoutingMetrics class through
+ * a TownGraphManager.
+ *
+ * Author: Your Name
+ */
+public class RoutingMetrics_STUDENT_Test {
+    private TownGraphManager manager;
+    private RoutingMetrics metrics;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a 100-town grid with metrics attached.
+     */
+    @Before
+    public void setUp() {
+        manager = new TownGraphManager();
+        new RoadNetworkGenerator(RoadNetworkGenerator.Topology.GRID, 100, 1).populate(manager);
+        metrics = new RoutingMetrics();
+        manager.setMetrics(metrics);
+    }
+
+    /**
+     * Tests that queries record latency, search effort and tree cache lookups.
+     */
+    @Test
+    public void testQueriesAreRecorded() {
+        manager.getPath("T0", "T99");
+        manager.getPath("T0", "T11");
+        assertEquals(2, metrics.getQueryCount());
+        assertEquals(0, metrics.getTreeCacheHitRate(), 1e-9);
+        // Point-to-point searches stop at the destination.
+        assertTrue(metrics.settledTowns().max() <= 100);
+        assertTrue(metrics.settledTowns().mean() < metrics.settledTowns().max());
+        assertTrue(metrics.relaxedRoads().max() > 0);
+        assertTrue(metrics.getMaxLatencyMicros() > 0);
+
+        manager.getRoute("T5", "T6", RoutingAlgorithm.BIDIRECTIONAL_DIJKSTRA);
+        assertEquals(1, metrics.latency(RoutingAlgorithm.BIDIRECTIONAL_DIJKSTRA).count());
+        assertEquals(2, metrics.latency(RoutingAlgorithm.DIJKSTRA).count());
+
+        metrics.reset();
+        assertEquals(0, metrics.getQueryCount());
+        manager.setMetrics(null);
+        manager.getPath("T0", "T99");
+        assertEquals(0, metrics.getQueryCount());
+    }
+
+    /**
+     * Tests that a query from a source whose tree was computed counts as a
+     * tree cache hit, and one from another source as a miss.
+     */
+    @Test
+    public void testTreeCacheLookups() {
+        Graph graph = new Graph();
+        Town a = new Town("A");
+        Town b = new Town("B");
+        Town c = new Town("C");
+        graph.addVertex(a);
+        graph.addVertex(b);
+        graph.addVertex(c);
+        graph.addEdge(a, b, 5, "AB");
+        graph.addEdge(b, c, 4, "BC");
+        graph.setMetrics(metrics);
+        graph.dijkstraShortestPath(a);
+        graph.shortestPath(a, c);
+        graph.shortestPath(b, c);
+        assertEquals(0.5, metrics.getTreeCacheHitRate(), 1e-9);
+        assertEquals(1, graph.getTreeCacheMisses());
+    }
+
+    /**
+     * Tests that a sample interval records one query in every interval and scales the count.
+     */
+    @Test
+    public void testSampling() {
+        RoutingMetrics sampled = new RoutingMetrics(4);
+        manager.setMetrics(sampled);
+        for (int i = 0; i < 12; i++) {
+            manager.getPath("T" + i, "T99");
+        }
+        assertEquals(3, sampled.latency().count());
+        assertEquals(12, sampled.getQueryCount());
+    }
+
+    /**
+     * Tests that a load is recorded and that reporters receive the metrics.
+     */
+    @Test
+    public void testLoadAndReporters() throws IOException {
+        File file = File.createTempFile("roads", ".txt");
+        try {
+            new RoadNetworkGenerator(RoadNetworkGenerator.Topology.GRID, 25, 2).writeTo(file);
+            TownGraphManager loaded = new TownGraphManager();
+            loaded.setMetrics(metrics);
+            loaded.populateTownGraph(file);
+        } finally {
+            file.delete();
+        }
+        assertEquals(1, metrics.getLoadCount());
+        assertEquals(40, metrics.getLastLoadRoads());
+
+        List<Long> reported = new ArrayList<>();
+        MetricsReporter reporter = m -> reported.add(m.getLoadCount());
+        metrics.addReporter(reporter);
+        metrics.report();
+        assertTrue(metrics.removeReporter(reporter));
+        metrics.report();
+        assertEquals(1, reported.size());
+    }
+
+    /**
+     * Tests that the metrics can be read through the platform MBean server.
+     */
+    @Test
+    public void testMBean() throws JMException {
+        manager.getPath("T0", "T99");
+        ObjectName name = metrics.registerMBean("test");
+        try {
+            Object count = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "QueryCount");
+            assertEquals(1L, count);
+        } finally {
+            RoutingMetrics.unregisterMBean(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,243 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A complete single-source shortest-path tree over a CompactTownGraph.
+ * For every town it holds the distance from the source, its parent in the
+ * tree and the road that leads into it, so paths to any destination can be
+ * read off without searching again.
+ *
+ * When a road is added or removed the tree can be repaired in place, in the
+ * style of Ramalingam and Reps: only towns whose distance actually changes
+ * are searched again. A removed tree road detaches the subtree below it,
+ * which is re-attached from its unaffected neighbors; a new or shorter road
+ * pushes improvements outward from its endpoints. Repairs read the live
+ * adjacency of the Graph, so the tree keeps using the town ids of the
+ * snapshot it was built on; they are only valid while the set of towns
+ * stays the same.
+ *
+ * Author: Your Name
+ */
+public class ShortestPathTree {
+    private final CompactTownGraph graph;
+    private final int source;
+    private final int[] distances;
+    private final int[] parents;
+    private final Road[] roads;
+
+    /**
+     * Computes the tree rooted at a source town.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     */
+    public ShortestPathTree(CompactTownGraph graph, int source) {
+        this(graph, source, null);
+    }
+
+    /**
+     * Computes the tree rooted at a source town with a parallel search.
+     *
+     * @param graph the snapshot to search
+     * @param source the source town id
+     * @param search the Delta-stepping search to compute the tree with, or
+     *               null for sequential Dijkstra
+     */
+    public ShortestPathTree(CompactTownGraph graph, int source, DeltaSteppingSearch search) {
+        this.graph = graph;
+        this.source = source;
+        int n = graph.size();
+        distances = new int[n];
+        parents = new int[n];
+        roads = new Road[n];
+        int[] previousArcs = new int[n];
+        if (search != null) {
+            search.run(graph, source);
+            search.copyTree(distances, previousArcs);
+        } else {
+            graph.shortestPathTree(source, distances, previousArcs);
+        }
+
+        // Scanning the arcs finds each parent without looking up arc tails.
+        Arrays.fill(parents, CompactTownGraph.NONE);
+        for (int u = 0; u < n; u++) {
+            for (int arc = graph.firstArc(u), end = graph.endArc(u); arc < end; arc++) {
+                int v = graph.target(arc);
+                if (v != u && previousArcs[v] == arc) {
+                    parents[v] = u;
+                    roads[v] = graph.road(arc);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the snapshot whose town ids the tree uses.
+     *
+     * @return the snapshot the tree was built on
+     */
+    public CompactTownGraph graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the id of the tree's source town.
+     *
+     * @return the source id
+     */
+    public int source() {
+        return source;
+    }
+
+    /**
+     * Returns the distance from the source to a town.
+     *
+     * @param v the town id
+     * @return the distance, or UNREACHABLE if there is no path
+     */
+    public int distance(int v) {
+        return distances[v];
+    }
+
+    /**
+     * Returns the town before a town on its shortest path.
+     *
+     * @param v the town id
+     * @return the parent's id, or NONE for the source and unreachable towns
+     */
+    public int parent(int v) {
+        return parents[v];
+    }
+
+    /**
+     * Returns the road that leads into a town on its shortest path.
+     *
+     * @param v the town id
+     * @return the Road, or null for the source and unreachable towns
+     */
+    public Road road(int v) {
+        return roads[v];
+    }
+
+    /**
+     * Returns the route from the source to a destination.
+     *
+     * @param destination the destination town id
+     * @return the Route, or null if the destination cannot be reached
+     */
+    public Route route(int destination) {
+        if (distances[destination] == CompactTownGraph.UNREACHABLE) return null;
+        Route.Builder route = new Route.Builder(graph, source);
+        for (int v = destination; parents[v] != CompactTownGraph.NONE; v = parents[v]) {
+            route.add(roads[v], v);
+        }
+        return route.reverse(0).build();
+    }
+
+    /**
+     * Describes the path from the source to a destination in the
+     * "from via road to to N mi" format.
+     *
+     * @param destination the destination town id
+     * @return an ArrayList of Strings describing the path, empty if there is none
+     */
+    public ArrayList<String> describePath(int destination) {
+        Route route = route(destination);
+        return (route != null) ? route.toSteps() : new ArrayList<>();
+    }
+
+    /**
+     * Updates the tree for a road that was added, or that replaced a longer one.
+     *
+     * @param road the new road
+     * @param adjacency the graph's current adjacency
+     * @param heap a scratch queue
+     * @return true if any distance changed
+     */
+    boolean roadAdded(Road road, Map<Town, Map<Town, Road>> adjacency, IndexedMinHeap heap) {
+        int u = graph.idOf(road.getSource());
+        int v = graph.idOf(road.getDestination());
+        if (u == CompactTownGraph.NONE || v == CompactTownGraph.NONE || u == v) return false;
+
+        heap.ensureCapacity(distances.length);
+        heap.clear();
+        offer(heap, v, u, road);
+        offer(heap, u, v, road);
+        if (heap.isEmpty()) return false;
+        propagate(heap, adjacency);
+        return true;
+    }
+
+    /**
+     * Updates the tree for a road that was removed. Nothing is searched unless
+     * the road was part of the tree.
+     *
+     * @param road the removed road
+     * @param adjacency the graph's current adjacency, without the road
+     * @param heap a scratch queue
+     * @return true if the road was part of the tree
+     */
+    boolean roadRemoved(Road road, Map<Town, Map<Town, Road>> adjacency, IndexedMinHeap heap) {
+        int u = graph.idOf(road.getSource());
+        int v = graph.idOf(road.getDestination());
+        if (u == CompactTownGraph.NONE || v == CompactTownGraph.NONE) return false;
+        int child;
+        if (roads[v] == road && parents[v] == u) child = v;
+        else if (roads[u] == road && parents[u] == v) child = u;
+        else return false;
+
+        // Collect the subtree that hung from the road.
+        int[] affected = new int[16];
+        int count = 0;
+        affected[count++] = child;
+        for (int i = 0; i < count; i++) {
+            int current = affected[i];
+            for (Map.Entry<Town, Road> entry : adjacency.get(graph.town(current)).entrySet()) {
+                int x = graph.idOf(entry.getKey());
+                if (parents[x] == current && roads[x] == entry.getValue()) {
+                    if (count == affected.length) affected = Arrays.copyOf(affected, count * 2);
+                    affected[count++] = x;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int x = affected[i];
+            distances[x] = CompactTownGraph.UNREACHABLE;
+            parents[x] = CompactTownGraph.NONE;
+            roads[x] = null;
+        }
+
+        // Re-attach it through its best unaffected neighbors, then settle it in distance order.
+        heap.ensureCapacity(distances.length);
+        heap.clear();
+        for (int i = 0; i < count; i++) {
+            int x = affected[i];
+            for (Map.Entry<Town, Road> entry : adjacency.get(graph.town(x)).entrySet()) {
+                offer(heap, x, graph.idOf(entry.getKey()), entry.getValue());
+            }
+        }
+        propagate(heap, adjacency);
+        return true;
+    }
+
+    private void offer(IndexedMinHeap heap, int to, int from, Road road) {
+        if (distances[from] == CompactTownGraph.UNREACHABLE) return;
+        int distance = distances[from] + road.getDistance();
+        if (distance < distances[to]) {
+            distances[to] = distance;
+            parents[to] = from;
+            roads[to] = road;
+            heap.insertOrDecrease(to, distance);
+        }
+    }
+
+    private void propagate(IndexedMinHeap heap, Map<Town, Map<Town, Road>> adjacency) {
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            for (Map.Entry<Town, Road> entry : adjacency.get(graph.town(current)).entrySet()) {
+                offer(heap, graph.idOf(entry.getKey()), current, entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * This class tests the incremental repair of ShortestPathTree when roads are
+ * closed and reopened, comparing repaired trees with fresh searches.
+ *
+ * Author: Your Name
+ */
+public class ShortestPathTree_STUDENT_Test {
+    private Graph graph;
+    private Town[] towns;
+    private Random random;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates a random graph of 150 towns and 300 roads.
+     */
+    @Before
+    public void setUp() {
+        graph = new Graph();
+        random = new Random(3);
+        towns = new Town[150];
+        for (int i = 0; i < towns.length; i++) {
+            towns[i] = new Town("T" + i);
+            graph.addVertex(towns[i]);
+        }
+        for (int i = 0; i < 300; i++) {
+            graph.addEdge(towns[random.nextInt(towns.length)], towns[random.nextInt(towns.length)],
+                    1 + random.nextInt(20), "R" + i);
+        }
+    }
+
+    /**
+     * Tests that cached trees stay correct through a stream of road closures
+     * and reopenings, without being recomputed.
+     */
+    @Test
+    public void testRepairMatchesFreshSearch() {
+        List<ShortestPathTree> trees = new ArrayList<>();
+        for (int s = 0; s < 10; s++) {
+            trees.add(graph.shortestPathTree(towns[s * 13]));
+        }
+        List<Road> closed = new ArrayList<>();
+        for (int step = 0; step < 200; step++) {
+            if (closed.isEmpty() || random.nextBoolean()) {
+                Road road = randomRoad();
+                graph.removeEdge(road.getSource(), road.getDestination(), road.getDistance(), road.getName());
+                closed.add(road);
+            } else {
+                Road road = closed.remove(random.nextInt(closed.size()));
+                graph.addEdge(road.getSource(), road.getDestination(), road.getDistance(), road.getName());
+            }
+            if (step % 20 == 0) {
+                assertTreesMatch(trees);
+            }
+        }
+        assertTreesMatch(trees);
+        assertEquals(10, graph.getTreeCacheMisses());
+    }
+
+    /**
+     * Tests that a road off the tree does not change it, and that a shorter
+     * replacement road is picked up.
+     */
+    @Test
+    public void testUnaffectedAndReplacedRoads() {
+        graph.addEdge(towns[0], towns[1], 100, "Long");
+        ShortestPathTree tree = graph.shortestPathTree(towns[0]);
+        int before = tree.distance(tree.graph().idOf(towns[1]));
+
+        graph.addEdge(towns[1], towns[0], 1, "Short");
+        int v = tree.graph().idOf(towns[1]);
+        assertSame(tree, graph.shortestPathTree(towns[0]));
+        assertEquals(Math.min(before, 1), tree.distance(v));
+        assertTreesMatch(Collections.singletonList(tree));
+    }
+
+    private Road randomRoad() {
+        while (true) {
+            Set<Road> roads = graph.edgesOf(towns[random.nextInt(towns.length)]);
+            if (!roads.isEmpty()) return roads.iterator().next();
+        }
+    }
+
+    private void assertTreesMatch(List<ShortestPathTree> trees) {
+        CompactTownGraph snapshot = graph.freeze();
+        DijkstraSearch search = new DijkstraSearch();
+        for (ShortestPathTree tree : trees) {
+            search.run(snapshot, snapshot.idOf(tree.graph().town(tree.source())));
+            for (Town town : towns) {
+                int v = tree.graph().idOf(town);
+                int expected = search.distance(snapshot.idOf(town));
+                assertEquals(expected, tree.distance(v));
+                if (tree.parent(v) != CompactTownGraph.NONE) {
+                    Road road = tree.road(v);
+                    assertSame(road, graph.getEdge(tree.graph().town(tree.parent(v)), town));
+                    assertEquals(expected, tree.distance(tree.parent(v)) + road.getDistance());
+                }
+            }
+        }
+    }
+}
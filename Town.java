@@ -74,13 +74,15 @@ public class Town implements Comparable<Town> {
     }
 
     /**
-     * Generates a hash code for the town based on its name.
+     * Generates a hash code for the town based on its name. This is the value
+     * Objects.hash(name) gives, without allocating its varargs array; String
+     * caches its own hash, so nothing is recomputed either.
      * 
      * @return the hash code
      */
     @Override
     public int hashCode() {
-        return Objects.hash(name);
+        return 31 + Objects.hashCode(name);
     }
 
     /**
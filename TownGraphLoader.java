@@ -0,0 +1,273 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * High-throughput reader for road files in the populateTownGraph format:
+ * one "road-name,distance;town1;town2" entry per line.
+ *
+ * The file is memory-mapped and cut into chunks at line boundaries. Chunks are
+ * parsed in parallel straight from the mapped bytes, without regular
+ * expressions or String.split, and the parsed roads are then inserted into a
+ * TownGraphManager in file order. Lines are accepted and rejected exactly as
+ * the Scanner-based loader did: a line needs three ';'-separated fields
+ * (ignoring trailing empty ones), and the road name and distance are the
+ * first two ','-separated parts of the first field.
+ *
+ * Author: Your Name
+ */
+public class TownGraphLoader {
+    /** Default number of bytes each parse task works on. */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a loader that parses 8 MB chunks on the common ForkJoinPool.
+     */
+    public TownGraphLoader() {
+        this(DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a loader with a custom chunk size and thread pool.
+     *
+     * @param chunkSize the number of bytes per parse task
+     * @param pool the pool to parse on
+     */
+    public TownGraphLoader(int chunkSize, ForkJoinPool pool) {
+        if (chunkSize <= 0) throw new IllegalArgumentException();
+        this.chunkSize = chunkSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Reads a road file and adds its towns and roads to a manager in one
+     * GraphBatch, so the graph changes version once, and a mutation log
+     * attached to the manager syncs once, for the whole file.
+     *
+     * @param file the file to read
+     * @param manager the manager receiving the towns and roads
+     * @return timing and size figures for the load
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public LoadStatistics load(File file, TownGraphManager manager) throws FileNotFoundException {
+        // addRoad creates missing towns, so the separate addTown calls are not needed.
+        GraphBatch batch = manager.beginBatch();
+        return load(file, batch::addRoad, batch::commit);
+    }
+
+    /**
+     * Reads a road file and passes every road, in file order, to a consumer
+     * such as ArrayGraph::addRoad.
+     *
+     * @param file the file to read
+     * @param consumer the receiver of the roads
+     * @return timing and size figures for the load
+     * @throws FileNotFoundException if the file does not exist
+     */
+    public LoadStatistics load(File file, RoadConsumer consumer) throws FileNotFoundException {
+        return load(file, consumer, () -> { });
+    }
+
+    /**
+     * Reads a road file, passes every road to a consumer and then runs a
+     * final step, such as a batch commit, that counts as insert time.
+     */
+    private LoadStatistics load(File file, RoadConsumer consumer, Runnable finish) throws FileNotFoundException {
+        long start = System.nanoTime();
+        List<ParsedRoads> chunks = parse(file);
+        long parsed = System.nanoTime();
+
+        int roads = 0;
+        for (ParsedRoads chunk : chunks) {
+            for (int i = 0; i < chunk.size; i++) {
+                consumer.road(chunk.town1[i], chunk.town2[i], chunk.distances[i], chunk.names[i]);
+            }
+            roads += chunk.size;
+        }
+        finish.run();
+        long inserted = System.nanoTime();
+        return new LoadStatistics(file.length(), roads, parsed - start, inserted - parsed);
+    }
+
+    /**
+     * Receives the roads read from a file.
+     */
+    public interface RoadConsumer {
+        /**
+         * Accepts one road.
+         *
+         * @param town1 the name of the first town
+         * @param town2 the name of the second town
+         * @param distance the road distance
+         * @param roadName the name of the road
+         */
+        void road(String town1, String town2, int distance, String roadName);
+    }
+
+    private List<ParsedRoads> parse(File file) throws FileNotFoundException {
+        if (!file.isFile()) throw new FileNotFoundException(file.getPath());
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunkCount = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+            return pool.submit(() -> IntStream.range(0, chunkCount).parallel()
+                    .mapToObj(i -> parseChunk(channel, size, (long) i * chunkSize, Math.min(size, (long) (i + 1) * chunkSize)))
+                    .collect(Collectors.toList())).get();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Parses every line that starts inside [start, end). The last line may run
+     * past end, so the mapping extends to the end of the file (or 2 GB).
+     */
+    private static ParsedRoads parseChunk(FileChannel channel, long fileSize, long start, long end) {
+        // Back up one byte so a chunk can tell whether it begins on a line start.
+        long mapStart = Math.max(0, start - 1);
+        long mapLength = Math.min(fileSize - mapStart, Integer.MAX_VALUE);
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int limit = (int) mapLength;
+        int chunkEnd = (int) (end - mapStart);
+        int position = (int) (start - mapStart);
+        if (start > 0 && !isLineEnd(buffer.get(0))) {
+            // The line in progress belongs to the previous chunk.
+            while (position < limit && !isLineEnd(buffer.get(position))) position++;
+            position++;
+        }
+
+        // "\r\n" shows up as an extra empty line, which is skipped like any other.
+        ParsedRoads roads = new ParsedRoads();
+        LineParser parser = new LineParser();
+        while (position < chunkEnd) {
+            int lineEnd = position;
+            while (lineEnd < limit && !isLineEnd(buffer.get(lineEnd))) lineEnd++;
+            parser.parse(buffer, position, lineEnd, roads);
+            position = lineEnd + 1;
+        }
+        return roads;
+    }
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /**
+     * Splits one line into fields, mirroring String.split semantics.
+     */
+    private static class LineParser {
+        private int[] fieldStarts = new int[8];
+        private int[] fieldEnds = new int[8];
+        private byte[] text = new byte[64];
+
+        void parse(MappedByteBuffer buffer, int start, int end, ParsedRoads roads) {
+            int fields = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end; i++) {
+                if (i == end || buffer.get(i) == ';') {
+                    if (fields == fieldStarts.length) {
+                        fieldStarts = Arrays.copyOf(fieldStarts, fields * 2);
+                        fieldEnds = Arrays.copyOf(fieldEnds, fields * 2);
+                    }
+                    fieldStarts[fields] = fieldStart;
+                    fieldEnds[fields++] = i;
+                    fieldStart = i + 1;
+                }
+            }
+            // String.split drops trailing empty fields.
+            while (fields > 0 && fieldStarts[fields - 1] == fieldEnds[fields - 1]) fields--;
+            if (fields != 3) return;
+
+            int nameEnd = indexOf(buffer, fieldStarts[0], fieldEnds[0], (byte) ',');
+            int distanceEnd = (nameEnd < 0) ? -1 : indexOf(buffer, nameEnd + 1, fieldEnds[0], (byte) ',');
+            if (distanceEnd < 0) distanceEnd = fieldEnds[0];
+            if (nameEnd < 0 || nameEnd + 1 == distanceEnd) {
+                throw new NumberFormatException("Missing distance: " + string(buffer, start, end));
+            }
+
+            roads.add(string(buffer, fieldStarts[0], nameEnd),
+                    parseInt(buffer, nameEnd + 1, distanceEnd),
+                    string(buffer, fieldStarts[1], fieldEnds[1]),
+                    string(buffer, fieldStarts[2], fieldEnds[2]));
+        }
+
+        private static int indexOf(MappedByteBuffer buffer, int from, int to, byte b) {
+            for (int i = from; i < to; i++) {
+                if (buffer.get(i) == b) return i;
+            }
+            return -1;
+        }
+
+        private int parseInt(MappedByteBuffer buffer, int from, int to) {
+            int value = 0;
+            boolean simple = to - from <= 9;
+            for (int i = from; i < to && simple; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') simple = false;
+                else value = value * 10 + (b - '0');
+            }
+            // Signs, very long numbers and bad input take the slow path so errors match Integer.parseInt.
+            return simple ? value : Integer.parseInt(string(buffer, from, to));
+        }
+
+        private String string(MappedByteBuffer buffer, int from, int to) {
+            int length = to - from;
+            if (text.length < length) text = new byte[Math.max(length, text.length * 2)];
+            for (int i = 0; i < length; i++) {
+                text[i] = buffer.get(from + i);
+            }
+            return new String(text, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Roads parsed from one chunk, kept in parallel arrays.
+     */
+    private static class ParsedRoads {
+        private String[] names = new String[64];
+        private int[] distances = new int[64];
+        private String[] town1 = new String[64];
+        private String[] town2 = new String[64];
+        private int size;
+
+        void add(String name, int distance, String first, String second) {
+            if (size == names.length) {
+                int capacity = size * 2;
+                names = Arrays.copyOf(names, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+                town1 = Arrays.copyOf(town1, capacity);
+                town2 = Arrays.copyOf(town2, capacity);
+            }
+            names[size] = name;
+            distances[size] = distance;
+            town1[size] = first;
+            town2[size] = second;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class tests the functionality of the TownGraphLoader class,
+ * comparing it with the original Scanner and String.split loader on
+ * tricky input and on chunk boundaries that fall inside lines.
+ * 
+ * Author: Your Name
+ */
+public class TownGraphLoader_STUDENT_Test {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Tests line endings, blank lines, trailing separators and lines that
+     * the original loader skipped.
+     */
+    @Test
+    public void testMatchesScannerLoaderOnEdgeCases() throws IOException {
+        File file = write("I-95,12;Baltimore;Washington\r\n"
+                + "\n"
+                + "Route 1,5;Washington;Alexandria;\n"
+                + "skipped line without fields\n"
+                + "Too,3;many;fields;here\n"
+                + "Beltway,7,extra;Baltimore;Towson\r"
+                + "Duplicate,99;Washington;Baltimore\n"
+                + "Last,+4;Towson;Alexandria");
+        assertSameGraph(file, 5);
+    }
+
+    /**
+     * Tests that a manager is filled in one batch, so an attached mutation
+     * log syncs once for the whole file, and that the log replays it.
+     */
+    @Test
+    public void testLoadsInOneBatch() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("Road ").append(i).append(',').append(i + 1).append(";Town ").append(i)
+                .append(";Town ").append(i + 1).append('\n');
+        }
+        File file = write(text.toString());
+        File directory = folder.newFolder("log");
+        TownGraphManager manager = new TownGraphManager();
+        try (MutationLog log = MutationLog.open(directory)) {
+            manager.recover(log);
+            long syncs = log.syncCount();
+            manager.populateTownGraph(file);
+            assertEquals(syncs + 1, log.syncCount());
+            assertEquals(200, log.lastLsn());
+        }
+        assertEquals(201, manager.allTowns().size());
+
+        TownGraphManager restarted = new TownGraphManager();
+        try (MutationLog log = MutationLog.open(directory)) {
+            assertEquals(200, restarted.recover(log));
+        }
+        assertEquals(manager.allRoads(), restarted.allRoads());
+    }
+
+    /**
+     * Tests many random lines parsed with tiny chunks, so most lines are
+     * split between two parse tasks.
+     */
+    @Test
+    public void testMatchesScannerLoaderAcrossChunks() throws IOException {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(17);
+        for (int i = 0; i < 500; i++) {
+            text.append("Road ").append(i).append(',').append(random.nextInt(1000)).append(';')
+                .append("Town ").append(random.nextInt(120)).append(';')
+                .append("Town ").append(random.nextInt(120)).append('\n');
+        }
+        File file = write(text.toString());
+        assertSameGraph(file, 7);
+        assertSameGraph(file, 4096);
+    }
+
+    /**
+     * Tests that the manager reports load statistics and a missing file fails.
+     */
+    @Test
+    public void testStatisticsAndMissingFile() throws IOException {
+        File file = write("A1,1;A;B\nB1,2;B;C\n");
+        TownGraphManager manager = new TownGraphManager();
+        manager.populateTownGraph(file);
+        assertEquals(2, manager.getLastLoadStatistics().getRoads());
+        assertEquals(file.length(), manager.getLastLoadStatistics().getBytes());
+
+        try {
+            manager.populateTownGraph(new File(folder.getRoot(), "missing.txt"));
+            fail("Expected FileNotFoundException");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+    }
+
+    private File write(String text) throws IOException {
+        File file = folder.newFile();
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(text);
+        }
+        return file;
+    }
+
+    private void assertSameGraph(File file, int chunkSize) throws FileNotFoundException {
+        TownGraphManager expected = new TownGraphManager();
+        scannerLoad(expected, file);
+        TownGraphManager actual = new TownGraphManager();
+        LoadStatistics statistics = new TownGraphLoader(chunkSize, ForkJoinPool.commonPool()).load(file, actual);
+
+        assertEquals(expected.allTowns(), actual.allTowns());
+        assertEquals(expected.allRoads(), actual.allRoads());
+        for (String town1 : expected.allTowns()) {
+            for (String town2 : expected.allTowns()) {
+                assertEquals(expected.getRoad(town1, town2), actual.getRoad(town1, town2));
+            }
+        }
+        assertTrue(statistics.getRoads() >= expected.allRoads().size());
+    }
+
+    /**
+     * The loader TownGraphManager used before TownGraphLoader existed.
+     */
+    private void scannerLoad(TownGraphManager manager, File file) throws FileNotFoundException {
+        Scanner scanner = new Scanner(file);
+        while (scanner.hasNextLine()) {
+            String[] parts = scanner.nextLine().split(";");
+            if (parts.length == 3) {
+                String[] roadParts = parts[0].split(",");
+                manager.addTown(parts[1]);
+                manager.addTown(parts[2]);
+                manager.addRoad(parts[1], parts[2], Integer.parseInt(roadParts[1]), roadParts[0]);
+            }
+        }
+        scanner.close();
+    }
+}
@@ -1,30 +1,47 @@
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * This class manages a graph of towns and roads using the Graph class.
  * It provides methods to add towns, add roads, find paths, delete connections, 
  * and populate the graph from a file.
  * 
+ * Town names are resolved through a name-to-Town index kept in step with the
+ * graph, so every operation finds its towns in constant time.
+ * 
+ * Changes can be kept across restarts with a MutationLog: recover(log) rebuilds
+ * the graph from the log and attaches it, after which every change is logged
+ * before it is applied.
+ * 
  * Author: Your Name
  */
 public class TownGraphManager implements TownGraphManagerInterface {
     private Graph graph;
+    private Map<String, Town> townsByName;
+    private RoutingAlgorithm routingAlgorithm = RoutingAlgorithm.DIJKSTRA;
+    private LoadStatistics lastLoadStatistics;
+    private MutationLog log;
 
     /**
      * Constructs a new TownGraphManager with an empty graph.
      */
     public TownGraphManager() {
         graph = new Graph();
+        townsByName = new HashMap<>();
     }
 
     /**
-     * Adds a road (edge) between two towns.
+     * Adds a road (edge) between two towns, replacing any road that already
+     * joins them.
      * 
      * @param town1 the name of the first town
      * @param town2 the name of the second town
@@ -34,17 +51,21 @@ public class TownGraphManager implements TownGraphManagerInterface {
      */
     @Override
     public boolean addRoad(String town1, String town2, int weight, String roadName) {
+        logAhead(new GraphBatch.Mutation(GraphBatch.Kind.ADD_ROAD, town1, town2, weight, roadName));
         Town source = getTown(town1);
         Town destination = getTown(town2);
         if (source == null) {
             source = new Town(town1);
             graph.addVertex(source);
+            townsByName.put(town1, source);
         }
         if (destination == null) {
             destination = new Town(town2);
             graph.addVertex(destination);
+            townsByName.put(town2, destination);
         }
         graph.addEdge(source, destination, weight, roadName);
+        snapshotIfDue();
         return true;
     }
 
@@ -71,24 +92,24 @@ public class TownGraphManager implements TownGraphManagerInterface {
      */
     @Override
     public boolean addTown(String v) {
+        if (containsTown(v)) return false;
+        logAhead(new GraphBatch.Mutation(GraphBatch.Kind.ADD_TOWN, v, null, 0, null));
         Town town = new Town(v);
-        return graph.addVertex(town);
+        graph.addVertex(town);
+        townsByName.put(v, town);
+        snapshotIfDue();
+        return true;
     }
 
     /**
-     * Retrieves a Town object by its name.
+     * Retrieves a Town object by its name from the name index.
      * 
      * @param name the name of the town
      * @return the Town object if found, otherwise null
      */
     @Override
     public Town getTown(String name) {
-        for (Town town : graph.vertexSet()) {
-            if (town.getName().equals(name)) {
-                return town;
-            }
-        }
-        return null;
+        return townsByName.get(name);
     }
 
     /**
@@ -99,7 +120,7 @@ public class TownGraphManager implements TownGraphManagerInterface {
      */
     @Override
     public boolean containsTown(String v) {
-        return graph.containsVertex(new Town(v));
+        return townsByName.containsKey(v);
     }
 
     /**
@@ -116,6 +137,32 @@ public class TownGraphManager implements TownGraphManagerInterface {
         return graph.containsEdge(source, destination);
     }
 
+    /**
+     * Checks whether a chain of roads connects two towns. This is answered
+     * from the graph's connected-components index without a search, and
+     * getPath uses the same check to return at once for unreachable towns.
+     * 
+     * @param town1 the name of the first town
+     * @param town2 the name of the second town
+     * @return true if both towns exist and are connected, otherwise false
+     */
+    public boolean isReachable(String town1, String town2) {
+        Town source = getTown(town1);
+        Town destination = getTown(town2);
+        return source != null && destination != null && graph.isReachable(source, destination);
+    }
+
+    /**
+     * Returns the minimum spanning forest of the road network, the shortest set
+     * of roads that keeps every connected pair of towns connected, with its
+     * total distance. Roads outside it can be closed without cutting any town off.
+     * 
+     * @return the MinimumSpanningForest
+     */
+    public MinimumSpanningForest minimumSpanningForest() {
+        return graph.minimumSpanningForest();
+    }
+
     /**
      * Returns a list of all road names in the graph, sorted alphabetically.
      * 
@@ -141,10 +188,11 @@ public class TownGraphManager implements TownGraphManagerInterface {
      */
     @Override
     public boolean deleteRoadConnection(String town1, String town2, String road) {
-        Town source = getTown(town1);
-        Town destination = getTown(town2);
-        Road removedRoad = graph.removeEdge(source, destination, -1, road);
-        return removedRoad != null;
+        if (!containsRoadConnection(town1, town2)) return false;
+        logAhead(new GraphBatch.Mutation(GraphBatch.Kind.DELETE_ROAD, town1, town2, 0, road));
+        graph.removeEdge(getTown(town1), getTown(town2), -1, road);
+        snapshotIfDue();
+        return true;
     }
 
     /**
@@ -155,8 +203,12 @@ public class TownGraphManager implements TownGraphManagerInterface {
      */
     @Override
     public boolean deleteTown(String v) {
-        Town town = getTown(v);
-        return graph.removeVertex(town);
+        if (!containsTown(v)) return false;
+        logAhead(new GraphBatch.Mutation(GraphBatch.Kind.DELETE_TOWN, v, null, 0, null));
+        graph.removeVertex(getTown(v));
+        townsByName.remove(v);
+        snapshotIfDue();
+        return true;
     }
 
     /**
@@ -176,6 +228,8 @@ public class TownGraphManager implements TownGraphManagerInterface {
 
     /**
      * Returns the shortest path between two towns as a list of steps.
+     * The graph answers from its compact snapshot, which is only rebuilt
+     * after the road network changes.
      * 
      * @param town1 the name of the starting town
      * @param town2 the name of the destination town
@@ -183,37 +237,310 @@ public class TownGraphManager implements TownGraphManagerInterface {
      */
     @Override
     public ArrayList<String> getPath(String town1, String town2) {
-        Town source = getTown(town1);
-        Town destination = getTown(town2);
-        List<String> path = graph.shortestPath(source, destination);
-        return new ArrayList<>(path);
+        return getPath(town1, town2, routingAlgorithm);
+    }
+
+    /**
+     * Returns the shortest path between two towns using the given search strategy.
+     * 
+     * @param town1 the name of the starting town
+     * @param town2 the name of the destination town
+     * @param algorithm the search strategy to use
+     * @return an ArrayList of Strings describing the path
+     */
+    public ArrayList<String> getPath(String town1, String town2, RoutingAlgorithm algorithm) {
+        Route route = getRoute(town1, town2, algorithm);
+        return (route != null) ? route.toSteps() : new ArrayList<>();
+    }
+
+    /**
+     * Finds the shortest route between two towns with the default search
+     * strategy, without rendering it. Use this when only the distance or the
+     * towns along the way are needed.
+     * 
+     * @param town1 the name of the starting town
+     * @param town2 the name of the destination town
+     * @return the Route, or null if there is no path
+     */
+    public Route getRoute(String town1, String town2) {
+        return getRoute(town1, town2, routingAlgorithm);
+    }
+
+    /**
+     * Finds the shortest route between two towns using the given search strategy.
+     * 
+     * @param town1 the name of the starting town
+     * @param town2 the name of the destination town
+     * @param algorithm the search strategy to use
+     * @return the Route, or null if there is no path
+     */
+    public Route getRoute(String town1, String town2, RoutingAlgorithm algorithm) {
+        return graph.route(getTown(town1), getTown(town2), algorithm);
+    }
+
+    /**
+     * Begins a batch of changes that commit() applies to the graph at once,
+     * with one version change, so a large update rebuilds the caches and the
+     * routing snapshot once instead of once per change.
+     *
+     * @return an empty GraphBatch
+     */
+    public GraphBatch beginBatch() {
+        return new GraphBatch(this::apply);
+    }
+
+    private int apply(GraphBatch batch) {
+        if (log != null && batch.size() > 0) {
+            long lsn = 0;
+            for (GraphBatch.Mutation mutation : batch.mutations()) {
+                lsn = log.append(mutation);
+            }
+            // One sync for the whole batch, before any of it is applied.
+            log.commit(lsn);
+        }
+        int changed = graph.apply(batch, townsByName);
+        snapshotIfDue();
+        return changed;
+    }
+
+    // -------------- MUTATION LOG SECTION ---------------
+
+    /**
+     * Rebuilds the graph from a mutation log, by loading its newest snapshot and
+     * replaying the changes logged after it, and then attaches the log so that
+     * every later change is logged. A new, empty log simply attaches.
+     * 
+     * @param log the log to recover from
+     * @return the number of logged changes replayed after the snapshot
+     * @throws IOException if the snapshot cannot be read
+     * @throws IllegalStateException if the manager already has towns or a log
+     */
+    public int recover(MutationLog log) throws IOException {
+        if (this.log != null || !townsByName.isEmpty()) {
+            throw new IllegalStateException("Recover into an empty manager without a log");
+        }
+        File snapshot = log.recoveredSnapshot();
+        if (snapshot != null) importGraph(snapshot);
+        GraphBatch batch = beginBatch();
+        int replayed = log.replayInto(batch);
+        batch.commit();
+        this.log = log;
+        return replayed;
+    }
+
+    /**
+     * Returns the mutation log changes are written to.
+     * 
+     * @return the MutationLog, or null if changes are not logged
+     */
+    public MutationLog getMutationLog() {
+        return log;
+    }
+
+    /**
+     * Starts writing a snapshot of the graph to the mutation log now, instead of
+     * waiting for the log's snapshot interval, so the next recovery has fewer
+     * changes to replay.
+     * 
+     * @return completes with the snapshot file once it is on disk
+     * @throws IOException if the log cannot be written
+     * @throws IllegalStateException if no log is attached
+     */
+    public Future<File> snapshot() throws IOException {
+        if (log == null) throw new IllegalStateException("No mutation log is attached");
+        return log.snapshot(graph.freeze());
+    }
+
+    /**
+     * Writes a change to the mutation log before it is applied, and waits for
+     * the log as its sync interval requires. If the log cannot be written, the
+     * exception leaves the graph unchanged.
+     */
+    private void logAhead(GraphBatch.Mutation mutation) {
+        if (log != null) log.commit(log.append(mutation));
+    }
+
+    /**
+     * Starts a snapshot once the log asks for one. Called after a logged
+     * change is applied, when the graph holds exactly the logged changes.
+     */
+    private void snapshotIfDue() {
+        if (log != null && log.isSnapshotDue()) {
+            try {
+                log.snapshot(graph.freeze());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Returns the shortest distance from every source town to every target town.
+     * This runs one search per source, in parallel, instead of one getPath call
+     * per pair, and skips building path strings.
+     *
+     * @param sources the names of the row towns
+     * @param targets the names of the column towns
+     * @return matrix[i][j] is the distance from sources[i] to targets[j], or
+     *         Integer.MAX_VALUE if there is no path or either town does not exist
+     */
+    public int[][] distanceMatrix(List<String> sources, List<String> targets) {
+        return graph.freeze().distanceMatrix(townsFor(sources), townsFor(targets));
+    }
+
+    private List<Town> townsFor(List<String> names) {
+        List<Town> towns = new ArrayList<>(names.size());
+        for (String name : names) {
+            towns.add(getTown(name));
+        }
+        return towns;
+    }
+
+    /**
+     * Saves the landmark tables used for A_STAR routing next to the road data,
+     * so they do not have to be recomputed after a restart.
+     * 
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void saveLandmarks(File file) throws IOException {
+        graph.saveLandmarks(file);
+    }
+
+    /**
+     * Loads landmark tables previously written by saveLandmarks.
+     * 
+     * @param file the file to read
+     * @return true if the tables match the current road network and were loaded
+     * @throws IOException if the file cannot be read
+     */
+    public boolean loadLandmarks(File file) throws IOException {
+        return graph.loadLandmarks(file);
+    }
+
+    /**
+     * Returns the search strategy getPath uses by default.
+     * 
+     * @return the default routing algorithm
+     */
+    public RoutingAlgorithm getRoutingAlgorithm() {
+        return routingAlgorithm;
+    }
+
+    /**
+     * Sets the search strategy getPath uses by default.
+     * 
+     * @param routingAlgorithm the routing algorithm to use
+     */
+    public void setRoutingAlgorithm(RoutingAlgorithm routingAlgorithm) {
+        this.routingAlgorithm = routingAlgorithm;
+    }
+
+    /**
+     * Checks whether getPath is answered from a precomputed all-pairs table.
+     *
+     * @return true if all-pairs mode is on
+     */
+    public boolean isAllPairsMode() {
+        return graph.isAllPairsMode();
+    }
+
+    /**
+     * Turns all-pairs mode on or off. In all-pairs mode every getPath call is a
+     * table lookup, at the cost of two n-by-n int matrices, which suits
+     * networks of a few thousand towns.
+     *
+     * @param enabled true to answer getPath from the table
+     */
+    public void setAllPairsMode(boolean enabled) {
+        graph.setAllPairsMode(enabled);
+    }
+
+    /**
+     * Returns the memory held by the all-pairs table.
+     *
+     * @return the estimated size in bytes, 0 if no table is built
+     */
+    public long allPairsEstimatedBytes() {
+        return graph.allPairsEstimatedBytes();
+    }
+
+    /**
+     * Returns the metrics getPath, getRoute and populateTownGraph record into.
+     *
+     * @return the RoutingMetrics, or null if metrics are off
+     */
+    public RoutingMetrics getMetrics() {
+        return graph.getMetrics();
+    }
+
+    /**
+     * Turns metrics on by attaching a RoutingMetrics, or off by passing null.
+     * Metrics are off by default and cost nothing until they are attached.
+     * Use RoutingMetrics.registerMBean to expose them through JMX.
+     *
+     * @param metrics the metrics to record into, or null to turn them off
+     */
+    public void setMetrics(RoutingMetrics metrics) {
+        graph.setMetrics(metrics);
     }
 
     /**
      * Populates the graph by reading towns and roads from a file.
      * Each line in the file should be in the format: road-name,distance;town1;town2
+     * The file is memory-mapped and parsed in parallel by TownGraphLoader.
      * 
      * @param selectedFile the file to read
      * @throws FileNotFoundException if the file is not found
      */
     public void populateTownGraph(File selectedFile) throws FileNotFoundException {
-        Scanner scanner = new Scanner(selectedFile);
-
-        while (scanner.hasNextLine()) {
-            String line = scanner.nextLine();
-            String[] parts = line.split(";");
-            if (parts.length == 3) {
-                String[] roadParts = parts[0].split(",");
-                String roadName = roadParts[0];
-                int distance = Integer.parseInt(roadParts[1]);
-                String town1 = parts[1];
-                String town2 = parts[2];
-
-                addTown(town1);
-                addTown(town2);
-                addRoad(town1, town2, distance, roadName);
+        lastLoadStatistics = new TownGraphLoader().load(selectedFile, this);
+        RoutingMetrics metrics = graph.getMetrics();
+        if (metrics != null) metrics.recordLoad(lastLoadStatistics);
+    }
+
+    /**
+     * Writes the road network to a binary graph file. Loading that file with
+     * importGraph, or mapping it with MappedTownGraph.open, is much faster than
+     * parsing the text format again.
+     * 
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void exportGraph(File file) throws IOException {
+        graph.exportBinary(file);
+    }
+
+    /**
+     * Adds every town and road from a binary graph file written by exportGraph,
+     * as one batch, so an attached log takes a single sync for the whole file.
+     * 
+     * @param file the file to read
+     * @throws IOException if the file cannot be read or is not a valid graph file
+     */
+    public void importGraph(File file) throws IOException {
+        MappedTownGraph mapped = MappedTownGraph.open(file);
+        GraphBatch batch = beginBatch();
+        for (int v = 0; v < mapped.size(); v++) {
+            batch.addTown(mapped.townName(v));
+        }
+        for (int v = 0; v < mapped.size(); v++) {
+            for (int arc = mapped.firstArc(v); arc < mapped.endArc(v); arc++) {
+                int w = mapped.target(arc);
+                if (w >= v) {
+                    batch.addRoad(mapped.townName(v), mapped.townName(w), mapped.weight(arc), mapped.roadName(arc));
+                }
             }
         }
-        scanner.close();
+        batch.commit();
+    }
+
+    /**
+     * Returns the size and timing figures of the most recent populateTownGraph call.
+     * 
+     * @return the LoadStatistics, or null if nothing has been loaded
+     */
+    public LoadStatistics getLastLoadStatistics() {
+        return lastLoadStatistics;
     }
 }
@@ -2,6 +2,7 @@ import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  * This class tests the functionality of the TownGraphManager class,
@@ -70,4 +71,40 @@ public class TownGraphManager_STUDENT_Test {
 
         assertFalse(path.isEmpty());
     }
+
+    /**
+     * Tests that town lookups by name follow additions and deletions.
+     */
+    @Test
+    public void testTownLookupTracksChanges() {
+        assertEquals("X", manager.getTown("X").getName());
+        assertNull(manager.getTown("Q"));
+
+        manager.addRoad("Y", "Q", 5, "YQ Road");
+        assertTrue(manager.containsTown("Q"));
+        assertSame(manager.getTown("Q"), manager.getTown("Q"));
+
+        assertTrue(manager.deleteTown("Q"));
+        assertNull(manager.getTown("Q"));
+        assertFalse(manager.containsTown("Q"));
+        assertFalse(manager.deleteTown("Q"));
+    }
+
+    /**
+     * Tests that the distance matrix matches getPath for every pair, including
+     * unknown and unreachable towns.
+     */
+    @Test
+    public void testDistanceMatrix() {
+        manager.addRoad("Y", "Z", 4, "YZ Road");
+        manager.addRoad("X", "Z", 30, "XZ Road");
+        manager.addTown("Lonely");
+
+        int[][] matrix = manager.distanceMatrix(Arrays.asList("X", "Z", "Nowhere"),
+                Arrays.asList("Z", "X", "Lonely", "Z"));
+        assertArrayEquals(new int[] {19, 0, Integer.MAX_VALUE, 19}, matrix[0]);
+        assertArrayEquals(new int[] {0, 19, Integer.MAX_VALUE, 0}, matrix[1]);
+        assertArrayEquals(new int[] {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE},
+                matrix[2]);
+    }
 }